@@ -1,14 +1,24 @@
 package eu.bittrade.libs.steem.api.wrapper;
 
-import java.util.HashMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import eu.bittrade.libs.steem.api.wrapper.caching.BlockCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.ContentCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.DiskResponseCache.PersistencePolicy;
+import eu.bittrade.libs.steem.api.wrapper.caching.GlobalPropertiesHolder;
 import eu.bittrade.libs.steem.api.wrapper.communication.CommunicationHandler;
 import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
 import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
@@ -16,17 +26,24 @@ import eu.bittrade.libs.steem.api.wrapper.communication.SteemApis;
 import eu.bittrade.libs.steem.api.wrapper.communication.dto.GetDiscussionParametersDTO;
 import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
 import eu.bittrade.libs.steem.api.wrapper.configuration.SteemApiWrapperConfig;
+import eu.bittrade.libs.steem.api.wrapper.discussions.CommentTreeFetcher;
+import eu.bittrade.libs.steem.api.wrapper.discussions.ContentFetcher;
+import eu.bittrade.libs.steem.api.wrapper.discussions.DiscussionIterator;
 import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
 import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
 import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
 import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.history.AccountHistory;
+import eu.bittrade.libs.steem.api.wrapper.history.ColumnarAccountHistory;
 import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
 import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
 import eu.bittrade.libs.steem.api.wrapper.models.Block;
 import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
 import eu.bittrade.libs.steem.api.wrapper.models.ChainProperties;
 import eu.bittrade.libs.steem.api.wrapper.models.Config;
 import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.models.DiscussionSummary;
 import eu.bittrade.libs.steem.api.wrapper.models.FeedHistory;
 import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
 import eu.bittrade.libs.steem.api.wrapper.models.HardforkSchedule;
@@ -37,6 +54,10 @@ import eu.bittrade.libs.steem.api.wrapper.models.UserOrder;
 import eu.bittrade.libs.steem.api.wrapper.models.Version;
 import eu.bittrade.libs.steem.api.wrapper.models.Vote;
 import eu.bittrade.libs.steem.api.wrapper.models.WitnessSchedule;
+import eu.bittrade.libs.steem.api.wrapper.storage.BlockStore;
+import eu.bittrade.libs.steem.api.wrapper.streaming.AccountNamePrefilter;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationRecord;
 import eu.bittrade.libs.steem.api.wrapper.util.SteemApiWrapperUtil;
 
 /**
@@ -44,11 +65,15 @@ import eu.bittrade.libs.steem.api.wrapper.util.SteemApiWrapperUtil;
  * 
  * @author http://steemit.com/@dez1337
  */
-public class SteemApiWrapper {
+public class SteemApiWrapper implements Closeable {
     private static final Logger LOGGER = LogManager.getLogger(SteemApiWrapper.class);
+    /** The time the chain configuration is kept in the disk response cache. */
+    private static final long CONFIG_TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
 
     private CommunicationHandler communicationHandler;
     private SteemApiWrapperConfig steemApiWrapperConfig;
+    private volatile long lastIrreversibleBlockNum;
+    private final GlobalPropertiesHolder globalPropertiesHolder;
 
     /**
      * Initialize the Steem API Wrapper.
@@ -93,6 +118,36 @@ public class SteemApiWrapper {
                 LOGGER.warn("The {} is not published by the configured node.", steemApi.toString());
             }
         }
+
+        if (steemApiWrapperConfig.isGlobalPropertiesHolderEnabled()) {
+            long blockInterval = getConfig().getSteemitBlockInterval() * 1000L;
+            if (blockInterval <= 0) {
+                LOGGER.warn("The node did not return a block interval. Using the default block interval.");
+                blockInterval = GlobalPropertiesHolder.DEFAULT_BLOCK_INTERVAL;
+            }
+
+            this.globalPropertiesHolder = new GlobalPropertiesHolder(this::requestDynamicGlobalProperties,
+                    blockInterval);
+            this.globalPropertiesHolder.start();
+        } else {
+            this.globalPropertiesHolder = null;
+        }
+    }
+
+    /**
+     * Stop the background refresh of the global properties holder and close
+     * the connection to the node. The wrapper must not be used afterwards.
+     * 
+     * @throws IOException
+     *             If the connection could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (globalPropertiesHolder != null) {
+            globalPropertiesHolder.close();
+        }
+
+        communicationHandler.close();
     }
 
     /**
@@ -130,8 +185,9 @@ public class SteemApiWrapper {
      *            The starting point.
      * @param limit
      *            The maximum number of entries.
-     * @return A map containing the activities. The key is the id of the
-     *         activity.
+     * @return A map containing the activities. The key is the sequence number
+     *         of the activity. The returned map is an {@link AccountHistory}
+     *         (@see #getAccountHistoryPage(String, int, int)).
      * @throws SteemTimeoutException
      *             If the server was not able to answer the request in the given
      *             time (@see SteemApiWrapperConfig)
@@ -145,23 +201,95 @@ public class SteemApiWrapper {
      */
     public Map<Integer, AccountActivity> getAccountHistory(String accountName, int from, int limit)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        return getAccountHistoryPage(accountName, from, limit);
+    }
+
+    /**
+     * Get the latest activities of a specific account as a compact container
+     * that is ordered by the sequence numbers of the activities.
+     * 
+     * @param accountName
+     *            The user name of the account.
+     * @param from
+     *            The starting point.
+     * @param limit
+     *            The maximum number of entries.
+     * @return The activities ordered by their sequence number.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public AccountHistory getAccountHistoryPage(String accountName, int from, int limit)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setSteemApi(SteemApis.DATABASE_API);
         requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_HISTORY);
         String[] parameters = { accountName, String.valueOf(from), String.valueOf(limit) };
         requestObject.setAdditionalParameters(parameters);
 
-        Map<Integer, AccountActivity> accountActivities = new HashMap<>();
+        // A page can be stored if it ends with the requested entry and if all
+        // of its entries are irreversible.
+        List<Object[]> response = communicationHandler.performRequest(requestObject, Object[].class,
+                page -> from >= 0 && isCompleteAccountHistoryPage(from, page));
+        long[] sequenceNumbers = new long[response.size()];
+        AccountActivity[] accountActivities = new AccountActivity[response.size()];
 
         // TODO There are still problems with the deserialization of the op()
         // object.
-        for (Object[] accountActivity : communicationHandler.performRequest(requestObject, Object[].class)) {
-            accountActivities.put((Integer) accountActivity[0], communicationHandler.getObjectMapper()
-                    .convertValue(accountActivity[1], new TypeReference<AccountActivity>() {
-                    }));
+        for (int i = 0; i < response.size(); i++) {
+            Object[] accountActivity = response.get(i);
+            sequenceNumbers[i] = ((Number) accountActivity[0]).longValue();
+            accountActivities[i] = communicationHandler.getObjectMapper().convertValue(accountActivity[1],
+                    new TypeReference<AccountActivity>() {
+                    });
         }
 
-        return accountActivities;
+        return new AccountHistory(sequenceNumbers, accountActivities);
+    }
+
+    /**
+     * Get the latest activities of a specific account and add them directly
+     * to the given columnar container, without creating an object for every
+     * activity.
+     * 
+     * @param accountName
+     *            The user name of the account.
+     * @param from
+     *            The starting point.
+     * @param limit
+     *            The maximum number of entries.
+     * @param columnarAccountHistory
+     *            The container to add the activities to.
+     * @return The number of added activities.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public int getAccountHistory(String accountName, int from, int limit,
+            ColumnarAccountHistory columnarAccountHistory)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        RequestWrapper requestObject = new RequestWrapper();
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_HISTORY);
+        String[] parameters = { accountName, String.valueOf(from), String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return columnarAccountHistory.addAll(communicationHandler.performRawRequest(requestObject),
+                steemApiWrapperConfig.getDateTimeFormat());
     }
 
     /**
@@ -267,7 +395,10 @@ public class SteemApiWrapper {
         String[] parameters = {};
         requestObject.setAdditionalParameters(parameters);
 
-        return communicationHandler.performRequest(requestObject, Config.class).get(0);
+        // The configuration only changes with a hardfork.
+        return communicationHandler
+                .performRequest(requestObject, Config.class, PersistencePolicy.expireAfter(CONFIG_TIME_TO_LIVE))
+                .get(0);
     }
 
     /**
@@ -536,7 +667,9 @@ public class SteemApiWrapper {
     }
 
     /**
-     * Get the global properties.
+     * Get the global properties. If the global properties holder has been
+     * enabled, its latest snapshot is returned instead of requesting the
+     * properties.
      * 
      * @return The dynamic global properties.
      * @throws SteemTimeoutException
@@ -552,6 +685,45 @@ public class SteemApiWrapper {
      */
     public GlobalProperties getDynamicGlobalProperties()
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        if (globalPropertiesHolder != null) {
+            GlobalProperties globalProperties = globalPropertiesHolder.getCurrentGlobalProperties();
+            if (globalProperties != null) {
+                return globalProperties;
+            }
+        }
+
+        return requestDynamicGlobalProperties();
+    }
+
+    /**
+     * Get the holder that refreshes the dynamic global properties in the
+     * background. Its latest snapshot can be read without any request or
+     * locking.
+     * 
+     * @return The holder or null if it has not been enabled (@see
+     *         SteemApiWrapperConfig#setGlobalPropertiesHolderEnabled(boolean)).
+     */
+    public GlobalPropertiesHolder getGlobalPropertiesHolder() {
+        return globalPropertiesHolder;
+    }
+
+    /**
+     * Request the dynamic global properties from the node.
+     * 
+     * @return The dynamic global properties.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    private GlobalProperties requestDynamicGlobalProperties()
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setApiMethod(RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES);
         requestObject.setSteemApi(SteemApis.DATABASE_API);
@@ -634,13 +806,36 @@ public class SteemApiWrapper {
      */
     public Discussion getContent(String author, String permlink)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        ContentCache contentCache = steemApiWrapperConfig.getContentCache();
+        AuthorPermlink authorPermlink = new AuthorPermlink(author, permlink);
+        long generation = 0;
+        long earliestTicket = 0;
+        if (contentCache != null) {
+            Discussion cachedDiscussion = contentCache.getDiscussion(authorPermlink);
+            if (cachedDiscussion != null) {
+                return cachedDiscussion;
+            }
+
+            // An invalidation during the request makes the response outdated,
+            // so an identical request sent before may not be joined.
+            generation = contentCache.getGeneration(authorPermlink);
+            earliestTicket = communicationHandler.nextRequestTicket();
+        }
+
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setApiMethod(RequestMethods.GET_CONTENT);
         requestObject.setSteemApi(SteemApis.DATABASE_API);
         String[] parameters = { author, permlink };
         requestObject.setAdditionalParameters(parameters);
 
-        return communicationHandler.performRequest(requestObject, Discussion.class).get(0);
+        Discussion discussion = communicationHandler
+                .performRequest(requestObject, Discussion.class, null, earliestTicket).get(0);
+
+        if (contentCache != null) {
+            contentCache.putDiscussion(authorPermlink, discussion, generation);
+        }
+
+        return discussion;
     }
 
     /**
@@ -673,6 +868,129 @@ public class SteemApiWrapper {
         return communicationHandler.performRequest(requestObject, Discussion.class);
     }
 
+    /**
+     * Get the content of several posts and comments. Entries of the configured
+     * content cache are used directly, the remaining entries are requested
+     * concurrently by a pool of {@link ContentFetcher#DEFAULT_CONCURRENCY}
+     * threads shared by all wrappers.
+     * 
+     * @param authorPermlinks
+     *            The posts and comments to request.
+     * @return The content of each post or comment in the order of the given
+     *         collection.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Map<AuthorPermlink, Discussion> getContents(Collection<AuthorPermlink> authorPermlinks)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        try (ContentFetcher contentFetcher = new ContentFetcher(this::getContent,
+                steemApiWrapperConfig.getContentCache())) {
+            return contentFetcher.fetch(authorPermlinks);
+        }
+    }
+
+    /**
+     * Get the content of several posts and comments. Entries of the configured
+     * content cache are used directly, the remaining entries are requested
+     * concurrently.
+     * 
+     * @param authorPermlinks
+     *            The posts and comments to request.
+     * @param executorService
+     *            The executor used to request the remaining entries, which
+     *            limits the number of requests performed at the same time.
+     * @return The content of each post or comment in the order of the given
+     *         collection.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Map<AuthorPermlink, Discussion> getContents(Collection<AuthorPermlink> authorPermlinks,
+            ExecutorService executorService)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        try (ContentFetcher contentFetcher = new ContentFetcher(this::getContent,
+                steemApiWrapperConfig.getContentCache(), executorService)) {
+            return contentFetcher.fetch(authorPermlinks);
+        }
+    }
+
+    /**
+     * Get a post or comment together with its nested replies. The replies of
+     * each level are requested in parallel.
+     * 
+     * @param author
+     *            The author of the post or comment.
+     * @param permlink
+     *            The permlink of the post or comment.
+     * @param maxDepth
+     *            The number of reply levels to request. 0 only requests the
+     *            given post or comment.
+     * @return The post or comment whose replies contain the tree.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Discussion getCommentTree(String author, String permlink, int maxDepth)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        return getCommentTree(author, permlink, maxDepth, false);
+    }
+
+    /**
+     * Get a post or comment together with its nested replies. The replies of
+     * each level and, if requested, their active votes are requested in
+     * parallel.
+     * 
+     * @param author
+     *            The author of the post or comment.
+     * @param permlink
+     *            The permlink of the post or comment.
+     * @param maxDepth
+     *            The number of reply levels to request. 0 only requests the
+     *            given post or comment.
+     * @param withActiveVotes
+     *            True to also request the active votes of every discussion of
+     *            the tree.
+     * @return The post or comment whose replies contain the tree.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Discussion getCommentTree(String author, String permlink, int maxDepth, boolean withActiveVotes)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        try (CommentTreeFetcher commentTreeFetcher = new CommentTreeFetcher(this)) {
+            return commentTreeFetcher.fetch(author, permlink, maxDepth, withActiveVotes);
+        }
+    }
+
     /**
      * Get the active votes for a given post of a given author.
      * 
@@ -694,13 +1012,36 @@ public class SteemApiWrapper {
      */
     public List<ActiveVote> getActiveVotes(String author, String permlink)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        ContentCache contentCache = steemApiWrapperConfig.getContentCache();
+        AuthorPermlink authorPermlink = new AuthorPermlink(author, permlink);
+        long generation = 0;
+        long earliestTicket = 0;
+        if (contentCache != null) {
+            List<ActiveVote> cachedActiveVotes = contentCache.getActiveVotes(authorPermlink);
+            if (cachedActiveVotes != null) {
+                return cachedActiveVotes;
+            }
+
+            // An invalidation during the request makes the response outdated,
+            // so an identical request sent before may not be joined.
+            generation = contentCache.getGeneration(authorPermlink);
+            earliestTicket = communicationHandler.nextRequestTicket();
+        }
+
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setApiMethod(RequestMethods.GET_ACTIVE_VOTES);
         requestObject.setSteemApi(SteemApis.DATABASE_API);
         String[] parameters = { author, permlink };
         requestObject.setAdditionalParameters(parameters);
 
-        return communicationHandler.performRequest(requestObject, ActiveVote.class);
+        List<ActiveVote> activeVotes = communicationHandler.performRequest(requestObject, ActiveVote.class, null,
+                earliestTicket);
+
+        if (contentCache != null) {
+            return contentCache.putActiveVotes(authorPermlink, activeVotes, generation);
+        }
+
+        return activeVotes;
     }
 
     /**
@@ -726,21 +1067,126 @@ public class SteemApiWrapper {
      */
     public List<Discussion> getDiscussionsBy(String tag, int limit, DiscussionSortType sortBy)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
-        RequestWrapper requestObject = new RequestWrapper();
+        return getDiscussionsBy(tag, limit, sortBy, null, null);
+    }
 
-        requestObject.setApiMethod(SteemApiWrapperUtil.getEquivalentRequestMethod(sortBy));
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        // This steem api is the most non standardized shit I've ever seen in my
-        // life. Here goes the workaround:
-        GetDiscussionParametersDTO getDiscussionParameterDTO = new GetDiscussionParametersDTO();
-        getDiscussionParameterDTO.setTag(tag);
-        getDiscussionParameterDTO.setLimit(String.valueOf(limit));
-        Object[] parameters = { getDiscussionParameterDTO };
-        requestObject.setAdditionalParameters(parameters);
+    /**
+     * Get a page of the active discussions for a specified tag, starting with
+     * the given discussion. The given discussion is included in the result,
+     * so it is also the last discussion of the previous page.
+     * 
+     * <p>
+     * Use the {@link DiscussionIterator} to walk through a complete listing.
+     * 
+     * @param tag
+     *            Get discussions that are tagged with this tag.
+     * @param limit
+     *            The number of results.
+     * @param sortBy
+     *            The way how the results should be sorted by.
+     * @param startAuthor
+     *            The author of the first discussion or null to start with the
+     *            first discussion of the listing.
+     * @param startPermlink
+     *            The permlink of the first discussion or null to start with
+     *            the first discussion of the listing.
+     * @return A list of discussions.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<Discussion> getDiscussionsBy(String tag, int limit, DiscussionSortType sortBy, String startAuthor,
+            String startPermlink)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        return getDiscussionsBy(tag, limit, sortBy, startAuthor, startPermlink, 0);
+    }
+
+    /**
+     * Get a page of the active discussions for a specified tag, starting with
+     * the given discussion, whose bodies are shortened by the node.
+     * 
+     * @param tag
+     *            Get discussions that are tagged with this tag.
+     * @param limit
+     *            The number of results.
+     * @param sortBy
+     *            The way how the results should be sorted by.
+     * @param startAuthor
+     *            The author of the first discussion or null to start with the
+     *            first discussion of the listing.
+     * @param startPermlink
+     *            The permlink of the first discussion or null to start with
+     *            the first discussion of the listing.
+     * @param truncateBody
+     *            The maximum number of characters of a body or 0 to return the
+     *            complete bodies.
+     * @return A list of discussions.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<Discussion> getDiscussionsBy(String tag, int limit, DiscussionSortType sortBy, String startAuthor,
+            String startPermlink, int truncateBody)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        RequestWrapper requestObject = createGetDiscussionsRequest(tag, limit, sortBy, startAuthor, startPermlink,
+                truncateBody);
 
         return communicationHandler.performRequest(requestObject, Discussion.class);
     }
 
+    /**
+     * Get a page of compact summaries of the active discussions for a
+     * specified tag. The node only returns the first character of every body,
+     * which reduces the size of the response significantly.
+     * 
+     * @param tag
+     *            Get discussions that are tagged with this tag.
+     * @param limit
+     *            The number of results.
+     * @param sortBy
+     *            The way how the results should be sorted by.
+     * @param startAuthor
+     *            The author of the first discussion or null to start with the
+     *            first discussion of the listing.
+     * @param startPermlink
+     *            The permlink of the first discussion or null to start with
+     *            the first discussion of the listing.
+     * @return A list of discussion summaries.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<DiscussionSummary> getDiscussionSummariesBy(String tag, int limit, DiscussionSortType sortBy,
+            String startAuthor, String startPermlink)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        // A truncation of 0 would return the complete body.
+        RequestWrapper requestObject = createGetDiscussionsRequest(tag, limit, sortBy, startAuthor, startPermlink,
+                1);
+
+        return communicationHandler.performRequest(requestObject, DiscussionSummary.class);
+    }
+
     /**
      * Get only the header of a block instead of the complete one.
      * 
@@ -760,13 +1206,44 @@ public class SteemApiWrapper {
      */
     public BlockHeader getBlockHeader(long blockNumber)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        BlockCache blockCache = steemApiWrapperConfig.getBlockCache();
+        if (blockCache != null) {
+            BlockHeader cachedBlockHeader = blockCache.getBlockHeader(blockNumber);
+            if (cachedBlockHeader != null) {
+                return cachedBlockHeader;
+            }
+        }
+
+        BlockStore blockStore = steemApiWrapperConfig.getBlockStore();
+        if (blockStore != null) {
+            try {
+                BlockHeader storedBlockHeader = blockStore.getBlockHeader(blockNumber);
+                if (storedBlockHeader != null) {
+                    return storedBlockHeader;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the header of block {} from the block store. Requesting it from the node.",
+                        blockNumber, e);
+            }
+        }
+
+        // Decide before the request, so that a header requested while the block
+        // was still reversible is never cached.
+        boolean irreversible = blockCache != null && isIrreversible(blockNumber);
+
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setApiMethod(RequestMethods.GET_BLOCK_HEADER);
         requestObject.setSteemApi(SteemApis.LOGIN_API);
         String[] parameters = { String.valueOf(blockNumber) };
         requestObject.setAdditionalParameters(parameters);
 
-        return communicationHandler.performRequest(requestObject, BlockHeader.class).get(0);
+        BlockHeader blockHeader = communicationHandler.performRequest(requestObject, BlockHeader.class).get(0);
+
+        if (irreversible && blockHeader != null) {
+            blockCache.putBlockHeader(blockNumber, blockHeader);
+        }
+
+        return blockHeader;
     }
 
     /**
@@ -789,13 +1266,388 @@ public class SteemApiWrapper {
      */
     public Block getBlock(long blockNumber)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        Block localBlock = getLocalBlock(blockNumber);
+        if (localBlock != null) {
+            return localBlock;
+        }
+
+        boolean irreversible = (isStoringBlocks() || steemApiWrapperConfig.getDiskResponseCache() != null)
+                && isIrreversible(blockNumber);
+
         RequestWrapper requestObject = new RequestWrapper();
         requestObject.setApiMethod(RequestMethods.GET_BLOCK);
         requestObject.setSteemApi(SteemApis.LOGIN_API);
         String[] parameters = { String.valueOf(blockNumber) };
         requestObject.setAdditionalParameters(parameters);
 
-        return communicationHandler.performRequest(requestObject, Block.class).get(0);
+        Block block = communicationHandler
+                .performRequest(requestObject, Block.class, response -> irreversible && response.get(0) != null)
+                .get(0);
+
+        if (irreversible) {
+            storeLocalBlock(blockNumber, block);
+        }
+
+        return block;
+    }
+
+    /**
+     * Get a complete block, but only decode it if it mentions one of the
+     * accounts watched by the given prefilter. This avoids the decoding costs
+     * for blocks that are not of interest.
+     * 
+     * <p>
+     * <b>Notice:</b> Blocks served by the configured block store are always
+     * returned. As the prefilter may also match blocks that only mention an
+     * account somewhere (e.g. in a memo), the returned block still has to be
+     * checked.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param accountNamePrefilter
+     *            The prefilter to apply to the raw response.
+     * @return The complete block or null if none of the watched accounts is
+     *         mentioned.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Block getBlock(long blockNumber, AccountNamePrefilter accountNamePrefilter)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        Block localBlock = getLocalBlock(blockNumber);
+        if (localBlock != null) {
+            return localBlock;
+        }
+
+        boolean irreversible = isStoringBlocks() && isIrreversible(blockNumber);
+
+        RequestWrapper requestObject = createGetBlockRequest(blockNumber);
+        String rawJsonResponse = communicationHandler.performRawRequest(requestObject);
+
+        if (!accountNamePrefilter.matches(rawJsonResponse) && !CommunicationHandler.isErrorResponse(rawJsonResponse)) {
+            LOGGER.debug("Block {} does not mention any of the watched accounts.", blockNumber);
+            return null;
+        }
+
+        Block block = communicationHandler.transformResponse(requestObject, rawJsonResponse, Block.class).get(0);
+        if (irreversible) {
+            storeLocalBlock(blockNumber, block);
+        }
+
+        return block;
+    }
+
+    /**
+     * Get the operations of a block that pass the given pipeline. In contrast
+     * to {@link #getBlock(long)}, the block is never decoded completely: Only
+     * the matching operations are turned into objects. Only if the block has
+     * to be requested from the node, is irreversible and a block cache or
+     * block store has been configured, the whole block is decoded once to add
+     * it to them.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param operationPipeline
+     *            The pipeline that contains the predicates the operations have
+     *            to match.
+     * @return A list of matching operations in the order they appear in the
+     *         block.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<OperationRecord> getOperations(long blockNumber, OperationPipeline operationPipeline)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        BlockCache blockCache = steemApiWrapperConfig.getBlockCache();
+        if (blockCache != null) {
+            List<OperationRecord> cachedOperations = blockCache.getOperations(blockNumber, operationPipeline);
+            if (cachedOperations != null) {
+                return cachedOperations;
+            }
+        }
+
+        BlockStore blockStore = steemApiWrapperConfig.getBlockStore();
+        if (blockStore != null) {
+            try {
+                List<OperationRecord> storedOperations = blockStore.getOperations(blockNumber, operationPipeline);
+                if (storedOperations != null) {
+                    return storedOperations;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not read block {} from the block store. Requesting it from the node.", blockNumber,
+                        e);
+            }
+        }
+
+        boolean irreversible = isStoringBlocks() && isIrreversible(blockNumber);
+
+        String rawBlock = getRawBlock(blockNumber);
+        List<OperationRecord> operations = operationPipeline.process(blockNumber, rawBlock);
+
+        if (irreversible) {
+            try {
+                ObjectMapper objectMapper = communicationHandler.getObjectMapper();
+                JsonNode result = objectMapper.readTree(rawBlock).get("result");
+                if (result != null) {
+                    storeLocalBlock(blockNumber, objectMapper.treeToValue(result, Block.class));
+                }
+            } catch (IOException e) {
+                throw new SteemTransformationException("Could not transform the response into an object.", e);
+            }
+        }
+
+        return operations;
+    }
+
+    /**
+     * Get all operations of a block, including the virtual operations (e.g.
+     * "author_reward", "curation_reward" or "fill_order") that have been
+     * created by the chain itself.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param onlyVirtual
+     *            True if only the virtual operations should be returned.
+     * @return A list of the operations in the order they have been applied.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<AccountActivity> getOpsInBlock(long blockNumber, boolean onlyVirtual)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        RequestWrapper requestObject = new RequestWrapper();
+        requestObject.setApiMethod(RequestMethods.GET_OPS_IN_BLOCK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        Object[] parameters = { String.valueOf(blockNumber), onlyVirtual };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequest(requestObject, AccountActivity.class);
+    }
+
+    /**
+     * Create the request for one of the discussion listings.
+     * 
+     * @param tag
+     *            Get discussions that are tagged with this tag.
+     * @param limit
+     *            The number of results.
+     * @param sortBy
+     *            The way how the results should be sorted by.
+     * @param startAuthor
+     *            The author of the first discussion or null.
+     * @param startPermlink
+     *            The permlink of the first discussion or null.
+     * @param truncateBody
+     *            The maximum number of characters of a body or 0.
+     * @return The request.
+     */
+    static RequestWrapper createGetDiscussionsRequest(String tag, int limit, DiscussionSortType sortBy,
+            String startAuthor, String startPermlink, int truncateBody) {
+        RequestWrapper requestObject = new RequestWrapper();
+
+        requestObject.setApiMethod(SteemApiWrapperUtil.getEquivalentRequestMethod(sortBy));
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        // This steem api is the most non standardized shit I've ever seen in my
+        // life. Here goes the workaround:
+        GetDiscussionParametersDTO getDiscussionParameterDTO = new GetDiscussionParametersDTO();
+        getDiscussionParameterDTO.setTag(tag);
+        getDiscussionParameterDTO.setLimit(String.valueOf(limit));
+        getDiscussionParameterDTO.setStartAuthor(startAuthor);
+        getDiscussionParameterDTO.setStartPermlink(startPermlink);
+        if (truncateBody > 0) {
+            getDiscussionParameterDTO.setTruncateBody(truncateBody);
+        }
+        Object[] parameters = { getDiscussionParameterDTO };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Get a block from the block cache or the block store, if they have been
+     * configured.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return The block or null if it is not available locally.
+     */
+    private Block getLocalBlock(long blockNumber) {
+        BlockCache blockCache = steemApiWrapperConfig.getBlockCache();
+        if (blockCache != null) {
+            Block cachedBlock = blockCache.getBlock(blockNumber);
+            if (cachedBlock != null) {
+                return cachedBlock;
+            }
+        }
+
+        BlockStore blockStore = steemApiWrapperConfig.getBlockStore();
+        if (blockStore != null) {
+            try {
+                return blockStore.get(blockNumber);
+            } catch (IOException e) {
+                LOGGER.warn("Could not read block {} from the block store. Requesting it from the node.", blockNumber,
+                        e);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Add a block to the configured block cache and block store. The caller
+     * has to make sure that the block was already irreversible when it has
+     * been requested, as the last irreversible block may advance while the
+     * request is in flight and a block of a fork would then be stored.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The block received from the node.
+     */
+    private void storeLocalBlock(long blockNumber, Block block) {
+        BlockStore blockStore = steemApiWrapperConfig.getBlockStore();
+        BlockCache blockCache = steemApiWrapperConfig.getBlockCache();
+        if ((blockStore == null && blockCache == null) || block == null) {
+            return;
+        }
+
+        if (blockCache != null) {
+            blockCache.putBlock(blockNumber, block);
+        }
+
+        if (blockStore != null) {
+            try {
+                blockStore.put(blockNumber, block);
+            } catch (IOException e) {
+                LOGGER.warn("Could not add block {} to the block store.", blockNumber, e);
+            }
+        }
+    }
+
+    /**
+     * Request a block without transforming the response.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return The raw JSON response of the server.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     */
+    private String getRawBlock(long blockNumber) throws SteemTimeoutException, SteemConnectionException {
+        return communicationHandler.performRawRequest(createGetBlockRequest(blockNumber));
+    }
+
+    /**
+     * Create the request object for a "get_block" request.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return The request object.
+     */
+    private RequestWrapper createGetBlockRequest(long blockNumber) {
+        RequestWrapper requestObject = new RequestWrapper();
+        requestObject.setApiMethod(RequestMethods.GET_BLOCK);
+        requestObject.setSteemApi(SteemApis.LOGIN_API);
+        String[] parameters = { String.valueOf(blockNumber) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * @return True if a block cache or a block store has been configured.
+     */
+    private boolean isStoringBlocks() {
+        return steemApiWrapperConfig.getBlockCache() != null || steemApiWrapperConfig.getBlockStore() != null;
+    }
+
+    /**
+     * Check if the given block is irreversible. The last irreversible block
+     * number is only requested from the node if the given block number is
+     * higher than the last known one. To decide if a response can be stored,
+     * this has to be called before the block is requested.
+     * 
+     * @param blockNumber
+     *            The number of the block to check.
+     * @return True if the block can no longer change, otherwise false.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    private boolean isIrreversible(long blockNumber)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        if (blockNumber > lastIrreversibleBlockNum) {
+            lastIrreversibleBlockNum = getDynamicGlobalProperties().getLastIrreversibleBlockNum();
+        }
+
+        return blockNumber <= lastIrreversibleBlockNum;
+    }
+
+    /**
+     * Check if a page of the account history will never change.
+     * 
+     * @param from
+     *            The requested sequence number.
+     * @param page
+     *            The page returned by the node.
+     * @return True if the page contains the requested sequence number and only
+     *         irreversible activities.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    private boolean isCompleteAccountHistoryPage(int from, List<Object[]> page)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        boolean containsRequestedEntry = false;
+        long newestBlockNumber = 0;
+
+        for (Object[] entry : page) {
+            containsRequestedEntry |= ((Number) entry[0]).longValue() == from;
+            Object blockNumber = ((Map<?, ?>) entry[1]).get("block");
+            if (blockNumber instanceof Number) {
+                newestBlockNumber = Math.max(newestBlockNumber, ((Number) blockNumber).longValue());
+            }
+        }
+
+        return containsRequestedEntry && isIrreversible(newestBlockNumber);
     }
 
     /**
@@ -0,0 +1,258 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.storage.BlockCodec;
+import eu.bittrade.libs.steem.api.wrapper.storage.CodecDictionary;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationRecord;
+
+/**
+ * A cache for irreversible blocks and block headers that is limited by the
+ * number of bytes it uses instead of the number of entries. If the limit has
+ * been reached, the least recently used entries are removed.
+ *
+ * <p>
+ * The entries are stored in the compact format of the {@link BlockCodec} and
+ * are decoded on every access, so that a cached block only occupies a single
+ * buffer instead of a graph of objects. In the off-heap mode, these buffers
+ * are direct buffers and do not use the Java heap at all.
+ *
+ * <p>
+ * The dictionary of the codec, which holds the account names of the cached
+ * blocks, is part of the byte budget. As its entries are never removed, it is
+ * replaced by an empty dictionary once it no longer fits next to a new entry
+ * after all other entries have been evicted.
+ *
+ * <p>
+ * <b>Notice:</b> Only irreversible blocks should be added to this cache, as a
+ * cached block is never refreshed.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockCache {
+    /** The default maximum number of bytes used by the cached blocks. */
+    public static final long DEFAULT_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    private final long maximumBytes;
+    private final boolean offHeap;
+    /** The codec of all cached entries, which is replaced with the dictionary. */
+    private BlockCodec blockCodec;
+    /** The entries in the order of their last access. */
+    private final LinkedHashMap<Long, CachedBlock> entries;
+    private long usedBytes;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Create a new on-heap cache that uses the default byte budget.
+     */
+    public BlockCache() {
+        this(DEFAULT_MAXIMUM_BYTES, false);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param maximumBytes
+     *            The maximum number of bytes used by the cached blocks.
+     * @param offHeap
+     *            True to store the blocks outside of the Java heap.
+     */
+    public BlockCache(long maximumBytes, boolean offHeap) {
+        if (maximumBytes <= 0) {
+            throw new IllegalArgumentException("The maximum number of bytes has to be greater than 0.");
+        }
+
+        this.maximumBytes = maximumBytes;
+        this.offHeap = offHeap;
+        this.blockCodec = new BlockCodec(new CodecDictionary());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a cached block.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return The block or null if the block is not cached.
+     */
+    public Block getBlock(long blockNumber) {
+        CachedBlock cachedBlock = getEncoded(blockNumber, true);
+        return cachedBlock == null ? null : cachedBlock.blockCodec.decodeBlock(cachedBlock.data);
+    }
+
+    /**
+     * Get a cached block header. The header is also available if the
+     * complete block has been cached.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return The header or null if neither the header nor the block is
+     *         cached.
+     */
+    public BlockHeader getBlockHeader(long blockNumber) {
+        CachedBlock cachedBlock = getEncoded(blockNumber, false);
+        return cachedBlock == null ? null : cachedBlock.blockCodec.decodeBlockHeader(cachedBlock.data);
+    }
+
+    /**
+     * Get the operations of a cached block that pass the given pipeline
+     * without decoding the whole block.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param operationPipeline
+     *            The pipeline to apply.
+     * @return The matching operations or null if the block is not cached.
+     */
+    public List<OperationRecord> getOperations(long blockNumber, OperationPipeline operationPipeline) {
+        CachedBlock cachedBlock = getEncoded(blockNumber, true);
+        return cachedBlock == null ? null
+                : cachedBlock.blockCodec.decodeOperations(blockNumber, cachedBlock.data, operationPipeline);
+    }
+
+    /**
+     * Add a block to the cache.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The irreversible block.
+     */
+    public void putBlock(long blockNumber, Block block) {
+        put(blockNumber, codec -> codec.encodeBlock(block), true);
+    }
+
+    /**
+     * Add a block header to the cache. If the complete block has already been
+     * cached, the cache is not changed.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param blockHeader
+     *            The header of the irreversible block.
+     */
+    public void putBlockHeader(long blockNumber, BlockHeader blockHeader) {
+        put(blockNumber, codec -> codec.encodeBlockHeader(blockHeader), false);
+    }
+
+    /**
+     * @return The number of cached entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of bytes used by the cached entries and the estimated
+     *         size of their dictionary.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes + blockCodec.getDictionary().getEstimatedBytes();
+    }
+
+    /**
+     * @return The number of requests that have been answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of requests that could not be answered from the
+     *         cache.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+        blockCodec = new BlockCodec(new CodecDictionary());
+    }
+
+    /**
+     * Get an independent view of a cached entry together with its codec, so
+     * that it can be decoded without holding the lock.
+     */
+    private synchronized CachedBlock getEncoded(long blockNumber, boolean fullBlockRequired) {
+        CachedBlock cachedBlock = entries.get(blockNumber);
+        if (cachedBlock == null || (fullBlockRequired && !cachedBlock.fullBlock)) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return new CachedBlock(cachedBlock.data.duplicate(), cachedBlock.fullBlock, cachedBlock.blockCodec);
+    }
+
+    /**
+     * Encode and add an entry. The entry is encoded while holding the lock,
+     * as encoding extends the dictionary that may be replaced.
+     */
+    private synchronized void put(long blockNumber, Function<BlockCodec, ByteBuffer> encoder, boolean fullBlock) {
+        CachedBlock existingBlock = entries.get(blockNumber);
+        if (existingBlock != null && existingBlock.fullBlock && !fullBlock) {
+            return;
+        }
+
+        ByteBuffer encodedBlock = encoder.apply(blockCodec);
+        if (existingBlock != null) {
+            entries.remove(blockNumber);
+            usedBytes -= existingBlock.data.capacity();
+        }
+
+        // Remove the least recently used entries until the new one fits.
+        for (Iterator<Map.Entry<Long, CachedBlock>> iterator = entries.entrySet().iterator(); iterator.hasNext()
+                && getUsedBytes() + encodedBlock.remaining() > maximumBytes;) {
+            usedBytes -= iterator.next().getValue().data.capacity();
+            iterator.remove();
+        }
+
+        if (getUsedBytes() + encodedBlock.remaining() > maximumBytes) {
+            // Only the dictionary is left, so start over with an empty one.
+            blockCodec = new BlockCodec(new CodecDictionary());
+            encodedBlock = encoder.apply(blockCodec);
+            if (getUsedBytes() + encodedBlock.remaining() > maximumBytes) {
+                blockCodec = new BlockCodec(new CodecDictionary());
+                return;
+            }
+        }
+
+        int length = encodedBlock.remaining();
+        ByteBuffer data = offHeap ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        data.put(encodedBlock);
+        data.flip();
+
+        entries.put(blockNumber, new CachedBlock(data.asReadOnlyBuffer(), fullBlock, blockCodec));
+        usedBytes += length;
+    }
+
+    /**
+     * An encoded block or block header and the codec it has been encoded
+     * with.
+     */
+    private static final class CachedBlock {
+        private final ByteBuffer data;
+        private final boolean fullBlock;
+        private final BlockCodec blockCodec;
+
+        private CachedBlock(ByteBuffer data, boolean fullBlock, BlockCodec blockCodec) {
+            this.data = data;
+            this.fullBlock = fullBlock;
+            this.blockCodec = blockCodec;
+        }
+    }
+}
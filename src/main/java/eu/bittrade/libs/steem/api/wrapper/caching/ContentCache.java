@@ -0,0 +1,341 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.streaming.BlockStream;
+import eu.bittrade.libs.steem.api.wrapper.streaming.BlockStreamListener;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationRecord;
+
+/**
+ * A cache for the content and the active votes of posts and comments. An
+ * entry does not expire after a fixed time, but is removed as soon as an
+ * operation that changes the post or comment appears on the blockchain.
+ *
+ * <p>
+ * To receive these operations, the cache has to be used as the listener of a
+ * {@link BlockStream}. The stream only has to decode the relevant operations
+ * if it uses the pipeline returned by {@link #createOperationPipeline()}.
+ *
+ * <p>
+ * An invalidation may arrive while the content is still requested from the
+ * node, in which case the response can already be outdated. To not cache such
+ * a response, every invalidation increases a generation counter. The caller
+ * reads the generation with {@link #getGeneration(AuthorPermlink)} before the
+ * request and passes it to the put method, which skips the put if the
+ * generation has changed in the meantime. The counters are shared by all
+ * posts and comments whose keys fall into the same of a fixed number of
+ * stripes, so an unrelated invalidation may rarely skip a put, but never lets
+ * an outdated response in. If request coalescing is enabled, the request must
+ * not join an identical request that has been sent before the generation has
+ * been read (@see RequestCoalescer#nextTicket()).
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class ContentCache implements BlockStreamListener {
+    /** The default maximum number of entries. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final String AUTHOR = "author";
+    private static final String PERMLINK = "permlink";
+    private static final String PARENT_AUTHOR = "parent_author";
+    private static final String PARENT_PERMLINK = "parent_permlink";
+    private static final String COMMENT_AUTHOR = "comment_author";
+    private static final String COMMENT_PERMLINK = "comment_permlink";
+    /** The number of invalidation generation counters. */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<AuthorPermlink, CachedContent> entries;
+    private final long[] generations;
+    private long hitCount;
+    private long missCount;
+    private long invalidationCount;
+
+    /**
+     * Create a new cache that uses the default size.
+     */
+    public ContentCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a new cache. If the cache is full, the least recently used entry
+     * is removed.
+     *
+     * @param maximumSize
+     *            The maximum number of posts and comments.
+     */
+    public ContentCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size has to be greater than 0.");
+        }
+
+        this.entries = new LinkedHashMap<AuthorPermlink, CachedContent>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2753218539014457347L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AuthorPermlink, CachedContent> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.generations = new long[GENERATION_STRIPES];
+    }
+
+    /**
+     * @return A pipeline that only accepts the operations which invalidate
+     *         entries of this cache.
+     */
+    public static OperationPipeline createOperationPipeline() {
+        return new OperationPipeline().filterByOperationType("comment", "vote", "delete_comment",
+                "comment_options", "author_reward", "curation_reward", "comment_reward", "comment_payout_update",
+                "comment_benefactor_reward");
+    }
+
+    /**
+     * @param authorPermlink
+     *            The post or comment.
+     * @return The cached content or null if it is not cached.
+     */
+    public synchronized Discussion getDiscussion(AuthorPermlink authorPermlink) {
+        CachedContent cachedContent = entries.get(authorPermlink);
+        return count(cachedContent == null ? null : cachedContent.discussion);
+    }
+
+    /**
+     * Get the invalidation generation of a post or comment, which has to be
+     * read before its content is requested.
+     *
+     * @param authorPermlink
+     *            The post or comment.
+     * @return The current generation.
+     */
+    public synchronized long getGeneration(AuthorPermlink authorPermlink) {
+        return generations[getStripe(authorPermlink)];
+    }
+
+    /**
+     * Add content that is known to be current.
+     *
+     * @param authorPermlink
+     *            The post or comment.
+     * @param discussion
+     *            The content to cache.
+     */
+    public synchronized void putDiscussion(AuthorPermlink authorPermlink, Discussion discussion) {
+        entries.computeIfAbsent(authorPermlink, key -> new CachedContent()).discussion = discussion;
+    }
+
+    /**
+     * Add content that has been requested after reading the given generation.
+     *
+     * @param authorPermlink
+     *            The post or comment.
+     * @param discussion
+     *            The content to cache.
+     * @param generation
+     *            The generation read before the request (@see
+     *            #getGeneration(AuthorPermlink)).
+     * @return True if the content has been added, false if the post or comment
+     *         has been invalidated since.
+     */
+    public synchronized boolean putDiscussion(AuthorPermlink authorPermlink, Discussion discussion,
+            long generation) {
+        if (generations[getStripe(authorPermlink)] != generation) {
+            return false;
+        }
+
+        putDiscussion(authorPermlink, discussion);
+        return true;
+    }
+
+    /**
+     * @param authorPermlink
+     *            The post or comment.
+     * @return The cached active votes or null if they are not cached.
+     */
+    public synchronized List<ActiveVote> getActiveVotes(AuthorPermlink authorPermlink) {
+        CachedContent cachedContent = entries.get(authorPermlink);
+        return count(cachedContent == null ? null : cachedContent.activeVotes);
+    }
+
+    /**
+     * @param authorPermlink
+     *            The post or comment.
+     * @param activeVotes
+     *            The active votes to cache.
+     * @return The active votes as they are stored in the cache, which is an
+     *         unmodifiable copy of the given list.
+     */
+    public synchronized List<ActiveVote> putActiveVotes(AuthorPermlink authorPermlink, List<ActiveVote> activeVotes) {
+        List<ActiveVote> cachedActiveVotes = Collections.unmodifiableList(new ArrayList<>(activeVotes));
+        entries.computeIfAbsent(authorPermlink, key -> new CachedContent()).activeVotes = cachedActiveVotes;
+        return cachedActiveVotes;
+    }
+
+    /**
+     * Add active votes that have been requested after reading the given
+     * generation.
+     *
+     * @param authorPermlink
+     *            The post or comment.
+     * @param activeVotes
+     *            The active votes to cache.
+     * @param generation
+     *            The generation read before the request (@see
+     *            #getGeneration(AuthorPermlink)).
+     * @return An unmodifiable copy of the given list, which has only been
+     *         added if the post or comment has not been invalidated since.
+     */
+    public synchronized List<ActiveVote> putActiveVotes(AuthorPermlink authorPermlink, List<ActiveVote> activeVotes,
+            long generation) {
+        if (generations[getStripe(authorPermlink)] != generation) {
+            return Collections.unmodifiableList(new ArrayList<>(activeVotes));
+        }
+
+        return putActiveVotes(authorPermlink, activeVotes);
+    }
+
+    /**
+     * Remove the content and the active votes of a post or comment.
+     *
+     * @param authorPermlink
+     *            The post or comment.
+     */
+    public synchronized void invalidate(AuthorPermlink authorPermlink) {
+        // Also count invalidations of posts and comments that are not cached,
+        // as they may be requested right now.
+        generations[getStripe(authorPermlink)]++;
+        if (entries.remove(authorPermlink) != null) {
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Remove the entries that are changed by the given operation.
+     *
+     * @param operationRecord
+     *            An operation of the blockchain.
+     */
+    public void invalidate(OperationRecord operationRecord) {
+        Map<String, Object> operation = operationRecord.getOperation();
+
+        switch (operationRecord.getOperationType()) {
+        case "comment":
+            invalidate(operation, AUTHOR, PERMLINK);
+            // A new reply changes the replies of the parent.
+            invalidate(operation, PARENT_AUTHOR, PARENT_PERMLINK);
+            break;
+        case "delete_comment":
+            invalidate(operation, AUTHOR, PERMLINK);
+            // The parent loses a reply.
+            invalidate(operation, PARENT_AUTHOR, PARENT_PERMLINK);
+            break;
+        case "vote":
+        case "comment_options":
+        case "author_reward":
+        case "comment_payout_update":
+            invalidate(operation, AUTHOR, PERMLINK);
+            break;
+        case "curation_reward":
+        case "comment_reward":
+        case "comment_benefactor_reward":
+            invalidate(operation, AUTHOR, PERMLINK);
+            invalidate(operation, COMMENT_AUTHOR, COMMENT_PERMLINK);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+    }
+
+    /**
+     * @return The number of cached posts and comments.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of requests that have been answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of requests that could not be answered from the
+     *         cache.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of entries that have been removed because of an
+     *         operation.
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    @Override
+    public void onBlock(long blockNumber, Block block) {
+        for (OperationRecord operationRecord : createOperationPipeline().process(blockNumber, block)) {
+            invalidate(operationRecord);
+        }
+    }
+
+    @Override
+    public void onOperations(long blockNumber, List<OperationRecord> operationRecords) {
+        for (OperationRecord operationRecord : operationRecords) {
+            invalidate(operationRecord);
+        }
+    }
+
+    private void invalidate(Map<String, Object> operation, String authorField, String permlinkField) {
+        Object author = operation.get(authorField);
+        Object permlink = operation.get(permlinkField);
+        if (author instanceof String && permlink instanceof String) {
+            invalidate(new AuthorPermlink((String) author, (String) permlink));
+        }
+    }
+
+    private static int getStripe(AuthorPermlink authorPermlink) {
+        return (authorPermlink.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private <T> T count(T value) {
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+
+        return value;
+    }
+
+    /**
+     * The cached data of a post or comment.
+     */
+    private static final class CachedContent {
+        private Discussion discussion;
+        private List<ActiveVote> activeVotes;
+    }
+}
@@ -0,0 +1,592 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+
+/**
+ * A persistent cache for raw responses that will never change, like
+ * irreversible blocks or complete pages of the account history. The responses
+ * are kept across restarts, so that a new process does not have to download
+ * them again. Responses that only rarely change (e.g. the chain configuration)
+ * can be stored with an expiration time, after which they are requested
+ * again. The responses are stored per node, so that a cache directory can be
+ * shared by wrappers connected to different chains.
+ *
+ * <p>
+ * The cache consists of the following files:
+ * <ul>
+ * <li>Segment files to which the requests and their raw responses are
+ * appended. The segments are read through memory mapped windows of a fixed
+ * size, so that new responses at the end of a segment only require to map the
+ * last window again.</li>
+ * <li>An append-only index file with one fixed-width entry (hash of the
+ * request, segment, offset and length) for every stored response.</li>
+ * <li>A lock file. Only the process that holds the lock on this file is
+ * allowed to add responses, all other processes open the cache read only.</li>
+ * </ul>
+ *
+ * A response is written to its segment and forced to the storage device
+ * before its index entry is appended, so that neither readers in other
+ * processes nor a restart after a crash see an index entry for incomplete
+ * data. Readers pick up new entries whenever they can not find a request.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class DiskResponseCache implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(DiskResponseCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The default maximum size of a segment in bytes. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /**
+     * The size of an index entry: The hash (long), the segment (int), the
+     * offset (int) and the length (int).
+     */
+    static final int INDEX_ENTRY_SIZE = 20;
+    /** The default size of the windows in which the segments are mapped. */
+    static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+    /** The maximum number of windows that are mapped at the same time. */
+    private static final int MAXIMUM_MAPPED_WINDOWS = 64;
+    /** The expiration time of responses that never expire. */
+    public static final long NEVER_EXPIRES = 0;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int windowSize;
+    private final FileChannel lockChannel;
+    private final FileLock writerLock;
+    private final FileChannel indexChannel;
+    private final Map<Long, Location> locations;
+    private final Map<Integer, FileChannel> segmentChannels;
+    /**
+     * The mapped windows in the order of their last access. The key contains
+     * the segment in the upper and the number of the window in the lower 32
+     * bits.
+     */
+    private final LinkedHashMap<Long, MappedByteBuffer> mappedWindows;
+    private long indexedBytes;
+    private int currentSegment;
+    private long currentSegmentSize;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Open or create a cache in the given directory that uses the default
+     * segment size.
+     *
+     * @param directory
+     *            The directory to store the files in.
+     * @throws IOException
+     *             If the files could not be opened.
+     */
+    public DiskResponseCache(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open or create a cache in the given directory. If another process
+     * already writes to the cache in this directory, the cache is opened read
+     * only.
+     *
+     * @param directory
+     *            The directory to store the files in.
+     * @param segmentSize
+     *            The maximum size of a segment in bytes. A response that is
+     *            larger than a segment gets a segment of its own.
+     * @throws IOException
+     *             If the files could not be opened.
+     */
+    public DiskResponseCache(Path directory, int segmentSize) throws IOException {
+        this(directory, segmentSize, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Open or create a cache in the given directory that maps the segments in
+     * windows of the given size.
+     *
+     * @param directory
+     *            The directory to store the files in.
+     * @param segmentSize
+     *            The maximum size of a segment in bytes.
+     * @param windowSize
+     *            The size of the mapped windows in bytes. A response that does
+     *            not fit into a window gets a larger window.
+     * @throws IOException
+     *             If the files could not be opened.
+     */
+    DiskResponseCache(Path directory, int segmentSize, int windowSize) throws IOException {
+        if (segmentSize <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("The segment and the window size have to be greater than 0.");
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.windowSize = windowSize;
+        this.locations = new HashMap<>();
+        this.segmentChannels = new HashMap<>();
+        this.mappedWindows = new LinkedHashMap<Long, MappedByteBuffer>(16, 0.75f, true) {
+            private static final long serialVersionUID = 6095932370880418527L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> eldest) {
+                return size() > MAXIMUM_MAPPED_WINDOWS;
+            }
+        };
+        this.lockChannel = FileChannel.open(directory.resolve("responses.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.writerLock = tryLock(lockChannel);
+        this.indexChannel = FileChannel.open(directory.resolve("responses.index"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (writerLock == null) {
+            LOGGER.info("The response cache in {} is used by another process and has been opened read only.",
+                    directory);
+        } else {
+            // Remove an index entry that has only been written partially.
+            indexChannel.truncate(indexChannel.size() - indexChannel.size() % INDEX_ENTRY_SIZE);
+        }
+
+        refreshIndex();
+
+        if (writerLock != null) {
+            this.currentSegmentSize = getSegmentChannel(currentSegment).size();
+        }
+    }
+
+    /**
+     * @return True if this instance is allowed to add responses, false if the
+     *         cache is written by another process.
+     */
+    public boolean isWritable() {
+        return writerLock != null;
+    }
+
+    /**
+     * Get the stored raw response of a request.
+     *
+     * @param node
+     *            The URI of the node the request is sent to.
+     * @param requestObject
+     *            The request.
+     * @return The raw response or null if the response has not been stored or
+     *         has expired.
+     * @throws IOException
+     *             If the response could not be read.
+     */
+    public synchronized String get(String node, RequestWrapper requestObject) throws IOException {
+        byte[] key = createKey(node, requestObject);
+        long hash = hash(key);
+
+        Location location = locations.get(hash);
+        if (location == null && refreshIndex()) {
+            location = locations.get(hash);
+        }
+
+        StoredResponse storedResponse = location == null ? null : read(location, key);
+        if (storedResponse == null || storedResponse.isExpired()) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return storedResponse.rawJsonResponse;
+    }
+
+    /**
+     * Store the raw response of a request that never expires. As the stored
+     * responses can never change, a response that has already been stored
+     * will not be replaced.
+     *
+     * @param node
+     *            The URI of the node the request has been sent to.
+     * @param requestObject
+     *            The request.
+     * @param rawJsonResponse
+     *            The raw response of the request.
+     * @return True if the response has been added, false if it has already
+     *         been stored before or if the cache is read only.
+     * @throws IOException
+     *             If the response could not be written.
+     */
+    public boolean put(String node, RequestWrapper requestObject, String rawJsonResponse) throws IOException {
+        return put(node, requestObject, rawJsonResponse, NEVER_EXPIRES);
+    }
+
+    /**
+     * Store the raw response of a request. A response that has already been
+     * stored will only be replaced once it has expired.
+     *
+     * @param node
+     *            The URI of the node the request has been sent to.
+     * @param requestObject
+     *            The request.
+     * @param rawJsonResponse
+     *            The raw response of the request.
+     * @param expirationTime
+     *            The time in milliseconds since the epoch after which the
+     *            response has to be requested again or {@link #NEVER_EXPIRES}.
+     * @return True if the response has been added, false if a valid response
+     *         has already been stored before or if the cache is read only.
+     * @throws IOException
+     *             If the response could not be written.
+     */
+    public synchronized boolean put(String node, RequestWrapper requestObject, String rawJsonResponse,
+            long expirationTime) throws IOException {
+        if (writerLock == null) {
+            return false;
+        }
+
+        byte[] key = createKey(node, requestObject);
+        long hash = hash(key);
+        Location existingLocation = locations.get(hash);
+        if (existingLocation != null) {
+            StoredResponse storedResponse = read(existingLocation, key);
+            // A hash collision keeps the response that has been stored first.
+            if (storedResponse == null || !storedResponse.isExpired()) {
+                return false;
+            }
+        }
+
+        byte[] value = rawJsonResponse.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + key.length + value.length);
+        record.putInt(key.length).putLong(expirationTime).put(key).put(value).flip();
+
+        if (currentSegmentSize > 0 && currentSegmentSize + record.remaining() > segmentSize) {
+            currentSegment++;
+            currentSegmentSize = getSegmentChannel(currentSegment).size();
+        }
+
+        Location location = new Location(currentSegment, (int) currentSegmentSize, record.remaining());
+        FileChannel segmentChannel = getSegmentChannel(currentSegment);
+        writeFully(segmentChannel, record, currentSegmentSize);
+        currentSegmentSize += location.length;
+        // The index entry must never point to data that is not on the disk.
+        segmentChannel.force(false);
+
+        ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        indexEntry.putLong(hash).putInt(location.segment).putInt(location.offset).putInt(location.length).flip();
+        writeFully(indexChannel, indexEntry, indexedBytes);
+        indexedBytes += INDEX_ENTRY_SIZE;
+
+        locations.put(hash, location);
+        return true;
+    }
+
+    /**
+     * @return The number of stored responses known to this instance.
+     */
+    public synchronized int size() {
+        return locations.size();
+    }
+
+    /**
+     * @return The number of requests that have been answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of requests that could not be answered from the
+     *         cache.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Close all files and release the writer lock.
+     *
+     * @throws IOException
+     *             If a file could not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (FileChannel segmentChannel : segmentChannels.values()) {
+            segmentChannel.close();
+        }
+
+        segmentChannels.clear();
+        mappedWindows.clear();
+        indexChannel.close();
+
+        if (writerLock != null) {
+            writerLock.release();
+        }
+
+        lockChannel.close();
+    }
+
+    /**
+     * Read the index entries that have been appended since the last call.
+     *
+     * @return True if new entries have been found.
+     * @throws IOException
+     *             If the index could not be read.
+     */
+    private boolean refreshIndex() throws IOException {
+        long indexSize = indexChannel.size();
+        indexSize -= indexSize % INDEX_ENTRY_SIZE;
+        if (indexSize <= indexedBytes) {
+            return false;
+        }
+
+        ByteBuffer entries = ByteBuffer.allocate((int) (indexSize - indexedBytes));
+        while (entries.hasRemaining()) {
+            if (indexChannel.read(entries, indexedBytes + entries.position()) < 0) {
+                throw new IOException("The index has been truncated while reading it.");
+            }
+        }
+
+        entries.flip();
+        while (entries.hasRemaining()) {
+            long hash = entries.getLong();
+            Location location = new Location(entries.getInt(), entries.getInt(), entries.getInt());
+            // A later entry replaces an expired response.
+            locations.put(hash, location);
+            currentSegment = Math.max(currentSegment, location.segment);
+        }
+
+        indexedBytes = indexSize;
+        return true;
+    }
+
+    /**
+     * Read a stored response.
+     *
+     * @param location
+     *            The location of the response.
+     * @param key
+     *            The key of the request, to detect hash collisions.
+     * @return The stored response or null if the location belongs to another
+     *         request.
+     * @throws IOException
+     *             If the segment could not be mapped.
+     */
+    private StoredResponse read(Location location, byte[] key) throws IOException {
+        int window = location.offset / windowSize;
+        long windowPosition = (long) window * windowSize;
+        long recordEnd = (long) location.offset + location.length;
+        long windowKey = ((long) location.segment << 32) | window;
+
+        MappedByteBuffer windowBuffer = mappedWindows.get(windowKey);
+        // The last window of a segment grows with the segment.
+        if (windowBuffer == null || windowPosition + windowBuffer.capacity() < recordEnd) {
+            FileChannel segmentChannel = getSegmentChannel(location.segment);
+            long windowEnd = Math.max(recordEnd, Math.min(windowPosition + windowSize, segmentChannel.size()));
+            windowBuffer = segmentChannel.map(MapMode.READ_ONLY, windowPosition, windowEnd - windowPosition);
+            mappedWindows.put(windowKey, windowBuffer);
+        }
+
+        ByteBuffer record = windowBuffer.duplicate();
+        int recordOffset = (int) (location.offset - windowPosition);
+        record.position(recordOffset).limit(recordOffset + location.length);
+
+        int keyLength = record.getInt();
+        long expirationTime = record.getLong();
+        if (keyLength != key.length) {
+            return null;
+        }
+
+        for (byte keyByte : key) {
+            if (record.get() != keyByte) {
+                return null;
+            }
+        }
+
+        byte[] value = new byte[record.remaining()];
+        record.get(value);
+        return new StoredResponse(new String(value, StandardCharsets.UTF_8), expirationTime);
+    }
+
+    private FileChannel getSegmentChannel(int segment) throws IOException {
+        FileChannel segmentChannel = segmentChannels.get(segment);
+        if (segmentChannel == null) {
+            Path segmentFile = directory.resolve(String.format("%010d", segment) + ".responses");
+            if (writerLock == null) {
+                segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.READ);
+            } else {
+                segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            }
+
+            segmentChannels.put(segment, segmentChannel);
+        }
+
+        return segmentChannel;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel lockChannel) throws IOException {
+        try {
+            return lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // The lock is held by another instance in this process.
+            return null;
+        }
+    }
+
+    /**
+     * Create the key of a request. The parameters also contain the name of the
+     * API and the method.
+     *
+     * @param node
+     *            The URI of the node, as the same request returns different
+     *            responses on different chains.
+     * @param requestObject
+     *            The request.
+     * @return The UTF-8 encoded key.
+     * @throws IOException
+     *             If the parameters could not be serialized.
+     */
+    private static byte[] createKey(String node, RequestWrapper requestObject) throws IOException {
+        return MAPPER.writeValueAsBytes(new Object[] { node, requestObject.getParams() });
+    }
+
+    /**
+     * Calculate the 64 bit FNV-1a hash of a key.
+     *
+     * @param key
+     *            The key.
+     * @return The hash of the key.
+     */
+    private static long hash(byte[] key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte keyByte : key) {
+            hash ^= keyByte & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * The position of a stored response.
+     */
+    private static final class Location {
+        private final int segment;
+        private final int offset;
+        private final int length;
+
+        private Location(int segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A stored response and its expiration time.
+     */
+    private static final class StoredResponse {
+        private final String rawJsonResponse;
+        private final long expirationTime;
+
+        private StoredResponse(String rawJsonResponse, long expirationTime) {
+            this.rawJsonResponse = rawJsonResponse;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired() {
+            return expirationTime != NEVER_EXPIRES && System.currentTimeMillis() >= expirationTime;
+        }
+    }
+
+    /**
+     * Decides if a transformed response will never change and can therefore
+     * be stored.
+     *
+     * @param <T>
+     *            The type of the transformed response.
+     */
+    @FunctionalInterface
+    public interface PersistencePolicy<T> {
+        /**
+         * @param response
+         *            The transformed response.
+         * @return True if the response can be stored.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        boolean isPersistent(List<T> response)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * @return The time in milliseconds after which a stored response has
+         *         to be requested again or {@link DiskResponseCache#NEVER_EXPIRES}
+         *         if it never changes.
+         */
+        default long getTimeToLive() {
+            return NEVER_EXPIRES;
+        }
+
+        /**
+         * Create a policy that stores every response for the given time.
+         *
+         * @param timeToLive
+         *            The time in milliseconds after which a stored response
+         *            has to be requested again.
+         * @param <T>
+         *            The type of the transformed response.
+         * @return The policy.
+         */
+        static <T> PersistencePolicy<T> expireAfter(long timeToLive) {
+            if (timeToLive <= 0) {
+                throw new IllegalArgumentException("The time to live has to be greater than 0.");
+            }
+
+            return new PersistencePolicy<T>() {
+                @Override
+                public boolean isPersistent(List<T> response) {
+                    return true;
+                }
+
+                @Override
+                public long getTimeToLive() {
+                    return timeToLive;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+/**
+ * An enumeration of the strategies used to choose the entry that is removed
+ * when a size bounded cache is full.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public enum EvictionPolicy {
+    /** Remove the entry that has not been used for the longest time. */
+    LEAST_RECENTLY_USED,
+    /** Remove the entry that has been used the least number of times. */
+    LEAST_FREQUENTLY_USED;
+}
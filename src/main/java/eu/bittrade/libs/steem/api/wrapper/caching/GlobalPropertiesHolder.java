@@ -0,0 +1,208 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+
+/**
+ * Holds the latest dynamic global properties and refreshes them in the
+ * background.
+ *
+ * <p>
+ * The global properties only change once per block. Instead of polling in a
+ * fixed interval, the next refresh is scheduled shortly after the time the
+ * next block is expected, which is derived from the "time" field of the
+ * current properties. If the head block does not change, the holder checks
+ * again soon and doubles the delay for every further refresh without a new
+ * block, up to one block interval. Readers get the latest snapshot without
+ * locking.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class GlobalPropertiesHolder implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(GlobalPropertiesHolder.class);
+
+    /** The default time between two blocks in milliseconds. */
+    public static final long DEFAULT_BLOCK_INTERVAL = 3000;
+    /** The time to wait after the expected block time in milliseconds. */
+    private static final long PROPAGATION_DELAY = 500;
+    /** The minimal time between two refreshes in milliseconds. */
+    static final long MINIMAL_REFRESH_DELAY = 250;
+
+    private final GlobalPropertiesSource globalPropertiesSource;
+    private final long blockInterval;
+    private final ScheduledExecutorService scheduler;
+    private volatile GlobalProperties globalProperties;
+    private volatile long lastRefreshTime;
+    /** The number of refreshes since the head block changed. */
+    private int stalledRefreshes;
+
+    /**
+     * Create a new holder that uses the default block interval. The holder
+     * does not refresh the properties before {@link #start()} has been called.
+     *
+     * @param globalPropertiesSource
+     *            The source to request the properties from.
+     */
+    public GlobalPropertiesHolder(GlobalPropertiesSource globalPropertiesSource) {
+        this(globalPropertiesSource, DEFAULT_BLOCK_INTERVAL);
+    }
+
+    /**
+     * Create a new holder. The holder does not refresh the properties before
+     * {@link #start()} has been called.
+     *
+     * @param globalPropertiesSource
+     *            The source to request the properties from.
+     * @param blockInterval
+     *            The time between two blocks in milliseconds, as configured
+     *            by the chain (STEEMIT_BLOCK_INTERVAL).
+     */
+    public GlobalPropertiesHolder(GlobalPropertiesSource globalPropertiesSource, long blockInterval) {
+        if (blockInterval <= 0) {
+            throw new IllegalArgumentException("The block interval has to be greater than 0.");
+        }
+
+        this.globalPropertiesSource = globalPropertiesSource;
+        this.blockInterval = blockInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "global-properties-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start refreshing the properties in the background.
+     */
+    public void start() {
+        scheduler.execute(this::refresh);
+    }
+
+    /**
+     * Stop refreshing the properties.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return The latest properties or null if they have not been requested
+     *         yet.
+     */
+    public GlobalProperties getGlobalProperties() {
+        return globalProperties;
+    }
+
+    /**
+     * Get the latest properties if they have been refreshed recently. If the
+     * refresh failed for longer than two block intervals, the properties are
+     * considered to be outdated.
+     *
+     * @return The latest properties or null if they are outdated.
+     */
+    public GlobalProperties getCurrentGlobalProperties() {
+        GlobalProperties currentGlobalProperties = globalProperties;
+        if (currentGlobalProperties == null
+                || System.currentTimeMillis() - lastRefreshTime > 2 * blockInterval + PROPAGATION_DELAY) {
+            return null;
+        }
+
+        return currentGlobalProperties;
+    }
+
+    private void refresh() {
+        long delay = blockInterval;
+
+        try {
+            delay = update();
+        } catch (SteemTimeoutException | SteemConnectionException | SteemTransformationException
+                | SteemResponseError e) {
+            LOGGER.warn("Could not refresh the dynamic global properties.", e);
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not refresh the dynamic global properties.", e);
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Request the properties once.
+     *
+     * @return The time to wait until the next refresh in milliseconds.
+     */
+    long update()
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        GlobalProperties refreshedGlobalProperties = globalPropertiesSource.request();
+        GlobalProperties previousGlobalProperties = globalProperties;
+        globalProperties = refreshedGlobalProperties;
+        lastRefreshTime = System.currentTimeMillis();
+
+        if (previousGlobalProperties != null
+                && previousGlobalProperties.getHeadBlockNumber() == refreshedGlobalProperties.getHeadBlockNumber()) {
+            // The next block is late, so check again soon, but back off while
+            // the chain (or the node) does not produce blocks.
+            long delay = MINIMAL_REFRESH_DELAY << Math.min(stalledRefreshes, 16);
+            stalledRefreshes++;
+            return Math.min(delay, blockInterval);
+        }
+
+        stalledRefreshes = 0;
+        return getDelayUntilNextBlock(refreshedGlobalProperties);
+    }
+
+    private long getDelayUntilNextBlock(GlobalProperties currentGlobalProperties) {
+        try {
+            long blockTime = LocalDateTime.parse(currentGlobalProperties.getTime()).toInstant(ZoneOffset.UTC)
+                    .toEpochMilli();
+            long delay = blockTime + blockInterval + PROPAGATION_DELAY - System.currentTimeMillis();
+
+            // Limit the delay, as the local clock may differ from the chain
+            // time.
+            return Math.max(MINIMAL_REFRESH_DELAY, Math.min(delay, blockInterval + PROPAGATION_DELAY));
+        } catch (DateTimeParseException | NullPointerException e) {
+            LOGGER.debug("Could not parse the block time.", e);
+            return blockInterval;
+        }
+    }
+
+    /**
+     * The source of the dynamic global properties.
+     */
+    @FunctionalInterface
+    public interface GlobalPropertiesSource {
+        /**
+         * Request the current dynamic global properties.
+         *
+         * @return The current properties.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        GlobalProperties request()
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+}
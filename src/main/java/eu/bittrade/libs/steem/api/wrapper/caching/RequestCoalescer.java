@@ -0,0 +1,224 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * Coalesces identical requests that are performed at the same time: Only the
+ * first request is sent to the node, while the other requests wait for its
+ * result. The waiting requests receive a copy of the result list, but share
+ * the transformed objects.
+ * 
+ * <p>
+ * Every request that is sent gets a ticket in ascending order. A caller that
+ * must not receive the result of a request sent before a certain point in
+ * time (e.g. before it read the generation of the {@link ContentCache}) takes
+ * a ticket using {@link #nextTicket()} at this point and only joins requests
+ * with the same or a later ticket.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class RequestCoalescer {
+    private static final Logger LOGGER = LogManager.getLogger(RequestCoalescer.class);
+
+    private final ConcurrentMap<RequestKey, InFlightRequest> inFlightRequests;
+    private final AtomicLong tickets;
+
+    /**
+     * Create a new request coalescer.
+     */
+    public RequestCoalescer() {
+        this.inFlightRequests = new ConcurrentHashMap<>();
+        this.tickets = new AtomicLong();
+    }
+
+    /**
+     * @return The ticket of the next request that is sent. All requests that
+     *         are sent after this call have the same or a later ticket.
+     */
+    public long nextTicket() {
+        return tickets.get();
+    }
+
+    /**
+     * Perform a request or wait for an identical request that is already in
+     * flight.
+     * 
+     * @param requestObject
+     *            The request.
+     * @param targetClass
+     *            The class the response is transformed into.
+     * @param request
+     *            The actual request, which is only performed if no identical
+     *            request is in flight.
+     * @param <T>
+     *            The type of the response.
+     * @return The transformed response.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public <T> List<T> perform(RequestWrapper requestObject, Class<T> targetClass, Request<T> request)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        return perform(requestObject, targetClass, request, 0);
+    }
+
+    /**
+     * Perform a request or wait for an identical request that is already in
+     * flight and has been sent after the given ticket has been taken.
+     * 
+     * @param requestObject
+     *            The request.
+     * @param targetClass
+     *            The class the response is transformed into.
+     * @param request
+     *            The actual request, which is only performed if no identical
+     *            request is in flight.
+     * @param earliestTicket
+     *            The earliest ticket of a request that may be joined (@see
+     *            #nextTicket()).
+     * @param <T>
+     *            The type of the response.
+     * @return The transformed response.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> perform(RequestWrapper requestObject, Class<T> targetClass, Request<T> request,
+            long earliestTicket)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        RequestKey requestKey;
+        try {
+            requestKey = new RequestKey(requestObject, targetClass);
+        } catch (JsonProcessingException e) {
+            LOGGER.debug("Could not create a key for {}. Performing it without coalescing.",
+                    requestObject.getApiMethod(), e);
+            return request.perform();
+        }
+
+        InFlightRequest inFlightRequest = new InFlightRequest(tickets.getAndIncrement());
+        CompletableFuture<List<?>> response = inFlightRequest.response;
+        InFlightRequest identicalRequest = inFlightRequests.putIfAbsent(requestKey, inFlightRequest);
+        if (identicalRequest != null) {
+            if (identicalRequest.ticket >= earliestTicket) {
+                return new ArrayList<>((List<T>) await(identicalRequest.response));
+            }
+
+            // The identical request has been sent too early, so it is
+            // performed again without coalescing.
+            return request.perform();
+        }
+
+        try {
+            List<T> result = request.perform();
+            response.complete(result);
+            return result;
+        } catch (SteemTimeoutException | SteemConnectionException | SteemTransformationException
+                | SteemResponseError | RuntimeException | Error e) {
+            response.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Never leave the waiting requests blocked, whatever happened.
+            if (!response.isDone()) {
+                response.completeExceptionally(
+                        new SteemTransformationException("The identical request failed unexpectedly."));
+            }
+            inFlightRequests.remove(requestKey, inFlightRequest);
+        }
+    }
+
+    /**
+     * @return The number of requests that are currently in flight.
+     */
+    public int getInFlightCount() {
+        return inFlightRequests.size();
+    }
+
+    private List<?> await(CompletableFuture<List<?>> inFlightResponse)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        try {
+            return inFlightResponse.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemConnectionException("Interrupted while waiting for an identical request.", e);
+        } catch (ExecutionException e) {
+            RequestUtil.rethrowSteemException(e.getCause());
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SteemTransformationException("The identical request failed.", e.getCause());
+        }
+    }
+
+    /**
+     * A request that can be coalesced.
+     * 
+     * @param <T>
+     *            The type of the response.
+     */
+    @FunctionalInterface
+    public interface Request<T> {
+        /**
+         * Perform the request.
+         * 
+         * @return The transformed response.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<T> perform()
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+
+    /**
+     * A request that has been sent and the ticket it got at this time.
+     */
+    private static final class InFlightRequest {
+        private final long ticket;
+        private final CompletableFuture<List<?>> response;
+
+        private InFlightRequest(long ticket) {
+            this.ticket = ticket;
+            this.response = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+
+/**
+ * Identifies a transformed response by the API, the method and the parameters
+ * of its request and by the class it has been transformed into. Two requests
+ * with the same key always return the same result at the same time.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public final class RequestKey {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RequestMethods requestMethod;
+    private final String parameters;
+    private final Class<?> targetClass;
+
+    /**
+     * Create the key of a request.
+     * 
+     * @param requestObject
+     *            The request.
+     * @param targetClass
+     *            The class the response is transformed into.
+     * @throws JsonProcessingException
+     *             If the parameters of the request could not be serialized.
+     */
+    public RequestKey(RequestWrapper requestObject, Class<?> targetClass) throws JsonProcessingException {
+        this.requestMethod = requestObject.getApiMethod();
+        // The parameters also contain the name of the API and the method.
+        this.parameters = MAPPER.writeValueAsString(requestObject.getParams());
+        this.targetClass = targetClass;
+    }
+
+    public RequestMethods getRequestMethod() {
+        return requestMethod;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof RequestKey)) {
+            return false;
+        }
+
+        RequestKey otherRequestKey = (RequestKey) other;
+        return requestMethod == otherRequestKey.requestMethod && parameters.equals(otherRequestKey.parameters)
+                && targetClass.equals(otherRequestKey.targetClass);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestMethod, parameters, targetClass);
+    }
+
+    @Override
+    public String toString() {
+        return parameters + " -> " + targetClass.getSimpleName();
+    }
+}
@@ -0,0 +1,365 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+
+/**
+ * A size bounded cache for transformed responses. The entries are identified
+ * by the API, the method and the parameters of the request.
+ *
+ * <p>
+ * Only the responses of methods with a configured time to live are cached.
+ * By default, this is the case for methods whose results change rarely or on
+ * a known cadence (e.g. "get_config" or "get_hardfork_version"). The defaults
+ * can be changed using {@link #setTimeToLive(RequestMethods, long)}.
+ *
+ * <p>
+ * All operations take constant time. Expired entries are removed when they
+ * are requested or when they are chosen by the eviction policy.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class ResponseCache {
+    private static final Logger LOGGER = LogManager.getLogger(ResponseCache.class);
+
+    /** The default maximum number of entries. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final int maximumSize;
+    private final EvictionPolicy evictionPolicy;
+    private final Map<RequestMethods, Long> timeToLives;
+    /** The entries in the order of their last access. */
+    private final LinkedHashMap<RequestKey, CacheEntry> entries;
+    /**
+     * The head of the list of use counts in ascending order, which is only
+     * maintained for the least frequently used policy.
+     */
+    private final FrequencyBucket frequencies;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Create a new cache that uses the default size and evicts the least
+     * recently used entries.
+     */
+    public ResponseCache() {
+        this(DEFAULT_MAXIMUM_SIZE, EvictionPolicy.LEAST_RECENTLY_USED);
+    }
+
+    /**
+     * Create a new cache.
+     * 
+     * @param maximumSize
+     *            The maximum number of entries.
+     * @param evictionPolicy
+     *            The strategy used to remove entries if the cache is full.
+     */
+    public ResponseCache(int maximumSize, EvictionPolicy evictionPolicy) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size has to be greater than 0.");
+        }
+
+        this.maximumSize = maximumSize;
+        this.evictionPolicy = evictionPolicy;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.frequencies = new FrequencyBucket(-1);
+        this.timeToLives = new EnumMap<>(RequestMethods.class);
+
+        this.timeToLives.put(RequestMethods.GET_CONFIG, TimeUnit.HOURS.toMillis(1));
+        this.timeToLives.put(RequestMethods.GET_VERSION, TimeUnit.HOURS.toMillis(1));
+        this.timeToLives.put(RequestMethods.GET_HARDFORK_VERSION, TimeUnit.MINUTES.toMillis(10));
+        this.timeToLives.put(RequestMethods.GET_NEXT_SCHEDULED_HARDFORK, TimeUnit.MINUTES.toMillis(10));
+        this.timeToLives.put(RequestMethods.GET_CHAIN_PROPERTIES, TimeUnit.MINUTES.toMillis(1));
+        this.timeToLives.put(RequestMethods.GET_FEED_HISTORY, TimeUnit.MINUTES.toMillis(1));
+        this.timeToLives.put(RequestMethods.GET_CURRENT_MEDIAN_HISTORY_PRICE, TimeUnit.MINUTES.toMillis(1));
+        this.timeToLives.put(RequestMethods.GET_WITNESS_SCHEDULE, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    /**
+     * Set the time a response of the given method stays valid.
+     * 
+     * @param requestMethod
+     *            The request method.
+     * @param timeToLive
+     *            The time in milliseconds or 0 to disable caching for this
+     *            method.
+     */
+    public synchronized void setTimeToLive(RequestMethods requestMethod, long timeToLive) {
+        if (timeToLive > 0) {
+            timeToLives.put(requestMethod, timeToLive);
+        } else {
+            timeToLives.remove(requestMethod);
+            invalidate(requestMethod);
+        }
+    }
+
+    /**
+     * @param requestMethod
+     *            The request method.
+     * @return The time in milliseconds a response of the given method stays
+     *         valid or 0 if the responses of this method are not cached.
+     */
+    public synchronized long getTimeToLive(RequestMethods requestMethod) {
+        Long timeToLive = timeToLives.get(requestMethod);
+        return timeToLive == null ? 0 : timeToLive;
+    }
+
+    /**
+     * @param requestMethod
+     *            The request method.
+     * @return True if the responses of the given method are cached.
+     */
+    public synchronized boolean isCacheable(RequestMethods requestMethod) {
+        return timeToLives.containsKey(requestMethod);
+    }
+
+    /**
+     * Get a cached response.
+     * 
+     * @param requestObject
+     *            The request.
+     * @param targetClass
+     *            The class the response has been transformed into.
+     * @param <T>
+     *            The type of the response.
+     * @return The cached response or null if there is no valid entry.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> List<T> get(RequestWrapper requestObject, Class<T> targetClass) {
+        RequestKey cacheKey = toRequestKey(requestObject, targetClass);
+        CacheEntry cacheEntry = cacheKey == null ? null : entries.get(cacheKey);
+
+        if (cacheEntry == null || cacheEntry.expiresAt <= System.currentTimeMillis()) {
+            if (cacheEntry != null) {
+                remove(cacheKey);
+            }
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        if (evictionPolicy == EvictionPolicy.LEAST_FREQUENTLY_USED) {
+            incrementUseCount(cacheKey, cacheEntry);
+        }
+        return (List<T>) cacheEntry.response;
+    }
+
+    /**
+     * Add a response to the cache, if the responses of its method are
+     * cacheable.
+     * 
+     * @param requestObject
+     *            The request.
+     * @param targetClass
+     *            The class the response has been transformed into.
+     * @param response
+     *            The transformed response.
+     * @param <T>
+     *            The type of the response.
+     * @return The response as it is stored in the cache, which is an
+     *         unmodifiable list.
+     */
+    public synchronized <T> List<T> put(RequestWrapper requestObject, Class<T> targetClass, List<T> response) {
+        RequestKey cacheKey = toRequestKey(requestObject, targetClass);
+        Long timeToLive = timeToLives.get(requestObject.getApiMethod());
+        List<T> cachedResponse = Collections.unmodifiableList(new ArrayList<>(response));
+        if (cacheKey == null || timeToLive == null) {
+            return cachedResponse;
+        }
+
+        if (entries.containsKey(cacheKey)) {
+            remove(cacheKey);
+        } else if (entries.size() >= maximumSize) {
+            evict();
+        }
+
+        CacheEntry cacheEntry = new CacheEntry(cachedResponse, System.currentTimeMillis() + timeToLive);
+        entries.put(cacheKey, cacheEntry);
+        if (evictionPolicy == EvictionPolicy.LEAST_FREQUENTLY_USED) {
+            addToBucket(cacheKey, cacheEntry, frequencies, 0);
+        }
+        return cachedResponse;
+    }
+
+    /**
+     * Remove all entries of the given method.
+     * 
+     * @param requestMethod
+     *            The request method.
+     */
+    public synchronized void invalidate(RequestMethods requestMethod) {
+        for (Iterator<Map.Entry<RequestKey, CacheEntry>> iterator = entries.entrySet().iterator(); iterator
+                .hasNext();) {
+            Map.Entry<RequestKey, CacheEntry> entry = iterator.next();
+            if (entry.getKey().getRequestMethod() == requestMethod) {
+                removeFromBucket(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        frequencies.next = null;
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of requests that have been answered from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of requests that could not be answered from the
+     *         cache.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of entries that have been removed to make room for
+     *         new entries.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Remove the entry chosen by the eviction policy. If the entry has already
+     * expired, it is not counted as an eviction.
+     */
+    private void evict() {
+        RequestKey victim;
+        if (evictionPolicy == EvictionPolicy.LEAST_FREQUENTLY_USED && frequencies.next != null) {
+            // Entries with the same use count are ordered from the least to
+            // the most recently used one.
+            victim = frequencies.next.keys.iterator().next();
+        } else {
+            // The entries are ordered from the least to the most recently
+            // used one.
+            victim = entries.keySet().iterator().next();
+        }
+
+        if (remove(victim).expiresAt > System.currentTimeMillis()) {
+            evictionCount++;
+        }
+    }
+
+    private CacheEntry remove(RequestKey cacheKey) {
+        CacheEntry cacheEntry = entries.remove(cacheKey);
+        removeFromBucket(cacheKey, cacheEntry);
+        return cacheEntry;
+    }
+
+    private void incrementUseCount(RequestKey cacheKey, CacheEntry cacheEntry) {
+        FrequencyBucket bucket = cacheEntry.bucket;
+        removeFromBucket(cacheKey, cacheEntry);
+        // An empty bucket has been unlinked, but still knows its predecessor.
+        addToBucket(cacheKey, cacheEntry, bucket.previous.next == bucket ? bucket : bucket.previous,
+                cacheEntry.useCount + 1);
+    }
+
+    /**
+     * Add an entry to the bucket of the given use count, which directly
+     * follows the given bucket.
+     */
+    private void addToBucket(RequestKey cacheKey, CacheEntry cacheEntry, FrequencyBucket predecessor,
+            long useCount) {
+        FrequencyBucket bucket = predecessor.next;
+        if (bucket == null || bucket.useCount != useCount) {
+            bucket = new FrequencyBucket(useCount);
+            bucket.previous = predecessor;
+            bucket.next = predecessor.next;
+            if (predecessor.next != null) {
+                predecessor.next.previous = bucket;
+            }
+            predecessor.next = bucket;
+        }
+
+        bucket.keys.add(cacheKey);
+        cacheEntry.bucket = bucket;
+        cacheEntry.useCount = useCount;
+    }
+
+    private void removeFromBucket(RequestKey cacheKey, CacheEntry cacheEntry) {
+        FrequencyBucket bucket = cacheEntry == null ? null : cacheEntry.bucket;
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.keys.remove(cacheKey);
+        if (bucket.keys.isEmpty()) {
+            bucket.previous.next = bucket.next;
+            if (bucket.next != null) {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+
+    private RequestKey toRequestKey(RequestWrapper requestObject, Class<?> targetClass) {
+        try {
+            return new RequestKey(requestObject, targetClass);
+        } catch (JsonProcessingException e) {
+            LOGGER.debug("Could not create a cache key for {}.", requestObject.getApiMethod(), e);
+            return null;
+        }
+    }
+
+    /**
+     * A cached response.
+     */
+    private static final class CacheEntry {
+        private final List<?> response;
+        private final long expiresAt;
+        private long useCount;
+        private FrequencyBucket bucket;
+
+        private CacheEntry(List<?> response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The keys of all entries with the same use count in the order they
+     * reached this count.
+     */
+    private static final class FrequencyBucket {
+        private final long useCount;
+        private final LinkedHashSet<RequestKey> keys = new LinkedHashSet<>();
+        private FrequencyBucket previous;
+        private FrequencyBucket next;
+
+        private FrequencyBucket(long useCount) {
+            this.useCount = useCount;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package eu.bittrade.libs.steem.api.wrapper.communication;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.websocket.DeploymentException;
 import javax.websocket.EncodeException;
@@ -14,11 +16,18 @@ import org.apache.logging.log4j.Logger;
 import org.glassfish.tyrus.client.ClientManager;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import eu.bittrade.libs.steem.api.wrapper.caching.DiskResponseCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.DiskResponseCache.PersistencePolicy;
+import eu.bittrade.libs.steem.api.wrapper.caching.RequestCoalescer;
+import eu.bittrade.libs.steem.api.wrapper.caching.RequestCoalescer.Request;
+import eu.bittrade.libs.steem.api.wrapper.caching.ResponseCache;
 import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
 import eu.bittrade.libs.steem.api.wrapper.communication.dto.ResponseWrapper;
 import eu.bittrade.libs.steem.api.wrapper.configuration.SteemApiWrapperConfig;
@@ -31,6 +40,11 @@ import eu.bittrade.libs.steem.api.wrapper.models.error.SteemError;
 /**
  * This class handles the communication to the Steem web socket API.
  * 
+ * <p>
+ * Requests can be performed from several threads at the same time. They share
+ * a single connection and the responses are assigned to their requests by the
+ * id of the request.
+ * 
  * @author http://steemit.com/@dez1337
  */
 public class CommunicationHandler {
@@ -41,7 +55,8 @@ public class CommunicationHandler {
     private Session session;
     private SteemApiWrapperConfig steemApiWrapperConfig;
     private SteemMessageHandler steemMessageHandler;
-    private CountDownLatch messageLatch;
+    private final PendingRequests pendingRequests;
+    private final RequestCoalescer requestCoalescer;
 
     /**
      * Initialize the Connection Handler.
@@ -56,6 +71,8 @@ public class CommunicationHandler {
         this.steemApiWrapperConfig = steemApiWrapperConfig;
         this.client = ClientManager.createClient();
         this.steemMessageHandler = new SteemMessageHandler(this);
+        this.pendingRequests = new PendingRequests();
+        this.requestCoalescer = new RequestCoalescer();
 
         MAPPER.setDateFormat(steemApiWrapperConfig.getDateTimeFormat());
         MAPPER.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
@@ -65,7 +82,10 @@ public class CommunicationHandler {
 
     /**
      * Perform a request to the web socket API whose response will automatically
-     * get transformed into the given object.
+     * get transformed into the given object. If a response cache has been
+     * configured and the response of the request method is cacheable, the
+     * cached response is returned instead. If request coalescing has been
+     * enabled, identical requests in flight share one request.
      * 
      * @param requestObject
      *            A request object that contains all needed parameters.
@@ -87,30 +107,154 @@ public class CommunicationHandler {
      */
     public <T> List<T> performRequest(RequestWrapper requestObject, Class<T> targetClass)
             throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
-        if (!session.isOpen()) {
-            reconnect();
+        return performRequest(requestObject, targetClass, null);
+    }
+
+    /**
+     * Perform a request to the web socket API whose response will automatically
+     * get transformed into the given object. In addition to
+     * {@link #performRequest(RequestWrapper, Class)}, the response is read
+     * from and stored in the configured disk response cache, if the given
+     * policy considers it as persistent.
+     * 
+     * @param requestObject
+     *            A request object that contains all needed parameters.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param persistencePolicy
+     *            Decides if a response will never change and can be stored on
+     *            disk or null if the response should never be stored.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The server response transformed into a list of given objects.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public <T> List<T> performRequest(RequestWrapper requestObject, Class<T> targetClass,
+            PersistencePolicy<T> persistencePolicy)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        return performRequest(requestObject, targetClass, persistencePolicy, 0);
+    }
+
+    /**
+     * @return The ticket that has to be passed to
+     *         {@link #performRequest(RequestWrapper, Class, PersistencePolicy, long)}
+     *         to not receive the response of an identical request that has
+     *         been sent before this call (@see RequestCoalescer#nextTicket()).
+     */
+    public long nextRequestTicket() {
+        return requestCoalescer.nextTicket();
+    }
+
+    /**
+     * Perform a request to the web socket API like
+     * {@link #performRequest(RequestWrapper, Class, PersistencePolicy)}, but
+     * only share the response of an identical request in flight if it has
+     * been sent after the given ticket has been taken.
+     * 
+     * @param requestObject
+     *            A request object that contains all needed parameters.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param persistencePolicy
+     *            Decides if a response will never change and can be stored on
+     *            disk or null if the response should never be stored.
+     * @param earliestTicket
+     *            The ticket taken with {@link #nextRequestTicket()}.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The server response transformed into a list of given objects.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public <T> List<T> performRequest(RequestWrapper requestObject, Class<T> targetClass,
+            PersistencePolicy<T> persistencePolicy, long earliestTicket)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        ResponseCache responseCache = steemApiWrapperConfig.getResponseCache();
+        boolean cacheable = responseCache != null && responseCache.isCacheable(requestObject.getApiMethod());
+        if (cacheable) {
+            List<T> cachedResponse = responseCache.get(requestObject, targetClass);
+            if (cachedResponse != null) {
+                return cachedResponse;
+            }
         }
 
-        messageLatch = new CountDownLatch(1);
+        DiskResponseCache diskResponseCache = persistencePolicy == null ? null
+                : steemApiWrapperConfig.getDiskResponseCache();
+        if (diskResponseCache != null) {
+            String storedResponse = readStoredResponse(diskResponseCache, requestObject);
+            if (storedResponse != null) {
+                List<T> response = transformResponse(null, storedResponse, targetClass);
+                return cacheable ? responseCache.put(requestObject, targetClass, response) : response;
+            }
+        }
 
-        String rawJsonResponse = "";
-        try {
-            session.getBasicRemote().sendObject(requestObject);
-            if (!messageLatch.await(steemApiWrapperConfig.getTimeout(), TimeUnit.MILLISECONDS)) {
-                String errorMessage = "Timeout occured. The websocket server was not able to answer in "
-                        + steemApiWrapperConfig.getTimeout() + " millisecond(s).";
-                LOGGER.error(errorMessage);
-                throw new SteemTimeoutException(errorMessage);
+        Request<T> request = () -> {
+            String rawJsonResponse = performRawRequest(requestObject);
+            List<T> response = transformResponse(requestObject, rawJsonResponse, targetClass);
+
+            if (diskResponseCache != null && persistencePolicy.isPersistent(response)) {
+                long timeToLive = persistencePolicy.getTimeToLive();
+                storeResponse(diskResponseCache, requestObject, rawJsonResponse,
+                        timeToLive == DiskResponseCache.NEVER_EXPIRES ? DiskResponseCache.NEVER_EXPIRES
+                                : System.currentTimeMillis() + timeToLive);
             }
 
-            rawJsonResponse = steemMessageHandler.getMessage();
+            return response;
+        };
 
-            LOGGER.debug("Raw JSON response: {}", rawJsonResponse);
+        List<T> response;
+        if (steemApiWrapperConfig.isRequestCoalescingEnabled()) {
+            response = requestCoalescer.perform(requestObject, targetClass, request, earliestTicket);
+        } else {
+            response = request.perform();
+        }
 
+        return cacheable ? responseCache.put(requestObject, targetClass, response) : response;
+    }
+
+    /**
+     * Transform a raw response into the given object.
+     * 
+     * @param requestObject
+     *            The request object the response belongs to or null if the
+     *            response has been stored and its id should not be checked.
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The server response transformed into a list of given objects.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public <T> List<T> transformResponse(RequestWrapper requestObject, String rawJsonResponse, Class<T> targetClass)
+            throws SteemTransformationException, SteemResponseError {
+        try {
             @SuppressWarnings("unchecked")
             ResponseWrapper<T> response = MAPPER.readValue(rawJsonResponse, ResponseWrapper.class);
 
-            if (response.getResponseId() != requestObject.getId()) {
+            if (requestObject != null && response.getResponseId() != requestObject.getId()) {
                 LOGGER.error("The request and the response id are not equal! This may cause some strange behaivior.");
             }
 
@@ -120,18 +264,154 @@ public class CommunicationHandler {
             return MAPPER.convertValue(response.getResult(), type);
         } catch (JsonParseException | JsonMappingException e) {
             LOGGER.debug("Could not parse the response. Trying to transform it to an error object.", e);
+            throw toResponseError(rawJsonResponse);
+        } catch (IOException e) {
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
+        }
+    }
 
-            try {
-                throw new SteemResponseError(MAPPER.readValue(rawJsonResponse, SteemError.class));
-            } catch (IOException ex) {
-                throw new SteemTransformationException("Could not transform the response into an object.", ex);
+    /**
+     * Perform a request to the web socket API and return the response without
+     * transforming it. This allows callers to decode only the parts of the
+     * response they are interested in.
+     * 
+     * <p>
+     * <b>Notice:</b> The raw response may contain an error object instead of
+     * a result (@see #toResponseError(String)).
+     * 
+     * @param requestObject
+     *            A request object that contains all needed parameters.
+     * @return The raw JSON response of the server.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     */
+    public String performRawRequest(RequestWrapper requestObject)
+            throws SteemTimeoutException, SteemConnectionException {
+        CompletableFuture<String> response = pendingRequests.register(requestObject.getId());
+
+        try {
+            Session currentSession = getOpenSession();
+            synchronized (currentSession) {
+                currentSession.getBasicRemote().sendObject(requestObject);
             }
 
-        } catch (IOException | EncodeException | InterruptedException e) {
+            String rawJsonResponse = response.get(steemApiWrapperConfig.getTimeout(), TimeUnit.MILLISECONDS);
+
+            LOGGER.debug("Raw JSON response: {}", rawJsonResponse);
+
+            return rawJsonResponse;
+        } catch (TimeoutException e) {
+            String errorMessage = "Timeout occured. The websocket server was not able to answer in "
+                    + steemApiWrapperConfig.getTimeout() + " millisecond(s).";
+            LOGGER.error(errorMessage);
+            throw new SteemTimeoutException(errorMessage);
+        } catch (IOException | EncodeException | ExecutionException e) {
             throw new SteemConnectionException("There was a problem sending a message to the server.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemConnectionException("There was a problem sending a message to the server.", e);
+        } finally {
+            pendingRequests.remove(requestObject.getId());
+        }
+    }
+
+    /**
+     * Transform a raw response that contains an error object into an
+     * exception.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return The exception that carries the error object.
+     * @throws SteemTransformationException
+     *             If the response could not be transformed into an error
+     *             object.
+     */
+    public SteemResponseError toResponseError(String rawJsonResponse) throws SteemTransformationException {
+        try {
+            return new SteemResponseError(MAPPER.readValue(rawJsonResponse, SteemError.class));
+        } catch (IOException e) {
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
         }
     }
 
+    /**
+     * Check if a raw response carries an error object. Only the top level
+     * members of the response are parsed, so the check neither depends on the
+     * size of the result nor matches strings like "error" within the result.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return True if the response has a top level "error" member.
+     * @throws SteemTransformationException
+     *             If the response is not a valid JSON object.
+     */
+    public static boolean isErrorResponse(String rawJsonResponse) throws SteemTransformationException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(rawJsonResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SteemTransformationException("The response is not a JSON object.");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if ("error".equals(parser.getCurrentName())) {
+                    return true;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+
+            return false;
+        } catch (IOException e) {
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
+        }
+    }
+
+    private String readStoredResponse(DiskResponseCache diskResponseCache, RequestWrapper requestObject) {
+        try {
+            return diskResponseCache.get(getNode(), requestObject);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the response of {} from the disk response cache.",
+                    requestObject.getApiMethod(), e);
+            return null;
+        }
+    }
+
+    private void storeResponse(DiskResponseCache diskResponseCache, RequestWrapper requestObject,
+            String rawJsonResponse, long expirationTime) {
+        try {
+            diskResponseCache.put(getNode(), requestObject, rawJsonResponse, expirationTime);
+        } catch (IOException e) {
+            LOGGER.warn("Could not add the response of {} to the disk response cache.", requestObject.getApiMethod(),
+                    e);
+        }
+    }
+
+    /**
+     * @return The URI of the configured node, which separates the responses of
+     *         different chains in the disk response cache.
+     */
+    private String getNode() {
+        return String.valueOf(steemApiWrapperConfig.getWebsocketEndpointURI());
+    }
+
+    /**
+     * Get the current session and establish a new connection if the session
+     * has been closed.
+     * 
+     * @return An open session.
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     */
+    private synchronized Session getOpenSession() throws SteemConnectionException {
+        if (!session.isOpen()) {
+            reconnect();
+        }
+
+        return session;
+    }
+
     /**
      * This method establishes a new connection to the web socket Server.
      * 
@@ -149,14 +429,32 @@ public class CommunicationHandler {
         // TODO: Login again?
     }
 
+    /**
+     * Close the connection to the web socket Server.
+     * 
+     * @throws IOException
+     *             If the connection could not be closed.
+     */
+    public synchronized void close() throws IOException {
+        if (session.isOpen()) {
+            session.close();
+        }
+    }
+
     public ObjectMapper getObjectMapper() {
         return MAPPER;
     }
 
     /**
-     * Used to signal that the result is ready and can get accessed.
+     * Used to signal that a response has been received. The response is passed
+     * to the request with the same id.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
      */
-    public void countDownLetch() {
-        messageLatch.countDown();
+    public void onResponse(String rawJsonResponse) {
+        if (!pendingRequests.complete(rawJsonResponse)) {
+            LOGGER.warn("Received a response that does not belong to a pending request: {}", rawJsonResponse);
+        }
     }
 }
@@ -0,0 +1,109 @@
+package eu.bittrade.libs.steem.api.wrapper.communication;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Keeps track of the requests that wait for a response. As several requests
+ * can be sent over the same connection, the responses may arrive in any order
+ * and are matched to their request by the JSON-RPC id.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+class PendingRequests {
+    private static final Logger LOGGER = LogManager.getLogger(PendingRequests.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ConcurrentMap<Integer, CompletableFuture<String>> requests;
+
+    PendingRequests() {
+        this.requests = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Register a request before it is sent.
+     * 
+     * @param requestId
+     *            The id of the request.
+     * @return A future that is completed with the raw response.
+     */
+    CompletableFuture<String> register(int requestId) {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        requests.put(requestId, response);
+        return response;
+    }
+
+    /**
+     * Stop waiting for the response of a request.
+     * 
+     * @param requestId
+     *            The id of the request.
+     */
+    void remove(int requestId) {
+        requests.remove(requestId);
+    }
+
+    /**
+     * Pass a response to the request with the same id.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return True if a pending request with the id of the response exists.
+     */
+    boolean complete(String rawJsonResponse) {
+        Integer responseId = getResponseId(rawJsonResponse);
+        CompletableFuture<String> pendingRequest = responseId == null ? null : requests.get(responseId);
+
+        if (pendingRequest == null) {
+            return false;
+        }
+
+        pendingRequest.complete(rawJsonResponse);
+        return true;
+    }
+
+    /**
+     * @return The number of requests that wait for a response.
+     */
+    int size() {
+        return requests.size();
+    }
+
+    /**
+     * Read the top level "id" field of a response without parsing the whole
+     * response.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return The id or null if the response has no id.
+     */
+    static Integer getResponseId(String rawJsonResponse) {
+        try (JsonParser parser = JSON_FACTORY.createParser(rawJsonResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(fieldName) && value == JsonToken.VALUE_NUMBER_INT) {
+                    return parser.getIntValue();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not read the id of the response.", e);
+        }
+
+        return null;
+    }
+}
@@ -8,7 +8,6 @@ import javax.websocket.MessageHandler;
  * @author http://steemit.com/@dez1337
  */
 public class SteemMessageHandler implements MessageHandler.Whole<String> {
-    private String message;
     private CommunicationHandler communicationHandlerInstance;
 
     public SteemMessageHandler(CommunicationHandler communicationHandlerInstance) {
@@ -17,11 +16,6 @@ public class SteemMessageHandler implements MessageHandler.Whole<String> {
 
     @Override
     public void onMessage(String message) {
-        this.message = message;
-        communicationHandlerInstance.countDownLetch();
-    }
-
-    public String getMessage() {
-        return message;
+        communicationHandlerInstance.onResponse(message);
     }
 }
@@ -1,5 +1,9 @@
 package eu.bittrade.libs.steem.api.wrapper.communication.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * A wrapper object that carries all required fields for a request.
  * 
@@ -8,6 +12,15 @@ package eu.bittrade.libs.steem.api.wrapper.communication.dto;
 public class GetDiscussionParametersDTO {
     private String tag;
     private String limit;
+    @JsonProperty("start_author")
+    @JsonInclude(Include.NON_NULL)
+    private String startAuthor;
+    @JsonProperty("start_permlink")
+    @JsonInclude(Include.NON_NULL)
+    private String startPermlink;
+    @JsonProperty("truncate_body")
+    @JsonInclude(Include.NON_NULL)
+    private Integer truncateBody;
 
     public String getTag() {
         return tag;
@@ -24,4 +37,49 @@ public class GetDiscussionParametersDTO {
     public void setLimit(String limit) {
         this.limit = limit;
     }
+
+    public String getStartAuthor() {
+        return startAuthor;
+    }
+
+    /**
+     * Set the author of the first discussion to return. Together with the
+     * start permlink, this allows to request the following pages of a
+     * listing.
+     * 
+     * @param startAuthor
+     *            The author of the first discussion or null to start with the
+     *            first discussion of the listing.
+     */
+    public void setStartAuthor(String startAuthor) {
+        this.startAuthor = startAuthor;
+    }
+
+    public String getStartPermlink() {
+        return startPermlink;
+    }
+
+    /**
+     * @param startPermlink
+     *            The permlink of the first discussion or null to start with
+     *            the first discussion of the listing.
+     */
+    public void setStartPermlink(String startPermlink) {
+        this.startPermlink = startPermlink;
+    }
+
+    public Integer getTruncateBody() {
+        return truncateBody;
+    }
+
+    /**
+     * Let the node shorten the body of every discussion.
+     * 
+     * @param truncateBody
+     *            The maximum number of characters of a body or null to return
+     *            the complete bodies.
+     */
+    public void setTruncateBody(Integer truncateBody) {
+        this.truncateBody = truncateBody;
+    }
 }
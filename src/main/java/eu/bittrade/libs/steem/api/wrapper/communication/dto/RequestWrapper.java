@@ -1,5 +1,7 @@
 package eu.bittrade.libs.steem.api.wrapper.communication.dto;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -27,7 +29,7 @@ public class RequestWrapper {
      * request
      */
     @JsonIgnore
-    private static int globalRequestId = 0;
+    private static final AtomicInteger globalRequestId = new AtomicInteger();
     @JsonIgnore
     private SteemApis steemApi;
     @JsonIgnore
@@ -44,7 +46,7 @@ public class RequestWrapper {
      * Instantiate a new RequestObject.
      */
     public RequestWrapper() {
-        this.id = globalRequestId++;
+        this.id = globalRequestId.getAndIncrement();
     }
 
     /**
@@ -152,7 +154,7 @@ public class RequestWrapper {
      *         incremented.
      */
     public static int incrementGlobalRequestId() {
-        return ++globalRequestId;
+        return globalRequestId.incrementAndGet();
     }
 
     @Override
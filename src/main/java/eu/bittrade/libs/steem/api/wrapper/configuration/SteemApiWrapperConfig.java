@@ -3,12 +3,19 @@ package eu.bittrade.libs.steem.api.wrapper.configuration;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.SimpleDateFormat;
+import java.util.TimeZone;
 
 import javax.websocket.ClientEndpointConfig;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import eu.bittrade.libs.steem.api.wrapper.caching.BlockCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.ContentCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.DiskResponseCache;
+import eu.bittrade.libs.steem.api.wrapper.caching.ResponseCache;
+import eu.bittrade.libs.steem.api.wrapper.storage.BlockStore;
+
 //TODO: Add value verification in setters.
 /**
  * This class stores the configuration that is used for the communication to the
@@ -27,6 +34,13 @@ public class SteemApiWrapperConfig {
     private SimpleDateFormat dateTimeFormat;
     private String username;
     private char[] password;
+    private BlockStore blockStore;
+    private ResponseCache responseCache;
+    private BlockCache blockCache;
+    private ContentCache contentCache;
+    private DiskResponseCache diskResponseCache;
+    private boolean requestCoalescingEnabled;
+    private boolean globalPropertiesHolderEnabled;
 
     /**
      * Default constructor that will set all default values.
@@ -41,9 +55,28 @@ public class SteemApiWrapperConfig {
             this.websocketEndpointURI = null;
         }
         this.timeout = 1000;
-        this.dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        this.dateTimeFormat = createDefaultDateTimeFormat();
         this.username = "";
         this.password = "".toCharArray();
+        this.blockStore = null;
+        this.responseCache = null;
+        this.blockCache = null;
+        this.contentCache = null;
+        this.diskResponseCache = null;
+        this.requestCoalescingEnabled = false;
+        this.globalPropertiesHolderEnabled = false;
+    }
+
+    /**
+     * @return A new instance of the date format that is used by default to map
+     *         the date fields of the server response. As the server returns all
+     *         times in UTC without a zone designator, the format uses the UTC
+     *         time zone.
+     */
+    public static SimpleDateFormat createDefaultDateTimeFormat() {
+        SimpleDateFormat defaultDateTimeFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        defaultDateTimeFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return defaultDateTimeFormat;
     }
 
     /**
@@ -161,4 +194,150 @@ public class SteemApiWrapperConfig {
     public char[] getPassword() {
         return password;
     }
+
+    /**
+     * Get the local block store that is consulted before requesting a block
+     * from the node.
+     * 
+     * @return The configured block store or null if no block store is used.
+     */
+    public BlockStore getBlockStore() {
+        return blockStore;
+    }
+
+    /**
+     * Set a local block store that should be consulted before a block is
+     * requested from the node. Irreversible blocks that had to be requested
+     * from the node will be added to the store. By default, no block store is
+     * used.
+     * 
+     * @param blockStore
+     *            The block store to use or null to disable it.
+     */
+    public void setBlockStore(BlockStore blockStore) {
+        this.blockStore = blockStore;
+    }
+
+    /**
+     * @return The configured response cache or null if no response cache is
+     *         used.
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Set a cache for the transformed responses of requests whose results
+     * change rarely. By default, no response cache is used.
+     * 
+     * @param responseCache
+     *            The response cache to use or null to disable it.
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * @return True if identical requests that are performed at the same time
+     *         share one request.
+     */
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    /**
+     * Let identical requests that are performed at the same time share one
+     * request to the node and its transformed result. By default, every
+     * request is sent to the node.
+     * 
+     * <p>
+     * <b>Notice:</b> The requests receive their own result list, but the
+     * objects in the list are shared and should not be modified.
+     * 
+     * @param requestCoalescingEnabled
+     *            True to enable the coalescing.
+     */
+    public void setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+    }
+
+    /**
+     * @return True if the dynamic global properties are refreshed in the
+     *         background.
+     */
+    public boolean isGlobalPropertiesHolderEnabled() {
+        return globalPropertiesHolderEnabled;
+    }
+
+    /**
+     * Refresh the dynamic global properties in the background once per block
+     * and answer calls of getDynamicGlobalProperties() with the latest
+     * snapshot. By default, every call is sent to the node.
+     * 
+     * @param globalPropertiesHolderEnabled
+     *            True to enable the background refresh.
+     */
+    public void setGlobalPropertiesHolderEnabled(boolean globalPropertiesHolderEnabled) {
+        this.globalPropertiesHolderEnabled = globalPropertiesHolderEnabled;
+    }
+
+    /**
+     * @return The configured block cache or null if no block cache is used.
+     */
+    public BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    /**
+     * Set a cache for irreversible blocks and block headers that is consulted
+     * before the block store and the node. By default, no block cache is
+     * used.
+     * 
+     * @param blockCache
+     *            The block cache to use or null to disable it.
+     */
+    public void setBlockCache(BlockCache blockCache) {
+        this.blockCache = blockCache;
+    }
+
+    /**
+     * @return The configured content cache or null if no content cache is
+     *         used.
+     */
+    public ContentCache getContentCache() {
+        return contentCache;
+    }
+
+    /**
+     * Set a cache for the content and the active votes of posts and comments.
+     * The cache has to be used as the listener of a block stream to remove
+     * changed entries. By default, no content cache is used.
+     * 
+     * @param contentCache
+     *            The content cache to use or null to disable it.
+     */
+    public void setContentCache(ContentCache contentCache) {
+        this.contentCache = contentCache;
+    }
+
+    /**
+     * @return The configured disk response cache or null if no disk response
+     *         cache is used.
+     */
+    public DiskResponseCache getDiskResponseCache() {
+        return diskResponseCache;
+    }
+
+    /**
+     * Set a cache that persists responses which will never change (e.g. the
+     * configuration, irreversible blocks and complete pages of the account
+     * history), so that they survive a restart. By default, no disk response
+     * cache is used.
+     * 
+     * @param diskResponseCache
+     *            The disk response cache to use or null to disable it.
+     */
+    public void setDiskResponseCache(DiskResponseCache diskResponseCache) {
+        this.diskResponseCache = diskResponseCache;
+    }
 }
@@ -0,0 +1,297 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This class requests a post together with all of its nested replies. The
+ * tree is walked level by level: The replies of all discussions of a level
+ * (and optionally their active votes) are requested in parallel, before the
+ * next level is processed.
+ *
+ * <p>
+ * Discussions without any replies are not requested again, as the number of
+ * replies is already known from their parent level.
+ *
+ * <p>
+ * The returned tree is owned by the caller: Every discussion of the tree is a
+ * copy of the discussion returned by the node, which may be a shared instance
+ * of a cache, so that filling in the replies and active votes never changes
+ * the cached discussion.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class CommentTreeFetcher implements Closeable {
+    /** The default number of requests performed at the same time. */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final DiscussionSource discussionSource;
+    private final ExecutorService executorService;
+
+    /**
+     * Create a new fetcher that uses the default parallelism.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     */
+    public CommentTreeFetcher(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a new fetcher.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param parallelism
+     *            The number of requests performed at the same time.
+     */
+    public CommentTreeFetcher(SteemApiWrapper steemApiWrapper, int parallelism) {
+        this(DiscussionSource.of(steemApiWrapper), parallelism);
+    }
+
+    /**
+     * Create a new fetcher that requests the discussions from the given
+     * source.
+     *
+     * @param discussionSource
+     *            The source used to request the discussions.
+     * @param parallelism
+     *            The number of requests performed at the same time.
+     */
+    public CommentTreeFetcher(DiscussionSource discussionSource, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism has to be greater than 0.");
+        }
+
+        this.discussionSource = discussionSource;
+        this.executorService = RequestUtil.newDaemonThreadPool("comment-tree-fetcher", parallelism);
+    }
+
+    /**
+     * Request a post or comment and its nested replies.
+     *
+     * @param author
+     *            The author of the post or comment.
+     * @param permlink
+     *            The permlink of the post or comment.
+     * @param maxDepth
+     *            The number of reply levels to request. 0 only requests the
+     *            given post or comment.
+     * @param withActiveVotes
+     *            True to also request the active votes of every discussion of
+     *            the tree.
+     * @return The post or comment whose replies contain the tree.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Discussion fetch(String author, String permlink, int maxDepth, boolean withActiveVotes)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("The maximum depth can't be negative.");
+        }
+
+        Discussion root = copy(discussionSource.getContent(author, permlink));
+        List<Discussion> level = Collections.singletonList(root);
+
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            boolean requestReplies = depth < maxDepth;
+            List<Future<List<Discussion>>> replyRequests = new ArrayList<>(level.size());
+            List<Future<List<ActiveVote>>> activeVoteRequests = new ArrayList<>(level.size());
+
+            // Both kinds of requests of a level are sent in the same wave.
+            for (Discussion discussion : level) {
+                if (requestReplies && discussion.getChildren() > 0) {
+                    replyRequests.add(executorService.submit(() -> discussionSource
+                            .getContentReplies(discussion.getAuthor(), discussion.getPermlink())));
+                } else {
+                    replyRequests.add(null);
+                }
+
+                if (withActiveVotes) {
+                    activeVoteRequests.add(executorService.submit(() -> discussionSource
+                            .getActiveVotes(discussion.getAuthor(), discussion.getPermlink())));
+                }
+            }
+
+            List<Discussion> nextLevel = new ArrayList<>();
+            try {
+                for (int i = 0; i < level.size(); i++) {
+                    Discussion discussion = level.get(i);
+                    if (withActiveVotes) {
+                        discussion.setActiveVotes(RequestUtil.await(activeVoteRequests.get(i), "the comment tree"));
+                    }
+
+                    if (replyRequests.get(i) != null) {
+                        List<Discussion> replies = new ArrayList<>();
+                        for (Discussion reply : RequestUtil.await(replyRequests.get(i), "the comment tree")) {
+                            replies.add(copy(reply));
+                        }
+
+                        discussion.setReplies(replies);
+                        nextLevel.addAll(replies);
+                    } else if (requestReplies) {
+                        discussion.setReplies(Collections.<Discussion> emptyList());
+                    }
+                }
+            } finally {
+                RequestUtil.cancelAll(replyRequests);
+                RequestUtil.cancelAll(activeVoteRequests);
+            }
+
+            level = nextLevel;
+        }
+
+        return root;
+    }
+
+    /**
+     * Create a copy of a discussion that is owned by the fetcher, as the
+     * replies and votes are set on every discussion of the tree, which may be
+     * cached.
+     */
+    private static Discussion copy(Discussion discussion) throws SteemTransformationException {
+        try {
+            // The conversion returns the same instance, so use a tree instead.
+            return MAPPER.treeToValue(MAPPER.valueToTree(discussion), Discussion.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new SteemTransformationException("Could not copy the discussion.", e);
+        }
+    }
+
+    /**
+     * Stop the background threads.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * The source of the discussions requested by a {@link CommentTreeFetcher}.
+     */
+    public interface DiscussionSource {
+        /**
+         * Request a post or comment.
+         *
+         * @param author
+         *            The author of the post or comment.
+         * @param permlink
+         *            The permlink of the post or comment.
+         * @return The post or comment.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        Discussion getContent(String author, String permlink)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Request the direct replies of a post or comment.
+         *
+         * @param author
+         *            The author of the post or comment.
+         * @param permlink
+         *            The permlink of the post or comment.
+         * @return The replies.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<Discussion> getContentReplies(String author, String permlink)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Request the active votes of a post or comment.
+         *
+         * @param author
+         *            The author of the post or comment.
+         * @param permlink
+         *            The permlink of the post or comment.
+         * @return The active votes.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<ActiveVote> getActiveVotes(String author, String permlink)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Create a source that requests the discussions using the given
+         * wrapper.
+         *
+         * @param steemApiWrapper
+         *            The wrapper to use.
+         * @return The source.
+         */
+        static DiscussionSource of(SteemApiWrapper steemApiWrapper) {
+            return new DiscussionSource() {
+                @Override
+                public Discussion getContent(String author, String permlink) throws SteemTimeoutException,
+                        SteemConnectionException, SteemTransformationException, SteemResponseError {
+                    return steemApiWrapper.getContent(author, permlink);
+                }
+
+                @Override
+                public List<Discussion> getContentReplies(String author, String permlink)
+                        throws SteemTimeoutException, SteemConnectionException, SteemTransformationException,
+                        SteemResponseError {
+                    return steemApiWrapper.getContentReplies(author, permlink);
+                }
+
+                @Override
+                public List<ActiveVote> getActiveVotes(String author, String permlink) throws SteemTimeoutException,
+                        SteemConnectionException, SteemTransformationException, SteemResponseError {
+                    return steemApiWrapper.getActiveVotes(author, permlink);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.caching.ContentCache;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This class requests the content of many posts and comments at once. The
+ * requests are sent over the shared connection without waiting for the
+ * previous responses, limited by the number of threads of the executor.
+ * Entries of the given content cache are used directly.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class ContentFetcher implements Closeable {
+    /** The default number of requests performed at the same time. */
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+    private static final ExecutorService SHARED_EXECUTOR = RequestUtil.newDaemonThreadPool("content-fetcher",
+            DEFAULT_CONCURRENCY);
+
+    private final ContentSource contentSource;
+    private final ContentCache contentCache;
+    private final ExecutorService executorService;
+    /** True if the executor has been created by this instance. */
+    private final boolean ownsExecutor;
+
+    /**
+     * Create a new fetcher that uses a pool of {@link #DEFAULT_CONCURRENCY}
+     * threads shared by all fetchers created without an executor.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     */
+    public ContentFetcher(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper::getContent, null, SHARED_EXECUTOR, false);
+    }
+
+    /**
+     * Create a new fetcher that uses a pool of its own.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param concurrency
+     *            The number of requests performed at the same time.
+     */
+    public ContentFetcher(SteemApiWrapper steemApiWrapper, int concurrency) {
+        this(steemApiWrapper::getContent, null, createExecutor(concurrency), true);
+    }
+
+    /**
+     * Create a new fetcher that uses a pool of {@link #DEFAULT_CONCURRENCY}
+     * threads shared by all fetchers created without an executor.
+     *
+     * @param contentSource
+     *            The source used to request the discussions.
+     * @param contentCache
+     *            The cache to take the discussions from or null.
+     */
+    public ContentFetcher(ContentSource contentSource, ContentCache contentCache) {
+        this(contentSource, contentCache, SHARED_EXECUTOR, false);
+    }
+
+    /**
+     * Create a new fetcher that requests the discussions using the given
+     * executor, which is not stopped by {@link #close()}.
+     *
+     * @param contentSource
+     *            The source used to request the discussions.
+     * @param contentCache
+     *            The cache to take the discussions from or null.
+     * @param executorService
+     *            The executor used to perform the requests.
+     */
+    public ContentFetcher(ContentSource contentSource, ContentCache contentCache, ExecutorService executorService) {
+        this(contentSource, contentCache, executorService, false);
+    }
+
+    private ContentFetcher(ContentSource contentSource, ContentCache contentCache, ExecutorService executorService,
+            boolean ownsExecutor) {
+        this.contentSource = contentSource;
+        this.contentCache = contentCache;
+        this.executorService = executorService;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Request the content of several posts and comments.
+     *
+     * @param authorPermlinks
+     *            The posts and comments to request.
+     * @return The content of each post or comment in the order of the given
+     *         collection. Duplicates are only requested once.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Map<AuthorPermlink, Discussion> fetch(Collection<AuthorPermlink> authorPermlinks)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        Map<AuthorPermlink, Discussion> contents = new LinkedHashMap<>();
+        Map<AuthorPermlink, Future<Discussion>> requests = new LinkedHashMap<>();
+        for (AuthorPermlink authorPermlink : authorPermlinks) {
+            if (contents.containsKey(authorPermlink)) {
+                continue;
+            }
+
+            Discussion cachedDiscussion = contentCache == null ? null : contentCache.getDiscussion(authorPermlink);
+            // Keep the position of the entry for the input order.
+            contents.put(authorPermlink, cachedDiscussion);
+            if (cachedDiscussion == null) {
+                requests.put(authorPermlink, executorService.submit(
+                        () -> contentSource.getContent(authorPermlink.getAuthor(), authorPermlink.getPermlink())));
+            }
+        }
+
+        try {
+            for (Entry<AuthorPermlink, Future<Discussion>> request : requests.entrySet()) {
+                contents.put(request.getKey(), RequestUtil.await(request.getValue(), "the content"));
+            }
+        } finally {
+            RequestUtil.cancelAll(requests.values());
+        }
+
+        return contents;
+    }
+
+    /**
+     * Stop the background threads, if this fetcher uses a pool of its own.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static ExecutorService createExecutor(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("The concurrency has to be greater than 0.");
+        }
+
+        return RequestUtil.newDaemonThreadPool("content-fetcher", concurrency);
+    }
+
+    /**
+     * The source of the discussions requested by a {@link ContentFetcher}.
+     * Usually this is {@link SteemApiWrapper#getContent(String, String)}.
+     */
+    @FunctionalInterface
+    public interface ContentSource {
+        /**
+         * Request a post or comment.
+         *
+         * @param author
+         *            The author of the post or comment.
+         * @param permlink
+         *            The permlink of the post or comment.
+         * @return The post or comment.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        Discussion getContent(String author, String permlink)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+}
@@ -0,0 +1,114 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This class requests the discussion listings of several tags and sort types
+ * in parallel (e.g. the trending, hot and created discussions of all tags
+ * shown on a front page) and merges them into {@link DiscussionListings}.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionFanOut implements Closeable {
+    /** The default number of listings requested at the same time. */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private final SteemApiWrapper steemApiWrapper;
+    private final ExecutorService executorService;
+
+    /**
+     * Create a new fan out that uses the default parallelism.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     */
+    public DiscussionFanOut(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a new fan out.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param parallelism
+     *            The number of listings requested at the same time.
+     */
+    public DiscussionFanOut(SteemApiWrapper steemApiWrapper, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism has to be greater than 0.");
+        }
+
+        this.steemApiWrapper = steemApiWrapper;
+        this.executorService = RequestUtil.newDaemonThreadPool("discussion-fan-out", parallelism);
+    }
+
+    /**
+     * Request every combination of the given tags and sort types.
+     *
+     * @param tags
+     *            The tags of the listings.
+     * @param sortTypes
+     *            The sort types of the listings.
+     * @param limit
+     *            The number of discussions per listing.
+     * @return The merged listings. The order of the merged discussions follows
+     *         the order of the sort types and then the order of the tags.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public DiscussionListings query(Collection<String> tags, Collection<DiscussionSortType> sortTypes, int limit)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        List<Future<List<Discussion>>> requests = new ArrayList<>(tags.size() * sortTypes.size());
+        for (DiscussionSortType sortType : sortTypes) {
+            for (String tag : tags) {
+                requests.add(executorService.submit(() -> steemApiWrapper.getDiscussionsBy(tag, limit, sortType)));
+            }
+        }
+
+        DiscussionListings discussionListings = new DiscussionListings();
+        int requestIndex = 0;
+        try {
+            for (DiscussionSortType sortType : sortTypes) {
+                for (String tag : tags) {
+                    discussionListings.addListing(tag, sortType,
+                            RequestUtil.await(requests.get(requestIndex++), "the discussions"));
+                }
+            }
+        } finally {
+            RequestUtil.cancelAll(requests);
+        }
+
+        return discussionListings;
+    }
+
+    /**
+     * Stop the background threads.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+}
@@ -0,0 +1,161 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.util.PrefetchingPageIterator;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This iterator pages through a complete listing of discussions (e.g. all
+ * discussions of a tag sorted by their creation date). Every page starts with
+ * the last discussion of the previous page, which is only returned once.
+ *
+ * <p>
+ * While a page is consumed, the next page is requested in the background. At
+ * most the current and the next page are held in memory, independent of the
+ * size of the listing.
+ *
+ * <p>
+ * <b>Notice:</b> Listings whose order changes over time (e.g. trending) may
+ * return a discussion more than once or skip discussions that move while the
+ * listing is walked through. As the {@link Iterator} interface does not allow
+ * checked exceptions, request errors are thrown as
+ * {@link SteemIterationException} which carries the original exception as its
+ * cause.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionIterator extends PrefetchingPageIterator<Discussion> {
+    /** The default number of discussions requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** The maximum number of pages requested at the same time by default. */
+    public static final int DEFAULT_PREFETCH_THREADS = 8;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = RequestUtil.newDaemonThreadPool("discussion-prefetch",
+            DEFAULT_PREFETCH_THREADS);
+
+    private final DiscussionListingSource discussionListingSource;
+    private final String tag;
+    private final DiscussionSortType sortType;
+    private final int pageSize;
+    /** The last discussion of the latest page, which starts the next page. */
+    private Discussion boundary;
+
+    /**
+     * Create an iterator over a complete listing that uses the default page
+     * size.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param tag
+     *            The tag of the discussions.
+     * @param sortType
+     *            The listing to walk through.
+     */
+    public DiscussionIterator(SteemApiWrapper steemApiWrapper, String tag, DiscussionSortType sortType) {
+        this(steemApiWrapper, tag, sortType, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create an iterator over a complete listing.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param tag
+     *            The tag of the discussions.
+     * @param sortType
+     *            The listing to walk through.
+     * @param pageSize
+     *            The number of discussions requested at once. As every page
+     *            repeats the last discussion of the previous page, the page
+     *            size has to be greater than 1.
+     */
+    public DiscussionIterator(SteemApiWrapper steemApiWrapper, String tag, DiscussionSortType sortType,
+            int pageSize) {
+        this(steemApiWrapper, tag, sortType, pageSize, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Create an iterator over a complete listing that requests the pages
+     * using the given executor. All iterators created without an executor
+     * share a pool of {@link #DEFAULT_PREFETCH_THREADS} threads.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the discussions.
+     * @param tag
+     *            The tag of the discussions.
+     * @param sortType
+     *            The listing to walk through.
+     * @param pageSize
+     *            The number of discussions requested at once, which has to be
+     *            greater than 1.
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     */
+    public DiscussionIterator(SteemApiWrapper steemApiWrapper, String tag, DiscussionSortType sortType,
+            int pageSize, ExecutorService prefetchExecutor) {
+        this(steemApiWrapper::getDiscussionsBy, tag, sortType, pageSize, prefetchExecutor);
+    }
+
+    /**
+     * Create an iterator over a complete listing of the given source.
+     *
+     * @param discussionListingSource
+     *            The source of the pages.
+     * @param tag
+     *            The tag of the discussions.
+     * @param sortType
+     *            The listing to walk through.
+     * @param pageSize
+     *            The number of discussions requested at once, which has to be
+     *            greater than 1.
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     */
+    public DiscussionIterator(DiscussionListingSource discussionListingSource, String tag,
+            DiscussionSortType sortType, int pageSize, ExecutorService prefetchExecutor) {
+        super(prefetchExecutor, "the discussions of " + tag);
+
+        if (pageSize <= 1) {
+            throw new IllegalArgumentException("The page size has to be greater than 1.");
+        }
+
+        this.discussionListingSource = discussionListingSource;
+        this.tag = tag;
+        this.sortType = sortType;
+        this.pageSize = pageSize;
+        requestPage(null, null);
+    }
+
+    @Override
+    protected List<Discussion> onPage(List<Discussion> page) {
+        // The node returns less discussions at the end of the listing.
+        boolean complete = page.size() >= pageSize;
+        int firstIndex = boundary != null && !page.isEmpty() && isSameDiscussion(boundary, page.get(0)) ? 1 : 0;
+        List<Discussion> newDiscussions = page.subList(firstIndex, page.size());
+
+        if (complete && !newDiscussions.isEmpty()) {
+            boundary = newDiscussions.get(newDiscussions.size() - 1);
+            requestPage(boundary.getAuthor(), boundary.getPermlink());
+        }
+
+        return newDiscussions;
+    }
+
+    private void requestPage(String startAuthor, String startPermlink) {
+        prefetch(() -> discussionListingSource.getDiscussionsBy(tag, pageSize, sortType, startAuthor,
+                startPermlink));
+    }
+
+    private static boolean isSameDiscussion(Discussion discussion, Discussion otherDiscussion) {
+        return discussion.getAuthor().equals(otherDiscussion.getAuthor())
+                && discussion.getPermlink().equals(otherDiscussion.getPermlink());
+    }
+}
@@ -0,0 +1,52 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.util.List;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * The source of the listing pages requested by the {@link DiscussionIterator}.
+ * Usually this is
+ * {@link SteemApiWrapper#getDiscussionsBy(String, int, DiscussionSortType, String, String)}.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+@FunctionalInterface
+public interface DiscussionListingSource {
+    /**
+     * Request a page of a listing.
+     *
+     * @param tag
+     *            The tag of the discussions.
+     * @param limit
+     *            The number of discussions.
+     * @param sortBy
+     *            The listing.
+     * @param startAuthor
+     *            The author of the first discussion of the page or null to
+     *            start at the beginning of the listing.
+     * @param startPermlink
+     *            The permlink of the first discussion of the page or null to
+     *            start at the beginning of the listing.
+     * @return The discussions of the page.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    List<Discussion> getDiscussionsBy(String tag, int limit, DiscussionSortType sortBy, String startAuthor,
+            String startPermlink)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+}
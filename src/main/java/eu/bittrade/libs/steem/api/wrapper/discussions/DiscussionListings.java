@@ -0,0 +1,100 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * The result of a {@link DiscussionFanOut}: The listings of several tags and
+ * sort types. A discussion that appears in more than one listing is
+ * represented by a single instance, which is the instance of the listing that
+ * has been added first.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionListings {
+    private final Map<AuthorPermlink, Discussion> discussions;
+    private final Map<DiscussionSortType, Map<String, List<Discussion>>> listings;
+
+    /**
+     * Create an empty result.
+     */
+    DiscussionListings() {
+        this.discussions = new LinkedHashMap<>();
+        this.listings = new EnumMap<>(DiscussionSortType.class);
+    }
+
+    /**
+     * Add a listing and replace the discussions that are already known by
+     * their existing instance.
+     *
+     * @param tag
+     *            The tag of the listing.
+     * @param sortType
+     *            The sort type of the listing.
+     * @param listing
+     *            The discussions of the listing.
+     */
+    void addListing(String tag, DiscussionSortType sortType, List<Discussion> listing) {
+        List<Discussion> sharedListing = new ArrayList<>(listing.size());
+        for (Discussion discussion : listing) {
+            sharedListing.add(discussions.computeIfAbsent(
+                    new AuthorPermlink(discussion.getAuthor(), discussion.getPermlink()), key -> discussion));
+        }
+
+        listings.computeIfAbsent(sortType, key -> new LinkedHashMap<>()).put(tag,
+                Collections.unmodifiableList(sharedListing));
+    }
+
+    /**
+     * @return All discussions of all listings without duplicates, in the order
+     *         of their first appearance.
+     */
+    public List<Discussion> getDiscussions() {
+        return Collections.unmodifiableList(new ArrayList<>(discussions.values()));
+    }
+
+    /**
+     * Get a discussion by its author and permlink.
+     *
+     * @param authorPermlink
+     *            The author and the permlink of the discussion.
+     * @return The discussion or null if it is not part of any listing.
+     */
+    public Discussion getDiscussion(AuthorPermlink authorPermlink) {
+        return discussions.get(authorPermlink);
+    }
+
+    /**
+     * Get a single listing.
+     *
+     * @param tag
+     *            The tag of the listing.
+     * @param sortType
+     *            The sort type of the listing.
+     * @return The discussions of the listing in the order returned by the
+     *         node or an empty list if the listing has not been requested.
+     */
+    public List<Discussion> getListing(String tag, DiscussionSortType sortType) {
+        Map<String, List<Discussion>> listingsOfSortType = listings.get(sortType);
+        if (listingsOfSortType == null || !listingsOfSortType.containsKey(tag)) {
+            return Collections.emptyList();
+        }
+
+        return listingsOfSortType.get(tag);
+    }
+
+    /**
+     * @return The number of different discussions of all listings.
+     */
+    public int size() {
+        return discussions.size();
+    }
+}
@@ -0,0 +1,16 @@
+package eu.bittrade.libs.steem.api.wrapper.exceptions;
+
+/**
+ * An unchecked Exception used by iterators to pass on the checked exceptions
+ * of a request, as the {@link java.util.Iterator} interface does not allow
+ * checked exceptions. The original exception is available as the cause.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class SteemIterationException extends RuntimeException {
+    private static final long serialVersionUID = -6218839620180924355L;
+
+    public SteemIterationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,205 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+
+/**
+ * The result of an account history request. The entries are ordered by their
+ * sequence number and are stored in two parallel arrays, so that an entry can
+ * be found by its sequence number or by its block number using a binary
+ * search.
+ *
+ * <p>
+ * This class also implements the {@link java.util.Map} interface with the
+ * sequence number as the key. The map is immutable and iterates in sequence
+ * order.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistory extends AbstractMap<Integer, AccountActivity> {
+    private final long[] sequenceNumbers;
+    private final AccountActivity[] activities;
+
+    /**
+     * Create a new account history. The entries are sorted by their sequence
+     * number if they are not ordered yet.
+     *
+     * @param sequenceNumbers
+     *            The sequence numbers of the entries. They do not have to
+     *            start at 0 and may contain gaps, e.g. for a page of the
+     *            history or a filtered history.
+     * @param activities
+     *            The activities, where the activity at an index belongs to the
+     *            sequence number at the same index of the sequence numbers.
+     */
+    public AccountHistory(long[] sequenceNumbers, AccountActivity[] activities) {
+        if (sequenceNumbers.length != activities.length) {
+            throw new IllegalArgumentException("Each sequence number needs exactly one activity.");
+        }
+
+        if (isOrdered(sequenceNumbers)) {
+            this.sequenceNumbers = sequenceNumbers.clone();
+            this.activities = activities.clone();
+        } else {
+            Integer[] order = new Integer[sequenceNumbers.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(index -> sequenceNumbers[index]));
+
+            this.sequenceNumbers = new long[sequenceNumbers.length];
+            this.activities = new AccountActivity[activities.length];
+            for (int i = 0; i < order.length; i++) {
+                this.sequenceNumbers[i] = sequenceNumbers[order[i]];
+                this.activities[i] = activities[order[i]];
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return sequenceNumbers.length;
+    }
+
+    /**
+     * @param index
+     *            The index of the entry.
+     * @return The sequence number of the entry at the given index.
+     */
+    public long getSequenceNumber(int index) {
+        return sequenceNumbers[index];
+    }
+
+    /**
+     * @param index
+     *            The index of the entry.
+     * @return The activity of the entry at the given index.
+     */
+    public AccountActivity getActivity(int index) {
+        return activities[index];
+    }
+
+    /**
+     * Get a part of this history.
+     *
+     * @param fromIndex
+     *            The index of the first entry (inclusive).
+     * @param toIndex
+     *            The index of the last entry (exclusive).
+     * @return A new history that contains the entries of the given range.
+     */
+    public AccountHistory subHistory(int fromIndex, int toIndex) {
+        return new AccountHistory(Arrays.copyOfRange(sequenceNumbers, fromIndex, toIndex),
+                Arrays.copyOfRange(activities, fromIndex, toIndex));
+    }
+
+    /**
+     * Search for the entry with the given sequence number.
+     *
+     * @param sequenceNumber
+     *            The sequence number to search for.
+     * @return The index of the entry or <code>(-(insertion point) - 1)</code>
+     *         if there is no such entry (@see Arrays#binarySearch(long[],
+     *         long)).
+     */
+    public int findSequenceNumber(long sequenceNumber) {
+        return Arrays.binarySearch(sequenceNumbers, sequenceNumber);
+    }
+
+    /**
+     * Search for the first entry in the given block or, if there is none, the
+     * first entry in a later block.
+     *
+     * @param blockNumber
+     *            The block number to search for.
+     * @return The index of the entry or {@link #size()} if all entries belong
+     *         to earlier blocks.
+     */
+    public int findFirstInBlock(long blockNumber) {
+        int low = 0;
+        int high = activities.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (activities[middle].getBlock() < blockNumber) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Get the activity with the given sequence number.
+     *
+     * @param sequenceNumber
+     *            The sequence number.
+     * @return The activity or null if there is no such entry.
+     */
+    public AccountActivity getBySequenceNumber(long sequenceNumber) {
+        int index = findSequenceNumber(sequenceNumber);
+        return index < 0 ? null : activities[index];
+    }
+
+    @Override
+    public AccountActivity get(Object key) {
+        return key instanceof Number ? getBySequenceNumber(((Number) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Number && findSequenceNumber(((Number) key).longValue()) >= 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, AccountActivity>> entrySet() {
+        return new AbstractSet<Entry<Integer, AccountActivity>>() {
+            @Override
+            public Iterator<Entry<Integer, AccountActivity>> iterator() {
+                return new Iterator<Entry<Integer, AccountActivity>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < sequenceNumbers.length;
+                    }
+
+                    @Override
+                    public Entry<Integer, AccountActivity> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+
+                        Entry<Integer, AccountActivity> entry = new SimpleImmutableEntry<>(
+                                (int) sequenceNumbers[index], activities[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return sequenceNumbers.length;
+            }
+        };
+    }
+
+    private static boolean isOrdered(long[] sequenceNumbers) {
+        for (int i = 1; i < sequenceNumbers.length; i++) {
+            if (sequenceNumbers[i - 1] >= sequenceNumbers[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,390 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.caching.GlobalPropertiesHolder.GlobalPropertiesSource;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * A local cache for the history of accounts that is kept up to date
+ * incrementally.
+ *
+ * <p>
+ * The entries of each account are appended to a file in the cache directory,
+ * one JSON object per line in sequence order. A sync only requests the
+ * entries that are newer than the highest cached sequence number: it pages
+ * backwards from the newest entry and stops as soon as a known entry has been
+ * reached. Accounts that are synced for the first time are requested oldest
+ * entry first, so that the entries can be written while they are received.
+ *
+ * <p>
+ * Only entries of irreversible blocks are written, as entries of reversible
+ * blocks may still be replaced by a fork. The entries after the first entry of
+ * a reversible block are left out and requested again by a later sync, once
+ * their blocks have become irreversible.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryCache {
+    private static final Logger LOGGER = LogManager.getLogger(AccountHistoryCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern ACCOUNT_NAME_PATTERN = Pattern.compile("[a-z0-9.-]+");
+    private static final String FILE_EXTENSION = ".history";
+
+    /** The default number of entries requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final AccountHistorySource accountHistorySource;
+    private final GlobalPropertiesSource globalPropertiesSource;
+    private final Path directory;
+    private final int pageSize;
+    private final ConcurrentMap<String, Long> highestSequenceNumbers;
+    private final ConcurrentMap<String, Object> accountLocks;
+
+    /**
+     * Open or create a cache in the given directory that uses the default page
+     * size.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     * @param directory
+     *            The directory to store the history files in.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public AccountHistoryCache(SteemApiWrapper steemApiWrapper, Path directory) throws IOException {
+        this(steemApiWrapper, directory, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Open or create a cache in the given directory.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     * @param directory
+     *            The directory to store the history files in.
+     * @param pageSize
+     *            The number of entries requested at once.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public AccountHistoryCache(SteemApiWrapper steemApiWrapper, Path directory, int pageSize) throws IOException {
+        this(steemApiWrapper::getAccountHistoryPage, steemApiWrapper::getDynamicGlobalProperties, directory, pageSize);
+    }
+
+    /**
+     * Open or create a cache in the given directory that requests the history
+     * and the last irreversible block from the given sources.
+     *
+     * @param accountHistorySource
+     *            The source used to request the history.
+     * @param globalPropertiesSource
+     *            The source used to request the last irreversible block.
+     * @param directory
+     *            The directory to store the history files in.
+     * @param pageSize
+     *            The number of entries requested at once.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public AccountHistoryCache(AccountHistorySource accountHistorySource,
+            GlobalPropertiesSource globalPropertiesSource, Path directory, int pageSize) throws IOException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size has to be greater than 0.");
+        }
+
+        this.accountHistorySource = accountHistorySource;
+        this.globalPropertiesSource = globalPropertiesSource;
+        this.directory = Files.createDirectories(directory);
+        this.pageSize = pageSize;
+        this.highestSequenceNumbers = new ConcurrentHashMap<>();
+        this.accountLocks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the highest cached sequence number of an account.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @return The highest sequence number or -1 if no entries have been cached
+     *         yet.
+     * @throws IOException
+     *             If the history file could not be read.
+     */
+    public long getHighestSequenceNumber(String accountName) throws IOException {
+        synchronized (getLock(accountName)) {
+            Long highestSequenceNumber = highestSequenceNumbers.get(accountName);
+            if (highestSequenceNumber == null) {
+                highestSequenceNumber = readHighestSequenceNumber(getFile(accountName));
+                highestSequenceNumbers.put(accountName, highestSequenceNumber);
+            }
+
+            return highestSequenceNumber;
+        }
+    }
+
+    /**
+     * Get all cached entries of an account.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @return The cached entries ordered by their sequence number.
+     * @throws IOException
+     *             If the history file could not be read.
+     */
+    public AccountHistory get(String accountName) throws IOException {
+        synchronized (getLock(accountName)) {
+            // Make sure that a partially written entry has been removed.
+            getHighestSequenceNumber(accountName);
+
+            Path file = getFile(accountName);
+            List<CachedEntry> cachedEntries = new ArrayList<>();
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        cachedEntries.add(MAPPER.readValue(line, CachedEntry.class));
+                    }
+                }
+            }
+
+            long[] sequenceNumbers = new long[cachedEntries.size()];
+            AccountActivity[] accountActivities = new AccountActivity[cachedEntries.size()];
+            for (int i = 0; i < cachedEntries.size(); i++) {
+                sequenceNumbers[i] = cachedEntries.get(i).sequenceNumber;
+                accountActivities[i] = cachedEntries.get(i).activity;
+            }
+
+            return new AccountHistory(sequenceNumbers, accountActivities);
+        }
+    }
+
+    /**
+     * Request the entries of an account that are not cached yet and append
+     * the entries of irreversible blocks to the cache.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @return The number of new entries.
+     * @throws IOException
+     *             If the history file could not be read or written.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public int sync(String accountName) throws IOException, SteemTimeoutException, SteemConnectionException,
+            SteemTransformationException, SteemResponseError {
+        synchronized (getLock(accountName)) {
+            long highestSequenceNumber = getHighestSequenceNumber(accountName);
+            // Request the last irreversible block before the history, so that
+            // it does not cover entries that have been added in the meantime.
+            long lastIrreversibleBlockNum = globalPropertiesSource.request().getLastIrreversibleBlockNum();
+            if (highestSequenceNumber < 0) {
+                return initialSync(accountName, lastIrreversibleBlockNum);
+            }
+
+            // Collect the new entries newest first, as the number of new
+            // entries is unknown.
+            List<AccountHistory> newPages = new ArrayList<>();
+            int from = -1;
+            int limit = pageSize;
+            while (true) {
+                AccountHistory page = accountHistorySource.getAccountHistory(accountName, from, limit);
+                int firstNewIndex = page.findSequenceNumber(highestSequenceNumber + 1);
+                if (firstNewIndex < 0) {
+                    firstNewIndex = -(firstNewIndex + 1);
+                }
+                if (firstNewIndex < page.size()) {
+                    newPages.add(page.subHistory(firstNewIndex, page.size()));
+                }
+
+                long lowestSequenceNumber = page.size() == 0 ? 0 : page.getSequenceNumber(0);
+                if (lowestSequenceNumber <= highestSequenceNumber + 1) {
+                    break;
+                }
+
+                from = (int) lowestSequenceNumber - 1;
+                limit = Math.min(pageSize, from);
+            }
+
+            int newEntries = 0;
+            try (BufferedWriter writer = openForAppend(accountName)) {
+                for (int i = newPages.size() - 1; i >= 0; i--) {
+                    AccountHistory newPage = newPages.get(i);
+                    int appendedEntries = append(accountName, writer, newPage, lastIrreversibleBlockNum);
+                    newEntries += appendedEntries;
+                    if (appendedEntries < newPage.size()) {
+                        break;
+                    }
+                }
+            }
+
+            return newEntries;
+        }
+    }
+
+    /**
+     * Request the complete history of an account that has not been cached
+     * yet, oldest entry first, until the first entry of a reversible block.
+     */
+    private int initialSync(String accountName, long lastIrreversibleBlockNum) throws IOException,
+            SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        int newEntries = 0;
+        try (BufferedWriter writer = openForAppend(accountName)) {
+            Iterator<Entry<Integer, AccountActivity>> history = new AccountHistoryIterator(accountHistorySource,
+                    accountName, 0, false, pageSize);
+            while (history.hasNext()) {
+                Entry<Integer, AccountActivity> entry = history.next();
+                if (entry.getValue().getBlock() > lastIrreversibleBlockNum) {
+                    break;
+                }
+
+                append(accountName, writer, entry.getKey(), entry.getValue());
+                newEntries++;
+            }
+        } catch (SteemIterationException e) {
+            RequestUtil.rethrowSteemException(e.getCause());
+            throw e;
+        }
+
+        return newEntries;
+    }
+
+    /**
+     * Append the entries of a page until the first entry of a reversible
+     * block.
+     */
+    private int append(String accountName, BufferedWriter writer, AccountHistory page,
+            long lastIrreversibleBlockNum) throws IOException {
+        for (int i = 0; i < page.size(); i++) {
+            if (page.getActivity(i).getBlock() > lastIrreversibleBlockNum) {
+                return i;
+            }
+
+            append(accountName, writer, page.getSequenceNumber(i), page.getActivity(i));
+        }
+
+        return page.size();
+    }
+
+    private void append(String accountName, BufferedWriter writer, long sequenceNumber,
+            AccountActivity accountActivity) throws IOException {
+        CachedEntry cachedEntry = new CachedEntry();
+        cachedEntry.sequenceNumber = sequenceNumber;
+        cachedEntry.activity = accountActivity;
+
+        writer.write(MAPPER.writeValueAsString(cachedEntry));
+        writer.write('\n');
+        // Only count the entry once it has been written completely.
+        writer.flush();
+        highestSequenceNumbers.put(accountName, sequenceNumber);
+    }
+
+    private BufferedWriter openForAppend(String accountName) throws IOException {
+        return Files.newBufferedWriter(getFile(accountName), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Read the sequence number of the last complete line of a history file. A
+     * partially written last line is removed.
+     */
+    private long readHighestSequenceNumber(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            long length = randomAccessFile.length();
+            long lineEnd = length;
+            // Find the end of the last complete line.
+            while (lineEnd > 0) {
+                randomAccessFile.seek(lineEnd - 1);
+                if (randomAccessFile.read() == '\n') {
+                    break;
+                }
+                lineEnd--;
+            }
+
+            if (lineEnd < length) {
+                LOGGER.warn("Removing a partially written entry from {}.", file);
+                randomAccessFile.setLength(lineEnd);
+            }
+
+            if (lineEnd == 0) {
+                return -1;
+            }
+
+            long lineStart = lineEnd - 1;
+            while (lineStart > 0) {
+                randomAccessFile.seek(lineStart - 1);
+                if (randomAccessFile.read() == '\n') {
+                    break;
+                }
+                lineStart--;
+            }
+
+            byte[] line = new byte[(int) (lineEnd - lineStart)];
+            randomAccessFile.seek(lineStart);
+            randomAccessFile.readFully(line);
+
+            return MAPPER.readValue(line, CachedEntry.class).sequenceNumber;
+        }
+    }
+
+    private Path getFile(String accountName) {
+        if (!ACCOUNT_NAME_PATTERN.matcher(accountName).matches()) {
+            throw new IllegalArgumentException("The account name '" + accountName + "' is not valid.");
+        }
+
+        return directory.resolve(accountName + FILE_EXTENSION);
+    }
+
+    private Object getLock(String accountName) {
+        return accountLocks.computeIfAbsent(accountName, name -> new Object());
+    }
+
+    /**
+     * A single line of a history file.
+     */
+    private static class CachedEntry {
+        @JsonProperty("sequence")
+        private long sequenceNumber;
+        @JsonProperty("activity")
+        private AccountActivity activity;
+    }
+}
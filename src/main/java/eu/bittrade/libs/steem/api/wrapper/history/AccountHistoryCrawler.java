@@ -0,0 +1,289 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+
+/**
+ * This class requests the history of many accounts in parallel, starting with
+ * the oldest entry of each account.
+ *
+ * <p>
+ * The number of requests performed at the same time is limited for all
+ * accounts together. Only one page per account is requested at a time and an
+ * account whose page has been received is queued behind all other accounts
+ * that are waiting, so a single account with a huge history cannot delay the
+ * other accounts.
+ *
+ * <p>
+ * The sink is never called after {@link #crawl(Map, AccountHistorySink)}
+ * returned, even if the crawl has been interrupted while pages were
+ * requested. Pages that arrive later are dropped.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryCrawler {
+    private static final Logger LOGGER = LogManager.getLogger(AccountHistoryCrawler.class);
+
+    /** The default number of requests performed at the same time. */
+    public static final int DEFAULT_CONCURRENCY = 8;
+    /** The default number of entries requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private final AccountHistorySource accountHistorySource;
+    private final int concurrency;
+    private final int pageSize;
+
+    /**
+     * Create a new crawler that uses the default concurrency and page size.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     */
+    public AccountHistoryCrawler(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_CONCURRENCY, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create a new crawler.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     * @param concurrency
+     *            The maximum number of requests performed at the same time.
+     * @param pageSize
+     *            The number of entries requested at once.
+     */
+    public AccountHistoryCrawler(SteemApiWrapper steemApiWrapper, int concurrency, int pageSize) {
+        this(steemApiWrapper::getAccountHistoryPage, concurrency, pageSize);
+    }
+
+    /**
+     * Create a new crawler that requests the pages from the given source.
+     *
+     * @param accountHistorySource
+     *            The source used to request the history.
+     * @param concurrency
+     *            The maximum number of requests performed at the same time.
+     * @param pageSize
+     *            The number of entries requested at once.
+     */
+    public AccountHistoryCrawler(AccountHistorySource accountHistorySource, int concurrency, int pageSize) {
+        if (concurrency <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("The concurrency and the page size have to be greater than 0.");
+        }
+
+        this.accountHistorySource = accountHistorySource;
+        this.concurrency = concurrency;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Request the complete history of the given accounts.
+     *
+     * @param accountNames
+     *            The names of the accounts.
+     * @param accountHistorySink
+     *            The sink to pass the pages to.
+     * @return The sequence number each account would continue with (@see
+     *         #crawl(Map, AccountHistorySink)).
+     */
+    public Map<String, Long> crawl(Collection<String> accountNames, AccountHistorySink accountHistorySink) {
+        Map<String, Long> cursors = new LinkedHashMap<>();
+        for (String accountName : accountNames) {
+            cursors.put(accountName, 0L);
+        }
+
+        return crawl(cursors, accountHistorySink);
+    }
+
+    /**
+     * Request the history of the given accounts, starting at the given
+     * sequence numbers. This method blocks until the end of every history has
+     * been reached, a request for every remaining account has failed or the
+     * current thread has been interrupted.
+     *
+     * @param cursors
+     *            The names of the accounts and the sequence number to start
+     *            with for each account.
+     * @param accountHistorySink
+     *            The sink to pass the pages to.
+     * @return The sequence number each account would continue with, which can
+     *         be used to resume the crawl later on.
+     */
+    public Map<String, Long> crawl(Map<String, Long> cursors, AccountHistorySink accountHistorySink) {
+        Map<String, Long> nextCursors = new LinkedHashMap<>(cursors);
+        Queue<AccountCursor> readyAccounts = new ArrayDeque<>();
+        BlockingQueue<AccountCursor> completedRequests = new LinkedBlockingQueue<>();
+        for (Map.Entry<String, Long> cursor : cursors.entrySet()) {
+            readyAccounts.add(new AccountCursor(cursor.getKey(), cursor.getValue()));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
+        SinkGate sinkGate = new SinkGate();
+        int activeAccounts = readyAccounts.size();
+        int pendingRequests = 0;
+
+        try {
+            while (activeAccounts > 0) {
+                while (pendingRequests < concurrency && !readyAccounts.isEmpty()) {
+                    AccountCursor accountCursor = readyAccounts.poll();
+                    executorService.execute(() -> {
+                        try {
+                            requestPage(accountCursor, accountHistorySink, sinkGate);
+                        } finally {
+                            // Also hand back the cursor if the sink failed, as
+                            // the crawl waits for it.
+                            completedRequests.add(accountCursor);
+                        }
+                    });
+                    pendingRequests++;
+                }
+
+                AccountCursor accountCursor = completedRequests.take();
+                pendingRequests--;
+                nextCursors.put(accountCursor.accountName, accountCursor.nextSequenceNumber);
+
+                if (accountCursor.finished) {
+                    activeAccounts--;
+                } else {
+                    readyAccounts.add(accountCursor);
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("The account history crawler has been interrupted.");
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdownNow();
+            // Wait for the sink calls in progress and drop all later pages.
+            sinkGate.close();
+        }
+
+        return nextCursors;
+    }
+
+    /**
+     * Request the next page of an account and pass it to the sink.
+     */
+    private void requestPage(AccountCursor accountCursor, AccountHistorySink accountHistorySink,
+            SinkGate sinkGate) {
+        long pageStart = accountCursor.nextSequenceNumber;
+        AccountHistory accountHistory;
+        // The account is finished unless its page has been processed
+        // completely, so that a failing request or sink is never retried.
+        accountCursor.finished = true;
+
+        try {
+            accountHistory = accountHistorySource.getAccountHistory(accountCursor.accountName,
+                    (int) (pageStart + pageSize), pageSize);
+        } catch (Exception e) {
+            LOGGER.error("Could not request the history of {} at {}.", accountCursor.accountName, pageStart, e);
+            if (sinkGate.enter()) {
+                try {
+                    accountHistorySink.onError(accountCursor.accountName, e);
+                } finally {
+                    sinkGate.leave();
+                }
+            }
+            return;
+        }
+
+        if (!sinkGate.enter()) {
+            return;
+        }
+
+        try {
+            // The node returns the last entries if the page starts behind the
+            // end of the history, so drop the entries before the page start.
+            int firstIndex = accountHistory.findSequenceNumber(pageStart);
+            if (firstIndex < 0) {
+                firstIndex = -(firstIndex + 1);
+            }
+            AccountHistory page = accountHistory.subHistory(firstIndex, accountHistory.size());
+
+            if (page.size() > 0) {
+                accountHistorySink.onPage(accountCursor.accountName, page);
+                accountCursor.nextSequenceNumber = page.getSequenceNumber(page.size() - 1) + 1;
+            }
+
+            // A page with less entries marks the end of the history.
+            if (accountCursor.nextSequenceNumber <= pageStart + pageSize) {
+                accountHistorySink.onComplete(accountCursor.accountName);
+            } else {
+                accountCursor.finished = false;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("The sink failed to process the history of {} at {}.", accountCursor.accountName, pageStart,
+                    e);
+            accountCursor.finished = true;
+            accountHistorySink.onError(accountCursor.accountName, e);
+        } finally {
+            sinkGate.leave();
+        }
+    }
+
+    /**
+     * Guards the calls of the sink, so that the sink is not called anymore
+     * once the crawl returned. Sink calls can run at the same time, but
+     * closing the gate waits until all calls in progress have finished.
+     */
+    private static class SinkGate {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+
+        /**
+         * @return True if the sink can be called. In this case
+         *         {@link #leave()} has to be called afterwards.
+         */
+        private boolean enter() {
+            lock.readLock().lock();
+            if (closed) {
+                lock.readLock().unlock();
+                return false;
+            }
+
+            return true;
+        }
+
+        private void leave() {
+            lock.readLock().unlock();
+        }
+
+        private void close() {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * The position of the crawler in the history of an account. A cursor is
+     * only accessed by one thread at a time.
+     */
+    private static class AccountCursor {
+        private final String accountName;
+        private long nextSequenceNumber;
+        private boolean finished;
+
+        private AccountCursor(String accountName, long nextSequenceNumber) {
+            this.accountName = accountName;
+            this.nextSequenceNumber = nextSequenceNumber;
+        }
+    }
+}
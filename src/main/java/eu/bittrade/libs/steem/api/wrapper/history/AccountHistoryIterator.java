@@ -0,0 +1,215 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+import eu.bittrade.libs.steem.api.wrapper.util.PrefetchingPageIterator;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This iterator pages through the complete history of an account, either
+ * starting with the oldest or with the newest entry. The entries are returned
+ * together with their sequence number. The next page is requested in the
+ * background (@see PrefetchingPageIterator).
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryIterator extends PrefetchingPageIterator<Entry<Integer, AccountActivity>> {
+    /** The default number of entries requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    /** The sequence number used to start with the newest entry. */
+    public static final int NEWEST_ENTRY = -1;
+
+    /** The maximum number of pages requested at the same time by default. */
+    public static final int DEFAULT_PREFETCH_THREADS = 8;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = RequestUtil
+            .newDaemonThreadPool("account-history-prefetch", DEFAULT_PREFETCH_THREADS);
+
+    private final AccountHistorySource accountHistorySource;
+    private final String accountName;
+    private final boolean newestFirst;
+    private final int pageSize;
+    /** The sequence number the next page starts with. */
+    private int cursor;
+
+    /**
+     * Create an iterator over the complete history of an account that uses
+     * the default page size.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     * @param accountName
+     *            The name of the account.
+     * @param newestFirst
+     *            True to start with the newest entry, false to start with the
+     *            oldest entry.
+     */
+    public AccountHistoryIterator(SteemApiWrapper steemApiWrapper, String accountName, boolean newestFirst) {
+        this(steemApiWrapper, accountName, newestFirst ? NEWEST_ENTRY : 0, newestFirst, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create an iterator over the history of an account.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the history.
+     * @param accountName
+     *            The name of the account.
+     * @param startSequenceNumber
+     *            The sequence number of the first entry to return or
+     *            {@link #NEWEST_ENTRY} to start with the newest entry.
+     * @param newestFirst
+     *            True to iterate towards older entries, false to iterate
+     *            towards newer entries.
+     * @param pageSize
+     *            The number of entries requested at once.
+     */
+    public AccountHistoryIterator(SteemApiWrapper steemApiWrapper, String accountName, int startSequenceNumber,
+            boolean newestFirst, int pageSize) {
+        this(steemApiWrapper::getAccountHistoryPage, accountName, startSequenceNumber, newestFirst, pageSize);
+    }
+
+    /**
+     * Create an iterator over the history of an account that uses the shared
+     * prefetch pool.
+     *
+     * @param accountHistorySource
+     *            The source used to request the history.
+     * @param accountName
+     *            The name of the account.
+     * @param startSequenceNumber
+     *            The sequence number of the first entry to return or
+     *            {@link #NEWEST_ENTRY} to start with the newest entry.
+     * @param newestFirst
+     *            True to iterate towards older entries, false to iterate
+     *            towards newer entries.
+     * @param pageSize
+     *            The number of entries requested at once.
+     */
+    public AccountHistoryIterator(AccountHistorySource accountHistorySource, String accountName,
+            int startSequenceNumber, boolean newestFirst, int pageSize) {
+        this(accountHistorySource, accountName, startSequenceNumber, newestFirst, pageSize, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Create an iterator over the history of an account that requests the
+     * pages using the given executor. All iterators created without an
+     * executor share a pool of {@link #DEFAULT_PREFETCH_THREADS} threads, so
+     * applications that iterate over many histories at the same time should
+     * provide their own executor.
+     *
+     * @param accountHistorySource
+     *            The source used to request the history.
+     * @param accountName
+     *            The name of the account.
+     * @param startSequenceNumber
+     *            The sequence number of the first entry to return or
+     *            {@link #NEWEST_ENTRY} to start with the newest entry.
+     * @param newestFirst
+     *            True to iterate towards older entries, false to iterate
+     *            towards newer entries.
+     * @param pageSize
+     *            The number of entries requested at once.
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     */
+    public AccountHistoryIterator(AccountHistorySource accountHistorySource, String accountName,
+            int startSequenceNumber, boolean newestFirst, int pageSize, ExecutorService prefetchExecutor) {
+        super(prefetchExecutor, "the history of " + accountName);
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size has to be greater than 0.");
+        } else if (startSequenceNumber < 0 && (startSequenceNumber != NEWEST_ENTRY || !newestFirst)) {
+            throw new IllegalArgumentException("The start sequence number " + startSequenceNumber + " is not valid.");
+        }
+
+        this.accountHistorySource = accountHistorySource;
+        this.accountName = accountName;
+        this.newestFirst = newestFirst;
+        this.pageSize = pageSize;
+        this.cursor = startSequenceNumber;
+        requestPage();
+    }
+
+    @Override
+    protected List<Entry<Integer, AccountActivity>> onPage(List<Entry<Integer, AccountActivity>> page) {
+        if (hasMorePages(page)) {
+            requestPage();
+        }
+
+        return page;
+    }
+
+    @Override
+    protected int getCharacteristics() {
+        return super.getCharacteristics() | Spliterator.DISTINCT;
+    }
+
+    /**
+     * Check if there are more entries after the given page and move the
+     * cursor to the start of the next page.
+     */
+    private boolean hasMorePages(List<Entry<Integer, AccountActivity>> page) {
+        if (page.isEmpty()) {
+            return false;
+        }
+
+        int lastSequenceNumber = page.get(page.size() - 1).getKey();
+        if (newestFirst) {
+            cursor = lastSequenceNumber - 1;
+            return cursor >= 0;
+        }
+
+        // The node returns less entries if the end of the history has been
+        // reached.
+        boolean complete = lastSequenceNumber >= cursor + pageSize;
+        cursor = lastSequenceNumber + 1;
+        return complete;
+    }
+
+    private void requestPage() {
+        final int from;
+        final int limit;
+        final int pageStart = cursor;
+        if (newestFirst) {
+            from = pageStart;
+            // The node requires the limit to be lower than or equal to the
+            // start of the page.
+            limit = pageStart == NEWEST_ENTRY ? pageSize : Math.min(pageSize, pageStart);
+        } else {
+            from = pageStart + pageSize;
+            limit = pageSize;
+        }
+
+        prefetch(() -> {
+            AccountHistory accountHistory = accountHistorySource.getAccountHistory(accountName, from, limit);
+            List<Entry<Integer, AccountActivity>> page = new ArrayList<>(accountHistory.size());
+            // Drop the entries before the start of the page that are returned
+            // at the end of the history.
+            int firstIndex = 0;
+            if (!newestFirst) {
+                int index = accountHistory.findSequenceNumber(pageStart);
+                firstIndex = index >= 0 ? index : -(index + 1);
+            }
+
+            for (int i = firstIndex; i < accountHistory.size(); i++) {
+                page.add(new SimpleImmutableEntry<>((int) accountHistory.getSequenceNumber(i),
+                        accountHistory.getActivity(i)));
+            }
+
+            if (newestFirst) {
+                Collections.reverse(page);
+            }
+
+            return page;
+        });
+    }
+}
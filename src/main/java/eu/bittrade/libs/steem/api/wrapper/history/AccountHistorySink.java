@@ -0,0 +1,46 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+/**
+ * Receives the pages requested by an {@link AccountHistoryCrawler}.
+ *
+ * <p>
+ * <b>Notice:</b> The methods are called from several threads at the same
+ * time, but the calls for one account never overlap and the pages of one
+ * account are passed in sequence order.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public interface AccountHistorySink {
+    /**
+     * Called for every requested page.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @param page
+     *            The entries of the page ordered by their sequence number.
+     */
+    void onPage(String accountName, AccountHistory page);
+
+    /**
+     * Called when the end of the history of an account has been reached.
+     *
+     * @param accountName
+     *            The name of the account.
+     */
+    default void onComplete(String accountName) {
+        // Nothing to do by default.
+    }
+
+    /**
+     * Called if a page could not be requested. No further pages are requested
+     * for this account.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @param exception
+     *            The exception of the request.
+     */
+    default void onError(String accountName, Exception exception) {
+        // Nothing to do by default.
+    }
+}
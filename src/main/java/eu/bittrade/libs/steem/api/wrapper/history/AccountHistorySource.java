@@ -0,0 +1,41 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+
+/**
+ * The source of the account history pages requested by the classes of this
+ * package. Usually this is
+ * {@link SteemApiWrapper#getAccountHistoryPage(String, int, int)}.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+@FunctionalInterface
+public interface AccountHistorySource {
+    /**
+     * Request a page of the history of an account.
+     *
+     * @param accountName
+     *            The name of the account.
+     * @param from
+     *            The sequence number of the last entry of the page.
+     * @param limit
+     *            The number of entries before the last entry.
+     * @return The entries of the page.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    AccountHistory getAccountHistory(String accountName, int from, int limit)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+}
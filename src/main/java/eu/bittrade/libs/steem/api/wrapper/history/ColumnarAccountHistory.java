@@ -0,0 +1,382 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.configuration.SteemApiWrapperConfig;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+import eu.bittrade.libs.steem.api.wrapper.models.error.SteemError;
+import eu.bittrade.libs.steem.api.wrapper.storage.CodecDictionary;
+
+/**
+ * A compact, column oriented container for account history entries that is
+ * meant for analytics over many entries.
+ *
+ * <p>
+ * Every field is stored in its own primitive array, where the row index is
+ * the same for all columns. The operation type and the configured account
+ * fields (e.g. "from" and "to") are stored as ids of a dictionary. Rows can be
+ * added directly from a raw "get_account_history" response without creating
+ * {@link AccountActivity} objects.
+ *
+ * <p>
+ * The column arrays are returned without copying them, so that they can be
+ * scanned in tight loops. Only the first {@link #size()} entries of a column
+ * are valid and the arrays must not be modified. A column array is replaced
+ * when the container grows, so it has to be requested again after new rows
+ * have been added.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class ColumnarAccountHistory {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** The id used in the account columns if the field is not present. */
+    public static final int NO_ACCOUNT = -1;
+    /** The account fields that are stored by default. */
+    public static final String[] DEFAULT_ACCOUNT_FIELDS = { "from", "to", "voter", "author" };
+
+    private final String[] accountFields;
+    private final CodecDictionary operationTypeDictionary;
+    private final CodecDictionary accountNameDictionary;
+
+    private int size;
+    private long[] sequenceNumbers;
+    private long[] blocks;
+    private long[] timestamps;
+    private int[] transactionIndices;
+    private int[] operationIndices;
+    private int[] operationTypes;
+    private int[][] accounts;
+
+    /**
+     * Create an empty container that stores the default account fields.
+     */
+    public ColumnarAccountHistory() {
+        this(DEFAULT_ACCOUNT_FIELDS);
+    }
+
+    /**
+     * Create an empty container.
+     *
+     * @param accountFields
+     *            The names of the operation fields that should be stored as an
+     *            account column.
+     */
+    public ColumnarAccountHistory(String... accountFields) {
+        this.accountFields = accountFields.clone();
+        this.operationTypeDictionary = new CodecDictionary();
+        this.accountNameDictionary = new CodecDictionary();
+        this.sequenceNumbers = new long[INITIAL_CAPACITY];
+        this.blocks = new long[INITIAL_CAPACITY];
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.transactionIndices = new int[INITIAL_CAPACITY];
+        this.operationIndices = new int[INITIAL_CAPACITY];
+        this.operationTypes = new int[INITIAL_CAPACITY];
+        this.accounts = new int[accountFields.length][INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A stream of all row indices, which can be turned into a parallel
+     *         stream.
+     */
+    public IntStream rows() {
+        return IntStream.range(0, size);
+    }
+
+    public long[] getSequenceNumbers() {
+        return sequenceNumbers;
+    }
+
+    public long[] getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @return The timestamps in milliseconds since the epoch. The times of the
+     *         server are interpreted by the date format that has been used to
+     *         decode the entries.
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public int[] getTransactionIndices() {
+        return transactionIndices;
+    }
+
+    public int[] getOperationIndices() {
+        return operationIndices;
+    }
+
+    /**
+     * @return The operation type ids (@see #getOperationTypeId(String)).
+     */
+    public int[] getOperationTypes() {
+        return operationTypes;
+    }
+
+    /**
+     * Get an account column.
+     *
+     * @param accountField
+     *            One of the account fields of this container.
+     * @return The account name ids (@see #getAccountNameId(String)) or
+     *         {@link #NO_ACCOUNT} for operations without this field.
+     */
+    public int[] getAccounts(String accountField) {
+        for (int i = 0; i < accountFields.length; i++) {
+            if (accountFields[i].equals(accountField)) {
+                return accounts[i];
+            }
+        }
+
+        throw new IllegalArgumentException("The field '" + accountField + "' is not stored by this container.");
+    }
+
+    /**
+     * @param operationType
+     *            The type of an operation (e.g. "vote").
+     * @return The id of the operation type or -1 if no row has this type.
+     */
+    public int getOperationTypeId(String operationType) {
+        return operationTypeDictionary.getId(operationType);
+    }
+
+    /**
+     * @param operationTypeId
+     *            The id of an operation type.
+     * @return The operation type.
+     */
+    public String getOperationType(int operationTypeId) {
+        return operationTypeDictionary.get(operationTypeId);
+    }
+
+    /**
+     * @param accountName
+     *            The name of an account.
+     * @return The id of the account name or -1 if no row contains this
+     *         account.
+     */
+    public int getAccountNameId(String accountName) {
+        return accountNameDictionary.getId(accountName);
+    }
+
+    /**
+     * @param accountNameId
+     *            The id of an account name.
+     * @return The account name or null for {@link #NO_ACCOUNT}.
+     */
+    public String getAccountName(int accountNameId) {
+        return accountNameId == NO_ACCOUNT ? null : accountNameDictionary.get(accountNameId);
+    }
+
+    /**
+     * Add a single entry.
+     *
+     * @param sequenceNumber
+     *            The sequence number of the entry.
+     * @param accountActivity
+     *            The entry.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void add(long sequenceNumber, AccountActivity accountActivity) {
+        int row = newRow();
+        sequenceNumbers[row] = sequenceNumber;
+        blocks[row] = accountActivity.getBlock();
+        timestamps[row] = accountActivity.getTimestamp() == null ? 0 : accountActivity.getTimestamp().getTime();
+        transactionIndices[row] = accountActivity.getTrxInBlock();
+        operationIndices[row] = accountActivity.getOpInTrx();
+
+        Object[] operation = accountActivity.getOp();
+        operationTypes[row] = operationTypeDictionary.add((String) operation[0]);
+        Map<String, Object> operationFields = (Map<String, Object>) operation[1];
+        for (int column = 0; column < accountFields.length; column++) {
+            Object accountName = operationFields.get(accountFields[column]);
+            accounts[column][row] = accountName instanceof String ? accountNameDictionary.add((String) accountName)
+                    : NO_ACCOUNT;
+        }
+    }
+
+    /**
+     * Add all entries of a raw "get_account_history" response and parse their
+     * times with the default date format of the {@link SteemApiWrapperConfig}.
+     *
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return The number of added rows.
+     * @throws SteemTransformationException
+     *             If the response could not be parsed.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public int addAll(String rawJsonResponse) throws SteemTransformationException, SteemResponseError {
+        return addAll(rawJsonResponse, SteemApiWrapperConfig.createDefaultDateTimeFormat());
+    }
+
+    /**
+     * Add all entries of a raw "get_account_history" response. The response
+     * is decoded with a streaming parser directly into the columns. To get the
+     * same timestamps as {@link #add(long, AccountActivity)}, the date format
+     * has to be the one used to decode the {@link AccountActivity} objects,
+     * which is the configured format of the wrapper.
+     *
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @param dateTimeFormat
+     *            The date format used to parse the times of the server.
+     * @return The number of added rows.
+     * @throws SteemTransformationException
+     *             If the response could not be parsed.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public synchronized int addAll(String rawJsonResponse, DateFormat dateTimeFormat)
+            throws SteemTransformationException, SteemResponseError {
+        int previousSize = size;
+        // Date formats are not thread safe, but the given one may be shared.
+        DateFormat timestampFormat = (DateFormat) dateTimeFormat.clone();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(rawJsonResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SteemTransformationException("The response is not a JSON object.");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("result".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    // Every entry is a [sequence number, activity] pair.
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        parser.nextToken();
+                        long sequenceNumber = parser.getLongValue();
+                        parser.nextToken();
+                        addActivity(parser, sequenceNumber, timestampFormat);
+                        parser.nextToken();
+                    }
+                } else if ("error".equals(fieldName)) {
+                    size = previousSize;
+                    try {
+                        throw new SteemResponseError(MAPPER.readValue(rawJsonResponse, SteemError.class));
+                    } catch (IOException e) {
+                        throw new SteemTransformationException("Could not transform the response into an object.",
+                                e);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | ParseException | RuntimeException e) {
+            size = previousSize;
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
+        }
+
+        return size - previousSize;
+    }
+
+    private void addActivity(JsonParser parser, long sequenceNumber, DateFormat timestampFormat)
+            throws IOException, ParseException {
+        int row = newRow();
+        sequenceNumbers[row] = sequenceNumber;
+        for (int column = 0; column < accountFields.length; column++) {
+            accounts[column][row] = NO_ACCOUNT;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+            case "block":
+                blocks[row] = parser.getLongValue();
+                break;
+            case "trx_in_block":
+                transactionIndices[row] = parser.getIntValue();
+                break;
+            case "op_in_trx":
+                operationIndices[row] = parser.getIntValue();
+                break;
+            case "timestamp":
+                timestamps[row] = timestampFormat.parse(parser.getText()).getTime();
+                break;
+            case "op":
+                addOperation(parser, row);
+                break;
+            default:
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void addOperation(JsonParser parser, int row) throws IOException {
+        parser.nextToken();
+        operationTypes[row] = operationTypeDictionary.add(parser.getText());
+        parser.nextToken();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            int column = indexOfAccountField(fieldName);
+            if (column >= 0 && value == JsonToken.VALUE_STRING) {
+                accounts[column][row] = accountNameDictionary.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        // The end of the operation array.
+        parser.nextToken();
+    }
+
+    private int indexOfAccountField(String fieldName) {
+        for (int i = 0; i < accountFields.length; i++) {
+            if (accountFields[i].equals(fieldName)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Reserve a new row and grow the columns if needed.
+     */
+    private int newRow() {
+        if (size == sequenceNumbers.length) {
+            int capacity = sequenceNumbers.length * 2;
+            sequenceNumbers = Arrays.copyOf(sequenceNumbers, capacity);
+            blocks = Arrays.copyOf(blocks, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            transactionIndices = Arrays.copyOf(transactionIndices, capacity);
+            operationIndices = Arrays.copyOf(operationIndices, capacity);
+            operationTypes = Arrays.copyOf(operationTypes, capacity);
+            for (int column = 0; column < accounts.length; column++) {
+                accounts[column] = Arrays.copyOf(accounts[column], capacity);
+            }
+        }
+
+        return size++;
+    }
+}
@@ -0,0 +1,94 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Describes how a price level of the order book has changed between two
+ * polls. The amounts of a level are the sums of all orders with this price.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class OrderBookChange {
+    /**
+     * The kind of the change.
+     */
+    public enum Type {
+        /** A new price level appeared. */
+        ADDED,
+        /** A price level disappeared. */
+        REMOVED,
+        /** The amounts of an existing price level have changed. */
+        CHANGED
+    }
+
+    private final Type type;
+    private final OrderBookSide side;
+    private final long price;
+    private final long previousSteem;
+    private final long previousSbd;
+    private final long steem;
+    private final long sbd;
+
+    /**
+     * Create a new change.
+     * 
+     * @param type
+     *            The kind of the change.
+     * @param side
+     *            The side of the order book.
+     * @param price
+     *            The price of the level as a fixed point number (@see
+     *            PriceLevels#PRICE_SCALE).
+     * @param previousSteem
+     *            The STEEM amount before the change (0 for added levels).
+     * @param previousSbd
+     *            The SBD amount before the change (0 for added levels).
+     * @param steem
+     *            The STEEM amount after the change (0 for removed levels).
+     * @param sbd
+     *            The SBD amount after the change (0 for removed levels).
+     */
+    public OrderBookChange(Type type, OrderBookSide side, long price, long previousSteem, long previousSbd,
+            long steem, long sbd) {
+        this.type = type;
+        this.side = side;
+        this.price = price;
+        this.previousSteem = previousSteem;
+        this.previousSbd = previousSbd;
+        this.steem = steem;
+        this.sbd = sbd;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public OrderBookSide getSide() {
+        return side;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getPreviousSteem() {
+        return previousSteem;
+    }
+
+    public long getPreviousSbd() {
+        return previousSbd;
+    }
+
+    public long getSteem() {
+        return steem;
+    }
+
+    public long getSbd() {
+        return sbd;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -0,0 +1,20 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+import java.util.List;
+
+/**
+ * Receives the changes detected by an {@link OrderBookTracker}.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+@FunctionalInterface
+public interface OrderBookListener {
+    /**
+     * Called once per poll if at least one price level has changed.
+     * 
+     * @param changes
+     *            The changes of the bids (by descending price) followed by the
+     *            changes of the asks (by ascending price).
+     */
+    void onChanges(List<OrderBookChange> changes);
+}
@@ -0,0 +1,13 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+/**
+ * The two sides of the order book.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public enum OrderBookSide {
+    /** The buy orders, sorted by their price in descending order. */
+    BID,
+    /** The sell orders, sorted by their price in ascending order. */
+    ASK
+}
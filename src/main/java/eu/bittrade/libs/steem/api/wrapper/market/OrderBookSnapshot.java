@@ -0,0 +1,49 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+/**
+ * An immutable snapshot of both sides of the order book, which have been
+ * taken from the same response of the node.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class OrderBookSnapshot {
+    private static final OrderBookSnapshot EMPTY = new OrderBookSnapshot(PriceLevels.empty(OrderBookSide.BID),
+            PriceLevels.empty(OrderBookSide.ASK));
+
+    private final PriceLevels bids;
+    private final PriceLevels asks;
+
+    /**
+     * Create a new snapshot.
+     * 
+     * @param bids
+     *            The buy orders.
+     * @param asks
+     *            The sell orders.
+     */
+    public OrderBookSnapshot(PriceLevels bids, PriceLevels asks) {
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    /**
+     * @return A snapshot without any price level.
+     */
+    public static OrderBookSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return The buy orders.
+     */
+    public PriceLevels getBids() {
+        return bids;
+    }
+
+    /**
+     * @return The sell orders.
+     */
+    public PriceLevels getAsks() {
+        return asks;
+    }
+}
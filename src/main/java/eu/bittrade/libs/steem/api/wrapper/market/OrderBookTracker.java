@@ -0,0 +1,201 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.MarketOrder;
+import eu.bittrade.libs.steem.api.wrapper.models.OrderBook;
+
+/**
+ * Keeps a local copy of the order book and polls the node for updates in the
+ * background. Every new order book is compared with the previous one and the
+ * changed price levels are passed to the registered listeners.
+ *
+ * <p>
+ * Readers get the latest snapshot of both sides without locking. Both sides
+ * are published together, so a snapshot never mixes the bids of one poll with
+ * the asks of another poll.
+ *
+ * <p>
+ * <b>Notice:</b> The node only returns the best orders of each side up to the
+ * limit. A price level that only moves into or out of this window is not
+ * reported as a change, and neither is the level at the edge of the window,
+ * which may be incomplete (see {@link PriceLevels#diff(PriceLevels, List)}).
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class OrderBookTracker implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(OrderBookTracker.class);
+
+    /** The default time between two polls in milliseconds. */
+    public static final long DEFAULT_POLL_INTERVAL = 3000;
+    /** The default number of orders requested per side. */
+    public static final int DEFAULT_LIMIT = 100;
+
+    private final SteemApiWrapper steemApiWrapper;
+    private final int limit;
+    private final long pollInterval;
+    private final List<OrderBookListener> listeners;
+    private final ScheduledExecutorService scheduler;
+    private volatile OrderBookSnapshot snapshot;
+
+    /**
+     * Create a new tracker that uses the default limit and poll interval. The
+     * tracker does not poll the order book before {@link #start()} has been
+     * called.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the order book.
+     */
+    public OrderBookTracker(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_LIMIT, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * Create a new tracker. The tracker does not poll the order book before
+     * {@link #start()} has been called.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the order book.
+     * @param limit
+     *            The number of orders requested per side.
+     * @param pollInterval
+     *            The time between two polls in milliseconds.
+     */
+    public OrderBookTracker(SteemApiWrapper steemApiWrapper, int limit, long pollInterval) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit has to be greater than 0.");
+        } else if (pollInterval <= 0) {
+            throw new IllegalArgumentException("The poll interval has to be greater than 0.");
+        }
+
+        this.steemApiWrapper = steemApiWrapper;
+        this.limit = limit;
+        this.pollInterval = pollInterval;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-book-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshot = OrderBookSnapshot.empty();
+    }
+
+    /**
+     * @param orderBookListener
+     *            The listener to notify about changes.
+     */
+    public void addListener(OrderBookListener orderBookListener) {
+        listeners.add(orderBookListener);
+    }
+
+    /**
+     * @param orderBookListener
+     *            The listener to remove.
+     */
+    public void removeListener(OrderBookListener orderBookListener) {
+        listeners.remove(orderBookListener);
+    }
+
+    /**
+     * Start polling the order book in the background.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling the order book.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return The latest snapshot of both sides.
+     */
+    public OrderBookSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return The buy orders of the latest snapshot. Use
+     *         {@link #getSnapshot()} to get both sides of the same poll.
+     */
+    public PriceLevels getBids() {
+        return snapshot.getBids();
+    }
+
+    /**
+     * @return The sell orders of the latest snapshot. Use
+     *         {@link #getSnapshot()} to get both sides of the same poll.
+     */
+    public PriceLevels getAsks() {
+        return snapshot.getAsks();
+    }
+
+    /**
+     * Replace the local copy with the given order book and notify the
+     * listeners about the changed price levels. This is called for every poll,
+     * but can also be used to feed order books that have been requested
+     * elsewhere.
+     *
+     * @param orderBook
+     *            The new order book, which has been requested with the limit
+     *            of this tracker.
+     * @return The changes compared to the previous order book.
+     */
+    public synchronized List<OrderBookChange> update(OrderBook orderBook) {
+        PriceLevels updatedBids = PriceLevels.of(OrderBookSide.BID, orderBook.getBids(),
+                isTruncated(orderBook.getBids()));
+        PriceLevels updatedAsks = PriceLevels.of(OrderBookSide.ASK, orderBook.getAsks(),
+                isTruncated(orderBook.getAsks()));
+
+        OrderBookSnapshot previousSnapshot = snapshot;
+        List<OrderBookChange> changes = new ArrayList<>();
+        updatedBids.diff(previousSnapshot.getBids(), changes);
+        updatedAsks.diff(previousSnapshot.getAsks(), changes);
+
+        snapshot = new OrderBookSnapshot(updatedBids, updatedAsks);
+
+        if (!changes.isEmpty()) {
+            List<OrderBookChange> unmodifiableChanges = Collections.unmodifiableList(changes);
+            for (OrderBookListener orderBookListener : listeners) {
+                orderBookListener.onChanges(unmodifiableChanges);
+            }
+        }
+
+        return changes;
+    }
+
+    private boolean isTruncated(List<MarketOrder> marketOrders) {
+        return marketOrders != null && marketOrders.size() >= limit;
+    }
+
+    private void poll() {
+        try {
+            update(steemApiWrapper.getOrderBook(limit));
+        } catch (SteemTimeoutException | SteemConnectionException | SteemTransformationException
+                | SteemResponseError e) {
+            LOGGER.warn("Could not request the order book.", e);
+        } catch (RuntimeException e) {
+            // Keep polling, even if a listener failed.
+            LOGGER.error("Could not update the order book.", e);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+import eu.bittrade.libs.steem.api.wrapper.market.OrderBookChange.Type;
+import eu.bittrade.libs.steem.api.wrapper.models.MarketOrder;
+
+/**
+ * An immutable snapshot of one side of the order book. The orders are
+ * aggregated by their price and stored in sorted primitive arrays, so that
+ * two snapshots can be compared in a single pass.
+ *
+ * <p>
+ * The node only returns a limited number of orders per side. A snapshot that
+ * has been cut off by this limit is marked as truncated, as it does not know
+ * the levels behind its worst price. Its worst level itself may be incomplete,
+ * as the limit can split the orders of one price.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class PriceLevels {
+    /** The number of decimal places of the fixed point prices. */
+    public static final int PRICE_SCALE = 8;
+
+    private static final PriceLevels[] EMPTY = {
+            new PriceLevels(OrderBookSide.BID, new long[0], new long[0], new long[0], 0, false),
+            new PriceLevels(OrderBookSide.ASK, new long[0], new long[0], new long[0], 0, false) };
+
+    private final OrderBookSide side;
+    private final long[] prices;
+    private final long[] steem;
+    private final long[] sbd;
+    private final int size;
+    private final boolean truncated;
+
+    private PriceLevels(OrderBookSide side, long[] prices, long[] steem, long[] sbd, int size, boolean truncated) {
+        this.side = side;
+        this.prices = prices;
+        this.steem = steem;
+        this.sbd = sbd;
+        this.size = size;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @param side
+     *            The side of the order book.
+     * @return A snapshot without any price level.
+     */
+    public static PriceLevels empty(OrderBookSide side) {
+        return EMPTY[side.ordinal()];
+    }
+
+    /**
+     * Create a snapshot from all orders of a side.
+     * 
+     * @param side
+     *            The side of the order book.
+     * @param marketOrders
+     *            The orders of this side.
+     * @return The aggregated price levels.
+     */
+    public static PriceLevels of(OrderBookSide side, List<MarketOrder> marketOrders) {
+        return of(side, marketOrders, false);
+    }
+
+    /**
+     * Create a snapshot from the orders returned by the node.
+     * 
+     * @param side
+     *            The side of the order book.
+     * @param marketOrders
+     *            The orders of this side.
+     * @param truncated
+     *            True if the node may have left out orders behind the worst
+     *            price, because the number of orders reached the requested
+     *            limit.
+     * @return The aggregated price levels.
+     */
+    public static PriceLevels of(OrderBookSide side, List<MarketOrder> marketOrders, boolean truncated) {
+        int numberOfOrders = marketOrders == null ? 0 : marketOrders.size();
+        long[] orderPrices = new long[numberOfOrders];
+        Integer[] order = new Integer[numberOfOrders];
+        for (int i = 0; i < numberOfOrders; i++) {
+            orderPrices[i] = toFixedPoint(marketOrders.get(i).getRealPrice());
+            order[i] = i;
+        }
+
+        // The best price comes first: The highest bid and the lowest ask.
+        Arrays.sort(order, (first, second) -> side == OrderBookSide.BID
+                ? Long.compare(orderPrices[second], orderPrices[first])
+                : Long.compare(orderPrices[first], orderPrices[second]));
+
+        long[] prices = new long[numberOfOrders];
+        long[] steem = new long[numberOfOrders];
+        long[] sbd = new long[numberOfOrders];
+        int size = 0;
+        for (int index : order) {
+            MarketOrder marketOrder = marketOrders.get(index);
+            if (size == 0 || prices[size - 1] != orderPrices[index]) {
+                prices[size++] = orderPrices[index];
+            }
+
+            steem[size - 1] += marketOrder.getSteem();
+            sbd[size - 1] += marketOrder.getSdb();
+        }
+
+        return new PriceLevels(side, prices, steem, sbd, size, truncated);
+    }
+
+    /**
+     * Convert a decimal price into a fixed point number with
+     * {@link #PRICE_SCALE} decimal places.
+     * 
+     * @param price
+     *            The decimal price (e.g. "0.26800000000000002").
+     * @return The fixed point price (e.g. 26800000).
+     */
+    public static long toFixedPoint(String price) {
+        return new BigDecimal(price).setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Compare this snapshot with an older snapshot of the same side.
+     *
+     * <p>
+     * If one of the snapshots is truncated, only the price range that is
+     * completely covered by both snapshots is compared: Levels behind the
+     * worst price of a truncated snapshot have only moved into or out of the
+     * returned window and are not reported as added or removed. Levels at this
+     * price are not reported either, as the limit may have cut off some of
+     * their orders.
+     * 
+     * @param previous
+     *            The older snapshot.
+     * @param changes
+     *            The list to add the changes to, ordered like the price
+     *            levels.
+     */
+    public void diff(PriceLevels previous, List<OrderBookChange> changes) {
+        boolean bounded = false;
+        long bound = 0;
+        for (PriceLevels priceLevels : new PriceLevels[] { this, previous }) {
+            if (priceLevels.truncated && priceLevels.size > 0) {
+                long worstPrice = priceLevels.prices[priceLevels.size - 1];
+                if (!bounded || isWorse(bound, worstPrice)) {
+                    bound = worstPrice;
+                }
+                bounded = true;
+            }
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < size || j < previous.size) {
+            int comparison;
+            if (i == size) {
+                comparison = 1;
+            } else if (j == previous.size) {
+                comparison = -1;
+            } else {
+                comparison = Long.compare(prices[i], previous.prices[j]);
+                if (side == OrderBookSide.BID) {
+                    comparison = -comparison;
+                }
+            }
+
+            if (comparison < 0) {
+                if (!bounded || isWorse(bound, prices[i])) {
+                    changes.add(new OrderBookChange(Type.ADDED, side, prices[i], 0, 0, steem[i], sbd[i]));
+                }
+                i++;
+            } else if (comparison > 0) {
+                if (!bounded || isWorse(bound, previous.prices[j])) {
+                    changes.add(new OrderBookChange(Type.REMOVED, side, previous.prices[j], previous.steem[j],
+                            previous.sbd[j], 0, 0));
+                }
+                j++;
+            } else {
+                if ((!bounded || isWorse(bound, prices[i]))
+                        && (steem[i] != previous.steem[j] || sbd[i] != previous.sbd[j])) {
+                    changes.add(new OrderBookChange(Type.CHANGED, side, prices[i], previous.steem[j],
+                            previous.sbd[j], steem[i], sbd[i]));
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    public OrderBookSide getSide() {
+        return side;
+    }
+
+    /**
+     * @return True if the node may have left out levels behind the worst
+     *         price of this snapshot.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return The number of price levels.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param level
+     *            The index of the level, 0 is the best price.
+     * @return The fixed point price of the level.
+     */
+    public long getPrice(int level) {
+        checkLevel(level);
+        return prices[level];
+    }
+
+    /**
+     * @param level
+     *            The index of the level, 0 is the best price.
+     * @return The STEEM amount of all orders of the level.
+     */
+    public long getSteem(int level) {
+        checkLevel(level);
+        return steem[level];
+    }
+
+    /**
+     * @param level
+     *            The index of the level, 0 is the best price.
+     * @return The SBD amount of all orders of the level.
+     */
+    public long getSbd(int level) {
+        checkLevel(level);
+        return sbd[level];
+    }
+
+    /**
+     * @return True if the first price is worse than the second price on this
+     *         side.
+     */
+    private boolean isWorse(long price, long otherPrice) {
+        return side == OrderBookSide.BID ? price < otherPrice : price > otherPrice;
+    }
+
+    private void checkLevel(int level) {
+        if (level < 0 || level >= size) {
+            throw new IndexOutOfBoundsException("The level " + level + " does not exist.");
+        }
+    }
+}
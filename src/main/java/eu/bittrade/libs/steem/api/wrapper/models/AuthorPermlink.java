@@ -0,0 +1,57 @@
+package eu.bittrade.libs.steem.api.wrapper.models;
+
+import java.util.Objects;
+
+/**
+ * Identifies a post or a comment by its author and its permlink.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class AuthorPermlink {
+    private final String author;
+    private final String permlink;
+
+    /**
+     * Create a new identifier.
+     * 
+     * @param author
+     *            The author of the post or comment.
+     * @param permlink
+     *            The permlink of the post or comment.
+     */
+    public AuthorPermlink(String author, String permlink) {
+        this.author = author;
+        this.permlink = permlink;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPermlink() {
+        return permlink;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof AuthorPermlink)) {
+            return false;
+        }
+
+        AuthorPermlink otherAuthorPermlink = (AuthorPermlink) other;
+        return Objects.equals(author, otherAuthorPermlink.author)
+                && Objects.equals(permlink, otherAuthorPermlink.permlink);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(author, permlink);
+    }
+
+    @Override
+    public String toString() {
+        return "@" + author + "/" + permlink;
+    }
+}
@@ -19,6 +19,31 @@ public class Block extends BlockHeader {
         this.transactions = transactions;
     }
 
+    /**
+     * Create a block from its fields.
+     * 
+     * @param previous
+     *            The id of the previous block.
+     * @param timestamp
+     *            The time this block has been produced.
+     * @param witness
+     *            The witness that produced this block.
+     * @param transactionMerkleRoot
+     *            The merkle root of the transactions.
+     * @param extensions
+     *            The block extensions.
+     * @param witnessSignature
+     *            The signature of the witness.
+     * @param transactions
+     *            The transactions of this block.
+     */
+    public Block(String previous, String timestamp, String witness, String transactionMerkleRoot,
+            Object[] extensions, String witnessSignature, List<Transaction> transactions) {
+        super(previous, timestamp, witness, transactionMerkleRoot, extensions);
+        this.witnessSignature = witnessSignature;
+        this.transactions = transactions;
+    }
+
     public String getWitnessSignature() {
         return witnessSignature;
     }
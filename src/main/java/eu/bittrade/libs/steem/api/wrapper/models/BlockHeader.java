@@ -16,6 +16,36 @@ public class BlockHeader {
     // TODO: Look up how this object looks like.
     private Object[] extensions;
 
+    /**
+     * Create an empty block header. This constructor is used by Jackson.
+     */
+    public BlockHeader() {
+        super();
+    }
+
+    /**
+     * Create a block header from its fields.
+     * 
+     * @param previous
+     *            The id of the previous block.
+     * @param timestamp
+     *            The time this block has been produced.
+     * @param witness
+     *            The witness that produced this block.
+     * @param transactionMerkleRoot
+     *            The merkle root of the transactions.
+     * @param extensions
+     *            The block extensions.
+     */
+    public BlockHeader(String previous, String timestamp, String witness, String transactionMerkleRoot,
+            Object[] extensions) {
+        this.previous = previous;
+        this.timestamp = timestamp;
+        this.witness = witness;
+        this.transactionMerkleRoot = transactionMerkleRoot;
+        this.extensions = extensions;
+    }
+
     public String getPrevious() {
         return previous;
     }
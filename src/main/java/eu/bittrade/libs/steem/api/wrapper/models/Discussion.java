@@ -260,10 +260,26 @@ public class Discussion {
         return activeVotes;
     }
 
+    /**
+     * @param activeVotes
+     *            The active votes of this discussion.
+     */
+    public void setActiveVotes(List<ActiveVote> activeVotes) {
+        this.activeVotes = activeVotes;
+    }
+
     public List<Discussion> getReplies() {
         return replies;
     }
 
+    /**
+     * @param replies
+     *            The direct replies to this discussion.
+     */
+    public void setReplies(List<Discussion> replies) {
+        this.replies = replies;
+    }
+
     public String getAuthorReputation() {
         return authorReputation;
     }
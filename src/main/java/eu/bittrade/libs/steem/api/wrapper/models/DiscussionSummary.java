@@ -0,0 +1,117 @@
+package eu.bittrade.libs.steem.api.wrapper.models;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A compact version of a {@link Discussion} that only contains the fields
+ * required to show the discussion in a listing. The body, the metadata and the
+ * votes are not part of this object.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DiscussionSummary {
+    private long id;
+    @JsonProperty("author")
+    private String author;
+    @JsonProperty("permlink")
+    private String permlink;
+    @JsonProperty("category")
+    private String category;
+    @JsonProperty("parent_author")
+    private String parentAuthor;
+    @JsonProperty("parent_permlink")
+    private String parentPermlink;
+    @JsonProperty("title")
+    private String title;
+    @JsonProperty("created")
+    private String created;
+    @JsonProperty("last_update")
+    private String lastUpdate;
+    @JsonProperty("depth")
+    private int depth;
+    @JsonProperty("children")
+    private int children;
+    @JsonProperty("net_votes")
+    private int netVotes;
+    @JsonProperty("url")
+    private String url;
+    @JsonProperty("pending_payout_value")
+    private String pendingPayoutValue;
+    @JsonProperty("total_payout_value")
+    private String totalPayoutValue;
+    @JsonProperty("author_reputation")
+    private String authorReputation;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPermlink() {
+        return permlink;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getParentAuthor() {
+        return parentAuthor;
+    }
+
+    public String getParentPermlink() {
+        return parentPermlink;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCreated() {
+        return created;
+    }
+
+    public String getLastUpdate() {
+        return lastUpdate;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getChildren() {
+        return children;
+    }
+
+    public int getNetVotes() {
+        return netVotes;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPendingPayoutValue() {
+        return pendingPayoutValue;
+    }
+
+    public String getTotalPayoutValue() {
+        return totalPayoutValue;
+    }
+
+    public String getAuthorReputation() {
+        return authorReputation;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
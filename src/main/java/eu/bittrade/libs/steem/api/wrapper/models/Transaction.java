@@ -19,6 +19,39 @@ public class Transaction {
     private Object[] extensions;
     private Object[] signatures;
 
+    /**
+     * Create an empty transaction. This constructor is used by Jackson.
+     */
+    public Transaction() {
+        super();
+    }
+
+    /**
+     * Create a transaction from its fields.
+     * 
+     * @param refBlockNum
+     *            The reference block number.
+     * @param refBlockPrefix
+     *            The reference block prefix.
+     * @param expiration
+     *            The expiration time of this transaction.
+     * @param operations
+     *            The operations of this transaction.
+     * @param extensions
+     *            The transaction extensions.
+     * @param signatures
+     *            The signatures of this transaction.
+     */
+    public Transaction(long refBlockNum, long refBlockPrefix, String expiration, Object[] operations,
+            Object[] extensions, Object[] signatures) {
+        this.refBlockNum = refBlockNum;
+        this.refBlockPrefix = refBlockPrefix;
+        this.expiration = expiration;
+        this.operations = operations;
+        this.extensions = extensions;
+        this.signatures = signatures;
+    }
+
     public long getRefBlockNum() {
         return refBlockNum;
     }
@@ -0,0 +1,324 @@
+package eu.bittrade.libs.steem.api.wrapper.scanning;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This iterator enumerates the names of all accounts in alphabetical order.
+ *
+ * <p>
+ * The names are split into partitions by their prefix ("a", "b", ...), which
+ * are requested in parallel using "lookup_accounts". As the partitions are
+ * consumed in the order of their prefixes, the names are still returned in
+ * sorted order. Every partition buffers only a few pages, so a partition that
+ * runs ahead of the consumer waits until its pages have been consumed.
+ *
+ * <p>
+ * <b>Notice:</b> As the {@link Iterator} interface does not allow checked
+ * exceptions, request errors are thrown as {@link SteemIterationException}
+ * which carries the original exception as its cause. If the iteration is
+ * stopped early, the iterator has to be closed to stop the background
+ * threads.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountNameIterator implements Iterator<String>, Closeable {
+    /** The default number of names requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+    /** The default number of partitions requested at the same time. */
+    public static final int DEFAULT_PARALLELISM = 4;
+    /** The default length of the prefixes used to split the names. */
+    public static final int DEFAULT_PREFIX_LENGTH = 1;
+    /**
+     * The maximum length of the prefixes. Account names have at least three
+     * characters, so no name is shorter than a prefix of this length and
+     * every name belongs to a partition.
+     */
+    public static final int MAXIMUM_PREFIX_LENGTH = 3;
+
+    /** Account names always start with a letter. */
+    private static final String FIRST_CHARACTERS = "abcdefghijklmnopqrstuvwxyz";
+    /** The other characters of an account name, in their sort order. */
+    private static final String OTHER_CHARACTERS = "-.0123456789abcdefghijklmnopqrstuvwxyz";
+    /** The number of pages a partition buffers. */
+    private static final int BUFFERED_PAGES = 4;
+
+    private final AccountNameSource accountNameSource;
+    private final int pageSize;
+    private final ExecutorService executorService;
+    private final Iterator<Partition> partitions;
+    private Partition currentPartition;
+    private Iterator<String> currentPage;
+
+    /**
+     * Create an iterator over all account names that uses the default
+     * settings.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the account names.
+     */
+    public AccountNameIterator(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_PAGE_SIZE, DEFAULT_PARALLELISM, DEFAULT_PREFIX_LENGTH);
+    }
+
+    /**
+     * Create an iterator over all account names.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the account names.
+     * @param pageSize
+     *            The number of names requested at once.
+     * @param parallelism
+     *            The number of partitions requested at the same time.
+     * @param prefixLength
+     *            The length of the prefixes used to split the names. A longer
+     *            prefix creates more, but smaller partitions (26 partitions
+     *            for a length of 1, 988 partitions for a length of 2). The
+     *            length must not exceed {@link #MAXIMUM_PREFIX_LENGTH}.
+     */
+    public AccountNameIterator(SteemApiWrapper steemApiWrapper, int pageSize, int parallelism, int prefixLength) {
+        this(steemApiWrapper::lookupAccounts, pageSize, parallelism, prefixLength);
+    }
+
+    /**
+     * Create an iterator over all account names that requests the names from
+     * the given source.
+     *
+     * @param accountNameSource
+     *            The source used to request the account names.
+     * @param pageSize
+     *            The number of names requested at once.
+     * @param parallelism
+     *            The number of partitions requested at the same time.
+     * @param prefixLength
+     *            The length of the prefixes used to split the names, which
+     *            must not exceed {@link #MAXIMUM_PREFIX_LENGTH}.
+     */
+    public AccountNameIterator(AccountNameSource accountNameSource, int pageSize, int parallelism,
+            int prefixLength) {
+        if (pageSize <= 1) {
+            throw new IllegalArgumentException("The page size has to be greater than 1.");
+        } else if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism has to be greater than 0.");
+        } else if (prefixLength <= 0 || prefixLength > MAXIMUM_PREFIX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "The prefix length has to be between 1 and " + MAXIMUM_PREFIX_LENGTH + ".");
+        }
+
+        this.accountNameSource = accountNameSource;
+        this.pageSize = pageSize;
+        this.executorService = RequestUtil.newDaemonThreadPool("account-name-scan", parallelism);
+
+        List<Partition> partitionList = new ArrayList<>();
+        for (String prefix : createPrefixes(prefixLength)) {
+            Partition partition = new Partition(prefix);
+            partitionList.add(partition);
+            // The partitions are started in the order they are consumed.
+            executorService.execute(partition);
+        }
+
+        this.partitions = partitionList.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentPage == null || !currentPage.hasNext()) {
+            if (currentPartition == null) {
+                if (!partitions.hasNext()) {
+                    close();
+                    return false;
+                }
+
+                currentPartition = partitions.next();
+            }
+
+            Page page = currentPartition.take();
+            if (page.error != null) {
+                close();
+                throw new SteemIterationException(
+                        "Could not request the accounts starting with " + currentPartition.prefix + ".", page.error);
+            }
+
+            currentPage = page.accountNames.iterator();
+            if (page.last) {
+                currentPartition = null;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return currentPage.next();
+    }
+
+    /**
+     * @return A sequential stream over the remaining account names.
+     */
+    public Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stop the background threads.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Create all prefixes of the given length in their sort order.
+     *
+     * @param prefixLength
+     *            The length of the prefixes.
+     * @return The sorted prefixes.
+     */
+    static List<String> createPrefixes(int prefixLength) {
+        List<String> prefixes = new ArrayList<>();
+        for (char character : FIRST_CHARACTERS.toCharArray()) {
+            prefixes.add(String.valueOf(character));
+        }
+
+        for (int length = 1; length < prefixLength; length++) {
+            List<String> longerPrefixes = new ArrayList<>(prefixes.size() * OTHER_CHARACTERS.length());
+            for (String prefix : prefixes) {
+                for (char character : OTHER_CHARACTERS.toCharArray()) {
+                    longerPrefixes.add(prefix + character);
+                }
+            }
+
+            prefixes = longerPrefixes;
+        }
+
+        return prefixes;
+    }
+
+    /**
+     * A page of account names of a partition.
+     */
+    private static final class Page {
+        private final List<String> accountNames;
+        private final boolean last;
+        private final Throwable error;
+
+        private Page(List<String> accountNames, boolean last, Throwable error) {
+            this.accountNames = accountNames;
+            this.last = last;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Requests all account names that start with a prefix.
+     */
+    private final class Partition implements Runnable {
+        private final String prefix;
+        private final BlockingQueue<Page> pages;
+
+        private Partition(String prefix) {
+            this.prefix = prefix;
+            this.pages = new ArrayBlockingQueue<>(BUFFERED_PAGES);
+        }
+
+        @Override
+        public void run() {
+            try {
+                String lowerBound = prefix;
+                boolean firstPage = true;
+                boolean last = false;
+
+                while (!last) {
+                    List<String> response = accountNameSource.lookupAccounts(lowerBound, pageSize);
+                    List<String> accountNames = new ArrayList<>(response.size());
+                    for (String accountName : response) {
+                        // Every page after the first one starts with the last
+                        // name of the previous page.
+                        if (accountName.startsWith(prefix) && (firstPage || !accountName.equals(lowerBound))) {
+                            accountNames.add(accountName);
+                        }
+                    }
+
+                    last = response.size() < pageSize || !response.get(response.size() - 1).startsWith(prefix);
+                    pages.put(new Page(accountNames, last, null));
+                    lowerBound = response.isEmpty() ? lowerBound : response.get(response.size() - 1);
+                    firstPage = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                try {
+                    pages.put(new Page(Collections.<String> emptyList(), true, e));
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private Page take() {
+            try {
+                return pages.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SteemIterationException("Interrupted while waiting for the accounts starting with " + prefix
+                        + ".", e);
+            }
+        }
+    }
+
+    /**
+     * The source of the account names enumerated by an
+     * {@link AccountNameIterator}.
+     */
+    @FunctionalInterface
+    public interface AccountNameSource {
+        /**
+         * Request the account names in alphabetical order, starting with the
+         * given lower bound.
+         *
+         * @param lowerBound
+         *            The first name to return, if it exists.
+         * @param limit
+         *            The maximum number of names.
+         * @return The account names.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<String> lookupAccounts(String lowerBound, int limit)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+}
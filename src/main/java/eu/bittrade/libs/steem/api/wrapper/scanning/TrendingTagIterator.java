@@ -0,0 +1,163 @@
+package eu.bittrade.libs.steem.api.wrapper.scanning;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.TrendingTag;
+import eu.bittrade.libs.steem.api.wrapper.util.PrefetchingPageIterator;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This iterator enumerates all tags in the order returned by
+ * "get_trending_tags". Every page starts with the last tag of the previous
+ * page, which is only returned once.
+ *
+ * <p>
+ * While a page is consumed, the next page is requested in the background.
+ * Unlike the {@link AccountNameIterator}, the tags can not be requested in
+ * parallel partitions, as the node orders them by their payouts and not by
+ * their name.
+ *
+ * <p>
+ * <b>Notice:</b> As the {@link Iterator} interface does not allow checked
+ * exceptions, request errors are thrown as {@link SteemIterationException}
+ * which carries the original exception as its cause.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class TrendingTagIterator extends PrefetchingPageIterator<TrendingTag> {
+    /** The default number of tags requested at once. */
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    /** The maximum number of pages requested at the same time by default. */
+    public static final int DEFAULT_PREFETCH_THREADS = 4;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = RequestUtil.newDaemonThreadPool("trending-tag-prefetch",
+            DEFAULT_PREFETCH_THREADS);
+
+    private final TrendingTagSource trendingTagSource;
+    private final int pageSize;
+    /** The last tag of the latest page, which starts the next page. */
+    private String boundary;
+
+    /**
+     * Create an iterator over all tags that uses the default page size.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the tags.
+     */
+    public TrendingTagIterator(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Create an iterator over all tags.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the tags.
+     * @param pageSize
+     *            The number of tags requested at once. As every page repeats
+     *            the last tag of the previous page, the page size has to be
+     *            greater than 1.
+     */
+    public TrendingTagIterator(SteemApiWrapper steemApiWrapper, int pageSize) {
+        this(steemApiWrapper, pageSize, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Create an iterator over all tags that requests the pages using the
+     * given executor. All iterators created without an executor share a pool
+     * of {@link #DEFAULT_PREFETCH_THREADS} threads.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the tags.
+     * @param pageSize
+     *            The number of tags requested at once, which has to be greater
+     *            than 1.
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     */
+    public TrendingTagIterator(SteemApiWrapper steemApiWrapper, int pageSize, ExecutorService prefetchExecutor) {
+        this(steemApiWrapper::getTrendingTags, pageSize, prefetchExecutor);
+    }
+
+    /**
+     * Create an iterator over all tags of the given source.
+     *
+     * @param trendingTagSource
+     *            The source of the pages.
+     * @param pageSize
+     *            The number of tags requested at once, which has to be greater
+     *            than 1.
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     */
+    public TrendingTagIterator(TrendingTagSource trendingTagSource, int pageSize, ExecutorService prefetchExecutor) {
+        super(prefetchExecutor, "the trending tags");
+
+        if (pageSize <= 1) {
+            throw new IllegalArgumentException("The page size has to be greater than 1.");
+        }
+
+        this.trendingTagSource = trendingTagSource;
+        this.pageSize = pageSize;
+        requestPage("");
+    }
+
+    @Override
+    protected List<TrendingTag> onPage(List<TrendingTag> page) {
+        // The node returns less tags at the end of the listing.
+        boolean complete = page.size() >= pageSize;
+        int firstIndex = boundary != null && !page.isEmpty() && boundary.equals(page.get(0).getName()) ? 1 : 0;
+        List<TrendingTag> newTags = page.subList(firstIndex, page.size());
+
+        if (complete && !newTags.isEmpty()) {
+            boundary = newTags.get(newTags.size() - 1).getName();
+            requestPage(boundary);
+        }
+
+        return newTags;
+    }
+
+    private void requestPage(String firstTag) {
+        prefetch(() -> trendingTagSource.getTrendingTags(firstTag, pageSize));
+    }
+
+    /**
+     * The source of the tags enumerated by a {@link TrendingTagIterator}.
+     * Usually this is {@link SteemApiWrapper#getTrendingTags(String, int)}.
+     */
+    @FunctionalInterface
+    public interface TrendingTagSource {
+        /**
+         * Request the tags in the order of their payouts, starting with the
+         * given tag.
+         *
+         * @param firstTag
+         *            The first tag to return or an empty string to start with
+         *            the first tag.
+         * @param limit
+         *            The maximum number of tags.
+         * @return The tags.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<TrendingTag> getTrendingTags(String firstTag, int limit)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+}
@@ -0,0 +1,671 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.models.Transaction;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationRecord;
+import eu.bittrade.libs.steem.api.wrapper.util.SteemApiWrapperUtil;
+
+/**
+ * A compact binary encoding for {@link Block}, {@link BlockHeader} and
+ * {@link Transaction} objects.
+ *
+ * <p>
+ * Compared to the JSON representation, the encoding
+ * <ul>
+ * <li>uses variable length integers,</li>
+ * <li>stores account names, operation names and field names as ids of a
+ * {@link CodecDictionary},</li>
+ * <li>stores hex encoded values like block ids and signatures as raw bytes
+ * and</li>
+ * <li>stores timestamps as seconds since the epoch.</li>
+ * </ul>
+ *
+ * Decoding an encoded object results in an object that is equal to the
+ * original one.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockCodec {
+    /** The version of the encoding that is written as the first byte. */
+    private static final int FORMAT_VERSION = 1;
+
+    static final int TAG_NULL = 0;
+    static final int TAG_FALSE = 1;
+    static final int TAG_TRUE = 2;
+    static final int TAG_INTEGER = 3;
+    static final int TAG_DOUBLE = 4;
+    static final int TAG_STRING = 5;
+    static final int TAG_DICTIONARY = 6;
+    static final int TAG_HEX = 7;
+    static final int TAG_TIMESTAMP = 8;
+    static final int TAG_LIST = 9;
+    static final int TAG_MAP = 10;
+    static final int TAG_BIG_INTEGER = 11;
+
+    /** Hex strings shorter than this are stored as normal strings. */
+    private static final int MINIMUM_HEX_LENGTH = 8;
+    private static final int TIMESTAMP_LENGTH = 19;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final CodecDictionary dictionary;
+
+    /**
+     * Create a new codec.
+     *
+     * @param dictionary
+     *            The dictionary used to encode and decode account names,
+     *            operation names and field names. The dictionary is extended
+     *            while encoding, so the same dictionary has to be used to
+     *            decode the data again.
+     */
+    public BlockCodec(CodecDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return The dictionary used by this codec.
+     */
+    public CodecDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Encode a complete block.
+     *
+     * @param block
+     *            The block to encode.
+     * @return A buffer that contains the encoded block.
+     */
+    public ByteBuffer encodeBlock(Block block) {
+        CompactOutput output = new CompactOutput(1024);
+        output.writeByte(FORMAT_VERSION);
+        writeHeader(output, block);
+        writeValue(output, block.getWitnessSignature(), false);
+
+        List<Transaction> transactions = block.getTransactions();
+        if (transactions == null) {
+            output.writeVarLong(0);
+        } else {
+            output.writeVarLong(transactions.size() + 1L);
+            for (Transaction transaction : transactions) {
+                writeTransaction(output, transaction);
+            }
+        }
+
+        return output.toByteBuffer();
+    }
+
+    /**
+     * Decode a complete block.
+     *
+     * @param encodedBlock
+     *            A buffer that contains a block encoded by
+     *            {@link #encodeBlock(Block)}.
+     * @return The decoded block.
+     */
+    public Block decodeBlock(ByteBuffer encodedBlock) {
+        CompactInput input = new CompactInput(encodedBlock.duplicate());
+        checkFormatVersion(input);
+
+        String previous = (String) readValue(input);
+        String timestamp = (String) readValue(input);
+        String witness = (String) readValue(input);
+        String transactionMerkleRoot = (String) readValue(input);
+        Object[] extensions = readArray(input);
+        String witnessSignature = (String) readValue(input);
+
+        List<Transaction> transactions = null;
+        int numberOfTransactions = input.readVarInt() - 1;
+        if (numberOfTransactions >= 0) {
+            transactions = new ArrayList<>(numberOfTransactions);
+            for (int i = 0; i < numberOfTransactions; i++) {
+                transactions.add(readTransaction(input));
+            }
+        }
+
+        return new Block(previous, timestamp, witness, transactionMerkleRoot, extensions, witnessSignature,
+                transactions);
+    }
+
+    /**
+     * Encode only the header of a block.
+     *
+     * @param blockHeader
+     *            The block header to encode.
+     * @return A buffer that contains the encoded block header.
+     */
+    public ByteBuffer encodeBlockHeader(BlockHeader blockHeader) {
+        CompactOutput output = new CompactOutput(128);
+        output.writeByte(FORMAT_VERSION);
+        writeHeader(output, blockHeader);
+        return output.toByteBuffer();
+    }
+
+    /**
+     * Decode a block header. Besides headers encoded by
+     * {@link #encodeBlockHeader(BlockHeader)}, this method also accepts
+     * complete blocks, in which case only the header is decoded.
+     *
+     * @param encodedBlockHeader
+     *            A buffer that contains an encoded block header.
+     * @return The decoded block header.
+     */
+    public BlockHeader decodeBlockHeader(ByteBuffer encodedBlockHeader) {
+        CompactInput input = new CompactInput(encodedBlockHeader.duplicate());
+        checkFormatVersion(input);
+
+        return new BlockHeader((String) readValue(input), (String) readValue(input), (String) readValue(input),
+                (String) readValue(input), readArray(input));
+    }
+
+    /**
+     * Encode a single transaction.
+     *
+     * @param transaction
+     *            The transaction to encode.
+     * @return A buffer that contains the encoded transaction.
+     */
+    public ByteBuffer encodeTransaction(Transaction transaction) {
+        CompactOutput output = new CompactOutput(256);
+        output.writeByte(FORMAT_VERSION);
+        writeTransaction(output, transaction);
+        return output.toByteBuffer();
+    }
+
+    /**
+     * Decode a single transaction.
+     *
+     * @param encodedTransaction
+     *            A buffer that contains a transaction encoded by
+     *            {@link #encodeTransaction(Transaction)}.
+     * @return The decoded transaction.
+     */
+    public Transaction decodeTransaction(ByteBuffer encodedTransaction) {
+        CompactInput input = new CompactInput(encodedTransaction.duplicate());
+        checkFormatVersion(input);
+        return readTransaction(input);
+    }
+
+    /**
+     * Decode only the operations of an encoded block that pass the given
+     * pipeline. The predicates of the pipeline are evaluated on the encoded
+     * data, so operations that do not match are skipped without decoding
+     * them.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param encodedBlock
+     *            A buffer that contains a block encoded by
+     *            {@link #encodeBlock(Block)}.
+     * @param operationPipeline
+     *            The pipeline whose predicates should be applied.
+     * @return The matching operations in the order they appear in the block.
+     */
+    public List<OperationRecord> decodeOperations(long blockNumber, ByteBuffer encodedBlock,
+            OperationPipeline operationPipeline) {
+        List<OperationRecord> operationRecords = new ArrayList<>();
+
+        // Account names are stored in the dictionary, so a watched account that
+        // is not part of it can't be referenced by any operation. Only values
+        // of account fields are stored as dictionary values, which matches the
+        // account rule of the pipeline.
+        Set<Integer> accountIds = null;
+        if (!operationPipeline.getAccountNames().isEmpty()) {
+            accountIds = new HashSet<>();
+            for (String accountName : operationPipeline.getAccountNames()) {
+                int id = dictionary.getId(accountName);
+                if (id >= 0) {
+                    accountIds.add(id);
+                }
+            }
+
+            if (accountIds.isEmpty()) {
+                return operationRecords;
+            }
+        }
+
+        CompactInput input = new CompactInput(encodedBlock.duplicate());
+        checkFormatVersion(input);
+
+        // Skip the header and the witness signature.
+        for (int i = 0; i < 4; i++) {
+            skipValue(input);
+        }
+        skipArray(input);
+        skipValue(input);
+
+        int numberOfTransactions = input.readVarInt() - 1;
+        for (int transactionIndex = 0; transactionIndex < numberOfTransactions; transactionIndex++) {
+            input.readVarLong();
+            input.readVarLong();
+            skipValue(input);
+
+            int numberOfOperations = input.readVarInt() - 1;
+            for (int operationIndex = 0; operationIndex < numberOfOperations; operationIndex++) {
+                int operationName = input.readVarInt();
+                if (operationName == 0) {
+                    // Operations of an unknown form can't be filtered.
+                    skipValue(input);
+                    continue;
+                }
+
+                String operationType = dictionary.get(operationName - 1);
+                int start = input.position();
+                if (!operationPipeline.acceptsOperationType(operationType)
+                        || (accountIds != null && !containsDictionaryValue(input, accountIds))) {
+                    input.position(start);
+                    skipValue(input);
+                    continue;
+                }
+
+                input.position(start);
+                Object operation = readValue(input);
+                if (operation instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> operationFields = (Map<String, Object>) operation;
+                    operationRecords.add(new OperationRecord(blockNumber, transactionIndex, operationIndex,
+                            operationType, operationFields));
+                }
+            }
+
+            skipArray(input);
+            skipArray(input);
+        }
+
+        return operationRecords;
+    }
+
+    private void writeHeader(CompactOutput output, BlockHeader blockHeader) {
+        writeValue(output, blockHeader.getPrevious(), false);
+        writeValue(output, blockHeader.getTimestamp(), false);
+        writeValue(output, blockHeader.getWitness(), true);
+        writeValue(output, blockHeader.getTransactionMerkleRoot(), false);
+        writeArray(output, blockHeader.getExtensions());
+    }
+
+    private void writeTransaction(CompactOutput output, Transaction transaction) {
+        output.writeZigZagLong(transaction.getRefBlockNum());
+        output.writeZigZagLong(transaction.getRefBlockPrefix());
+        writeValue(output, transaction.getExpiration(), false);
+
+        Object[] operations = transaction.getOperations();
+        if (operations == null) {
+            output.writeVarLong(0);
+        } else {
+            output.writeVarLong(operations.length + 1L);
+            for (Object operation : operations) {
+                writeOperation(output, operation);
+            }
+        }
+
+        writeArray(output, transaction.getExtensions());
+        writeArray(output, transaction.getSignatures());
+    }
+
+    /**
+     * Write an operation. Operations have the form [name, {fields}] and are
+     * stored as the dictionary id of the name followed by the fields. Anything
+     * else is stored as a generic value, signaled by a leading 0.
+     */
+    private void writeOperation(CompactOutput output, Object operation) {
+        if (operation instanceof List && ((List<?>) operation).size() == 2
+                && ((List<?>) operation).get(0) instanceof String) {
+            List<?> typedOperation = (List<?>) operation;
+            output.writeVarLong(dictionary.add((String) typedOperation.get(0)) + 1L);
+            writeValue(output, typedOperation.get(1), false);
+        } else {
+            output.writeVarLong(0);
+            writeValue(output, operation, false);
+        }
+    }
+
+    private Transaction readTransaction(CompactInput input) {
+        long refBlockNum = input.readZigZagLong();
+        long refBlockPrefix = input.readZigZagLong();
+        String expiration = (String) readValue(input);
+
+        Object[] operations = null;
+        int numberOfOperations = input.readVarInt() - 1;
+        if (numberOfOperations >= 0) {
+            operations = new Object[numberOfOperations];
+            for (int i = 0; i < numberOfOperations; i++) {
+                operations[i] = readOperation(input);
+            }
+        }
+
+        return new Transaction(refBlockNum, refBlockPrefix, expiration, operations, readArray(input),
+                readArray(input));
+    }
+
+    private Object readOperation(CompactInput input) {
+        int operationName = input.readVarInt();
+        if (operationName == 0) {
+            return readValue(input);
+        }
+
+        List<Object> operation = new ArrayList<>(2);
+        operation.add(dictionary.get(operationName - 1));
+        operation.add(readValue(input));
+        return operation;
+    }
+
+    private void writeArray(CompactOutput output, Object[] values) {
+        if (values == null) {
+            output.writeVarLong(0);
+        } else {
+            output.writeVarLong(values.length + 1L);
+            for (Object value : values) {
+                writeValue(output, value, false);
+            }
+        }
+    }
+
+    private Object[] readArray(CompactInput input) {
+        int length = input.readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readValue(input);
+        }
+
+        return values;
+    }
+
+    /**
+     * Write a generic value as created by Jackson for untyped fields.
+     *
+     * @param output
+     *            The output to write to.
+     * @param value
+     *            The value to write.
+     * @param accountName
+     *            True if strings should be stored in the dictionary, because
+     *            the value is an account name or a list of account names.
+     */
+    private void writeValue(CompactOutput output, Object value, boolean accountName) {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            output.writeByte(TAG_INTEGER);
+            output.writeZigZagLong(((Number) value).longValue());
+        } else if (value instanceof BigInteger) {
+            output.writeByte(TAG_BIG_INTEGER);
+            output.writeString(value.toString());
+        } else if (value instanceof Number) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof String) {
+            writeString(output, (String) value, accountName);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            output.writeByte(TAG_LIST);
+            output.writeVarLong(list.size());
+            for (Object element : list) {
+                writeValue(output, element, accountName);
+            }
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            output.writeByte(TAG_LIST);
+            output.writeVarLong(array.length);
+            for (Object element : array) {
+                writeValue(output, element, accountName);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(TAG_MAP);
+            output.writeVarLong(map.size());
+            for (Entry<?, ?> entry : map.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                output.writeVarLong(dictionary.add(key));
+                writeValue(output, entry.getValue(), SteemApiWrapperUtil.isAccountNameField(key));
+            }
+        } else {
+            throw new IllegalArgumentException("Values of the type " + value.getClass().getName()
+                    + " are not supported by this codec.");
+        }
+    }
+
+    private void writeString(CompactOutput output, String value, boolean accountName) {
+        if (accountName) {
+            output.writeByte(TAG_DICTIONARY);
+            output.writeVarLong(dictionary.add(value));
+        } else if (isHex(value)) {
+            output.writeByte(TAG_HEX);
+            output.writeBytes(hexToBytes(value));
+        } else if (isTimestamp(value)) {
+            output.writeByte(TAG_TIMESTAMP);
+            output.writeZigZagLong(
+                    LocalDateTime.parse(value, TIMESTAMP_FORMAT).toEpochSecond(ZoneOffset.UTC));
+        } else {
+            output.writeByte(TAG_STRING);
+            output.writeString(value);
+        }
+    }
+
+    /**
+     * Read a value written by
+     * {@link #writeValue(CompactOutput, Object, boolean)}.
+     *
+     * @param input
+     *            The input to read from.
+     * @return The decoded value.
+     */
+    Object readValue(CompactInput input) {
+        int tag = input.readByte();
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_FALSE:
+            return Boolean.FALSE;
+        case TAG_TRUE:
+            return Boolean.TRUE;
+        case TAG_INTEGER:
+            long number = input.readZigZagLong();
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return (int) number;
+            }
+            return number;
+        case TAG_BIG_INTEGER:
+            return new BigInteger(input.readString());
+        case TAG_DOUBLE:
+            return Double.longBitsToDouble(input.readLong());
+        case TAG_STRING:
+            return input.readString();
+        case TAG_DICTIONARY:
+            return dictionary.get(input.readVarInt());
+        case TAG_HEX:
+            return bytesToHex(input.readBytes());
+        case TAG_TIMESTAMP:
+            return LocalDateTime.ofEpochSecond(input.readZigZagLong(), 0, ZoneOffset.UTC).format(TIMESTAMP_FORMAT);
+        case TAG_LIST:
+            int size = input.readVarInt();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue(input));
+            }
+            return list;
+        case TAG_MAP:
+            int numberOfEntries = input.readVarInt();
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String key = dictionary.get(input.readVarInt());
+                map.put(key, readValue(input));
+            }
+            return map;
+        default:
+            throw new IllegalStateException("Unknown value tag " + tag + ".");
+        }
+    }
+
+    /**
+     * Skip a value written by
+     * {@link #writeValue(CompactOutput, Object, boolean)}.
+     *
+     * @param input
+     *            The input to read from.
+     */
+    private void skipValue(CompactInput input) {
+        int tag = input.readByte();
+        switch (tag) {
+        case TAG_NULL:
+        case TAG_FALSE:
+        case TAG_TRUE:
+            break;
+        case TAG_INTEGER:
+        case TAG_DICTIONARY:
+        case TAG_TIMESTAMP:
+            input.readVarLong();
+            break;
+        case TAG_DOUBLE:
+            input.readLong();
+            break;
+        case TAG_STRING:
+        case TAG_HEX:
+        case TAG_BIG_INTEGER:
+            input.skipBytes();
+            break;
+        case TAG_LIST:
+            int size = input.readVarInt();
+            for (int i = 0; i < size; i++) {
+                skipValue(input);
+            }
+            break;
+        case TAG_MAP:
+            int numberOfEntries = input.readVarInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                input.readVarLong();
+                skipValue(input);
+            }
+            break;
+        default:
+            throw new IllegalStateException("Unknown value tag " + tag + ".");
+        }
+    }
+
+    private void skipArray(CompactInput input) {
+        int length = input.readVarInt() - 1;
+        for (int i = 0; i < length; i++) {
+            skipValue(input);
+        }
+    }
+
+    /**
+     * Scan a value for dictionary references. As only account names are
+     * stored as dictionary values, this is used to check if a value
+     * references one of the given accounts. The input is positioned somewhere
+     * within the value afterwards.
+     *
+     * @param input
+     *            The input to read from.
+     * @param ids
+     *            The dictionary ids to look for.
+     * @return True if the value references one of the ids.
+     */
+    private boolean containsDictionaryValue(CompactInput input, Set<Integer> ids) {
+        int tag = input.readByte();
+        switch (tag) {
+        case TAG_DICTIONARY:
+            return ids.contains(input.readVarInt());
+        case TAG_LIST:
+            int size = input.readVarInt();
+            for (int i = 0; i < size; i++) {
+                if (containsDictionaryValue(input, ids)) {
+                    return true;
+                }
+            }
+            return false;
+        case TAG_MAP:
+            int numberOfEntries = input.readVarInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                input.readVarLong();
+                if (containsDictionaryValue(input, ids)) {
+                    return true;
+                }
+            }
+            return false;
+        default:
+            input.position(input.position() - 1);
+            skipValue(input);
+            return false;
+        }
+    }
+
+    private void checkFormatVersion(CompactInput input) {
+        int formatVersion = input.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported encoding version " + formatVersion + ".");
+        }
+    }
+
+    private static boolean isHex(String value) {
+        int length = value.length();
+        if (length < MINIMUM_HEX_LENGTH || length % 2 != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            if ((character < '0' || character > '9') && (character < 'a' || character > 'f')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isTimestamp(String value) {
+        if (value.length() != TIMESTAMP_LENGTH || value.charAt(4) != '-' || value.charAt(10) != 'T') {
+            return false;
+        }
+
+        try {
+            // Only use the compact form if the value survives a round trip.
+            return LocalDateTime.parse(value, TIMESTAMP_FORMAT).format(TIMESTAMP_FORMAT).equals(value);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static byte[] hexToBytes(String value) {
+        byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ((Character.digit(value.charAt(2 * i), 16) << 4)
+                    | Character.digit(value.charAt(2 * i + 1), 16));
+        }
+
+        return bytes;
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        char[] characters = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            characters[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            characters[2 * i + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+
+        return new String(characters);
+    }
+}
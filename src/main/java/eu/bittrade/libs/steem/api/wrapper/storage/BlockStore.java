@@ -0,0 +1,348 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationRecord;
+
+/**
+ * An append-only, local store for blocks. The blocks are persisted to segment
+ * files which each cover a fixed range of block numbers and are indexed by the
+ * block number, so that a lookup requires only a single index access. The
+ * blocks are stored in the compact format of the {@link BlockCodec} with a
+ * separate dictionary for every segment.
+ *
+ * <p>
+ * Only a limited number of segments are kept open. The segment used least
+ * recently is closed when another one has to be opened.
+ *
+ * <p>
+ * <b>Notice:</b> Only blocks below the last irreversible block should be
+ * added to this store, as a stored block can never be replaced.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockStore implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(BlockStore.class);
+
+    /** The default number of blocks stored in one segment. */
+    public static final int DEFAULT_BLOCKS_PER_SEGMENT = 10000;
+    /** The default number of segments that are kept open at the same time. */
+    public static final int DEFAULT_MAXIMUM_OPEN_SEGMENTS = 16;
+
+    private final Path directory;
+    private final int blocksPerSegment;
+    private final int maximumOpenSegments;
+    /** The open segments in the order of their last use. */
+    private final Map<Long, BlockStoreSegment> segments;
+
+    /**
+     * Open or create a block store in the given directory that uses the
+     * default segment size.
+     *
+     * @param directory
+     *            The directory to store the segment files in.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public BlockStore(Path directory) throws IOException {
+        this(directory, DEFAULT_BLOCKS_PER_SEGMENT);
+    }
+
+    /**
+     * Open or create a block store in the given directory.
+     *
+     * @param directory
+     *            The directory to store the segment files in.
+     * @param blocksPerSegment
+     *            The number of blocks stored in one segment. An existing store
+     *            always has to be opened with the same value it has been
+     *            created with. As the data file of a segment is mapped as a
+     *            whole, it can not grow beyond 2 GB. Blocks that do not fit
+     *            into their segment anymore are rejected.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public BlockStore(Path directory, int blocksPerSegment) throws IOException {
+        this(directory, blocksPerSegment, DEFAULT_MAXIMUM_OPEN_SEGMENTS);
+    }
+
+    /**
+     * Open or create a block store in the given directory.
+     *
+     * @param directory
+     *            The directory to store the segment files in.
+     * @param blocksPerSegment
+     *            The number of blocks stored in one segment (@see
+     *            #BlockStore(Path, int)).
+     * @param maximumOpenSegments
+     *            The number of segments that are kept open at the same time.
+     *            Every open segment holds three file handles and two memory
+     *            mappings.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    public BlockStore(Path directory, int blocksPerSegment, int maximumOpenSegments) throws IOException {
+        if (blocksPerSegment <= 0) {
+            throw new IllegalArgumentException("The number of blocks per segment has to be greater than 0.");
+        } else if (maximumOpenSegments <= 0) {
+            throw new IllegalArgumentException("The number of open segments has to be greater than 0.");
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.blocksPerSegment = blocksPerSegment;
+        this.maximumOpenSegments = maximumOpenSegments;
+        this.segments = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Check if the block with the given number is available in this store.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return True if the block has been stored, otherwise false.
+     * @throws IOException
+     *             If the segment could not be opened.
+     */
+    public boolean contains(long blockNumber) throws IOException {
+        Boolean contained = withSegment(blockNumber, false, BlockStoreSegment::contains);
+        return contained != null && contained;
+    }
+
+    /**
+     * Get a block from this store.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return The stored block or null if the block is not available.
+     * @throws IOException
+     *             If the block could not be read.
+     */
+    public Block get(long blockNumber) throws IOException {
+        return withSegment(blockNumber, false, (segment, slot) -> {
+            ByteBuffer encodedBlock = segment.read(slot);
+            return encodedBlock == null ? null : segment.getBlockCodec().decodeBlock(encodedBlock);
+        });
+    }
+
+    /**
+     * Get only the header of a block from this store. This is cheaper than
+     * {@link #get(long)} as the transactions are not decoded.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return The header of the stored block or null if the block is not
+     *         available.
+     * @throws IOException
+     *             If the block could not be read.
+     */
+    public BlockHeader getBlockHeader(long blockNumber) throws IOException {
+        return withSegment(blockNumber, false, (segment, slot) -> {
+            ByteBuffer encodedBlock = segment.read(slot);
+            return encodedBlock == null ? null : segment.getBlockCodec().decodeBlockHeader(encodedBlock);
+        });
+    }
+
+    /**
+     * Get the operations of a stored block that pass the given pipeline.
+     * Operations that do not match are skipped without decoding them.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param operationPipeline
+     *            The pipeline whose predicates should be applied.
+     * @return The matching operations or null if the block is not available.
+     * @throws IOException
+     *             If the block could not be read.
+     */
+    public List<OperationRecord> getOperations(long blockNumber, OperationPipeline operationPipeline)
+            throws IOException {
+        return withSegment(blockNumber, false, (segment, slot) -> {
+            ByteBuffer encodedBlock = segment.read(slot);
+            if (encodedBlock == null) {
+                return null;
+            }
+
+            return Collections.unmodifiableList(
+                    segment.getBlockCodec().decodeOperations(blockNumber, encodedBlock, operationPipeline));
+        });
+    }
+
+    /**
+     * Add a block to this store. As blocks are immutable, a block that has
+     * already been stored will not be replaced.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The block to store.
+     * @return True if the block has been added, false if it has already been
+     *         stored before.
+     * @throws IOException
+     *             If the block could not be written.
+     */
+    public boolean put(long blockNumber, Block block) throws IOException {
+        return withSegment(blockNumber, true, (segment, slot) -> segment.write(slot, block));
+    }
+
+    /**
+     * Flush and close all open segments.
+     *
+     * @throws IOException
+     *             If a segment could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        List<BlockStoreSegment> openSegments;
+        synchronized (segments) {
+            openSegments = new ArrayList<>(segments.values());
+            segments.clear();
+        }
+
+        for (BlockStoreSegment segment : openSegments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Apply an action to the segment that covers the given block number. The
+     * segment is opened if this has not been done yet and can not be closed
+     * while the action is running.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param create
+     *            True if the segment should be created if it does not exist,
+     *            false if the action should be skipped in this case.
+     * @param action
+     *            The action to apply.
+     * @return The result of the action or null if the segment does not exist.
+     * @throws IOException
+     *             If the segment could not be opened or the action failed.
+     */
+    private <T> T withSegment(long blockNumber, boolean create, SegmentAction<T> action) throws IOException {
+        BlockStoreSegment segment = acquireSegment(blockNumber, create);
+        if (segment == null) {
+            return null;
+        }
+
+        try {
+            return action.apply(segment, getSlot(blockNumber));
+        } finally {
+            releaseSegment(segment);
+        }
+    }
+
+    /**
+     * Get the segment for the given block number and open it, if this has not
+     * been done yet. The segment has to be released after its use.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param create
+     *            True if the files of the segment should be created if they
+     *            do not exist.
+     * @return The segment that covers the given block number or null if it
+     *         does not exist and should not be created.
+     * @throws IOException
+     *             If the segment could not be opened.
+     */
+    private BlockStoreSegment acquireSegment(long blockNumber, boolean create) throws IOException {
+        if (blockNumber < 0) {
+            throw new IllegalArgumentException("The block number can't be negative.");
+        }
+
+        long segmentNumber = blockNumber / blocksPerSegment;
+        List<BlockStoreSegment> evictedSegments = new ArrayList<>();
+        BlockStoreSegment segment;
+
+        synchronized (segments) {
+            segment = segments.get(segmentNumber);
+            if (segment == null) {
+                String segmentName = String.format("%010d", segmentNumber);
+                Path dataFile = directory.resolve(segmentName + ".blocks");
+                if (!create && !Files.exists(dataFile)) {
+                    return null;
+                }
+
+                LOGGER.debug("Opening block store segment {}.", segmentName);
+                segment = new BlockStoreSegment(dataFile, directory.resolve(segmentName + ".index"),
+                        directory.resolve(segmentName + ".dictionary"), blocksPerSegment);
+                segments.put(segmentNumber, segment);
+
+                Iterator<BlockStoreSegment> leastRecentlyUsed = segments.values().iterator();
+                while (segments.size() > maximumOpenSegments) {
+                    BlockStoreSegment evictedSegment = leastRecentlyUsed.next();
+                    leastRecentlyUsed.remove();
+                    if (evictedSegment.evict()) {
+                        evictedSegments.add(evictedSegment);
+                    }
+                }
+            }
+
+            segment.retain();
+        }
+
+        for (BlockStoreSegment evictedSegment : evictedSegments) {
+            evictedSegment.close();
+        }
+
+        return segment;
+    }
+
+    /**
+     * Release a segment acquired by {@link #acquireSegment(long, boolean)}
+     * and close it, if it has been evicted in the meantime.
+     *
+     * @param segment
+     *            The segment to release.
+     * @throws IOException
+     *             If the segment could not be closed.
+     */
+    private void releaseSegment(BlockStoreSegment segment) throws IOException {
+        boolean unused;
+        synchronized (segments) {
+            unused = segment.release();
+        }
+
+        if (unused) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Get the position of the block within its segment.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @return The slot of the block.
+     */
+    private int getSlot(long blockNumber) {
+        return (int) (blockNumber % blocksPerSegment);
+    }
+
+    /**
+     * An action applied to the segment of a block.
+     *
+     * @param <T>
+     *            The type of the result.
+     */
+    private interface SegmentAction<T> {
+        T apply(BlockStoreSegment segment, int slot) throws IOException;
+    }
+}
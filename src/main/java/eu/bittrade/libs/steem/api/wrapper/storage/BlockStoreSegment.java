@@ -0,0 +1,291 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+
+/**
+ * A single segment of the {@link BlockStore}. A segment covers a fixed range of
+ * block numbers and consists of three files:
+ * <ul>
+ * <li>A data file to which the encoded blocks are appended.</li>
+ * <li>An index file with one fixed-width entry (offset and length) for every
+ * block number of the range.</li>
+ * <li>A dictionary file that contains the entries of the
+ * {@link CodecDictionary} used to encode the blocks of this segment.</li>
+ * </ul>
+ *
+ * The data and the index file are read through memory mapped buffers.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+class BlockStoreSegment implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(BlockStoreSegment.class);
+
+    /** The size of an index entry: The offset (long) and the length (int). */
+    static final int INDEX_ENTRY_SIZE = 12;
+    /**
+     * The maximum size of a data file. The whole file is mapped into a single
+     * buffer, which can not be larger than {@link Integer#MAX_VALUE} bytes.
+     */
+    static final long MAXIMUM_DATA_SIZE = Integer.MAX_VALUE - 8;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final FileChannel dictionaryChannel;
+    private final MappedByteBuffer index;
+    private MappedByteBuffer data;
+    private final BlockCodec blockCodec;
+    private int persistedDictionarySize;
+    /** The number of current users, guarded by the {@link BlockStore}. */
+    private int users;
+    /** True if the segment has been closed or will be closed after its use. */
+    private boolean evicted;
+
+    /**
+     * Open or create a segment.
+     *
+     * @param dataFile
+     *            The path of the data file.
+     * @param indexFile
+     *            The path of the index file.
+     * @param dictionaryFile
+     *            The path of the dictionary file.
+     * @param numberOfSlots
+     *            The number of blocks covered by this segment.
+     * @throws IOException
+     *             If one of the files could not be opened or mapped.
+     */
+    BlockStoreSegment(Path dataFile, Path indexFile, Path dictionaryFile, int numberOfSlots) throws IOException {
+        this.dataChannel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (dataChannel.size() > MAXIMUM_DATA_SIZE) {
+            throw new IOException("The data file " + dataFile + " exceeds the maximum size of " + MAXIMUM_DATA_SIZE
+                    + " bytes.");
+        }
+
+        this.index = indexChannel.map(MapMode.READ_WRITE, 0, (long) numberOfSlots * INDEX_ENTRY_SIZE);
+        this.data = dataChannel.map(MapMode.READ_ONLY, 0, dataChannel.size());
+        this.dictionaryChannel = FileChannel.open(dictionaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.blockCodec = new BlockCodec(readDictionary());
+        this.persistedDictionarySize = blockCodec.getDictionary().size();
+    }
+
+    /**
+     * Register a new user of this segment. Only called by the
+     * {@link BlockStore} while it holds its lock.
+     */
+    void retain() {
+        users++;
+    }
+
+    /**
+     * Unregister a user of this segment. Only called by the {@link BlockStore}
+     * while it holds its lock.
+     *
+     * @return True if the segment has been evicted and is no longer used, so
+     *         that it has to be closed.
+     */
+    boolean release() {
+        users--;
+        return evicted && users == 0;
+    }
+
+    /**
+     * Mark this segment as evicted. Only called by the {@link BlockStore}
+     * while it holds its lock.
+     *
+     * @return True if the segment is not used and can be closed immediately.
+     */
+    boolean evict() {
+        evicted = true;
+        return users == 0;
+    }
+
+    /**
+     * @return The codec used to encode and decode the blocks of this segment.
+     */
+    BlockCodec getBlockCodec() {
+        return blockCodec;
+    }
+
+    /**
+     * Check if the given slot already contains a block.
+     *
+     * @param slot
+     *            The slot within this segment.
+     * @return True if the slot has been written, otherwise false.
+     */
+    synchronized boolean contains(int slot) {
+        return index.getInt(slot * INDEX_ENTRY_SIZE + 8) != 0;
+    }
+
+    /**
+     * Read the encoded block stored in the given slot.
+     *
+     * @param slot
+     *            The slot within this segment.
+     * @return A read only buffer that contains the encoded block or null if
+     *         the slot is empty.
+     * @throws IOException
+     *             If the data file could not be mapped.
+     */
+    ByteBuffer read(int slot) throws IOException {
+        ByteBuffer view;
+        long offset;
+        int length;
+
+        synchronized (this) {
+            offset = index.getLong(slot * INDEX_ENTRY_SIZE);
+            length = index.getInt(slot * INDEX_ENTRY_SIZE + 8);
+
+            if (length == 0) {
+                return null;
+            }
+
+            if (offset + length > data.capacity()) {
+                // The data file has grown since it has been mapped.
+                data = dataChannel.map(MapMode.READ_ONLY, 0, dataChannel.size());
+            }
+
+            view = data.duplicate();
+        }
+
+        view.position((int) offset);
+        view.limit((int) offset + length);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Encode and append a block and register it in the index. As stored blocks
+     * are immutable, nothing happens if the slot has already been written.
+     *
+     * @param slot
+     *            The slot within this segment.
+     * @param block
+     *            The block to store.
+     * @return True if the block has been written, false if the slot was
+     *         already taken.
+     * @throws IOException
+     *             If the block could not be written.
+     */
+    synchronized boolean write(int slot, Block block) throws IOException {
+        if (contains(slot)) {
+            return false;
+        }
+
+        ByteBuffer encodedBlock = blockCodec.encodeBlock(block);
+
+        // New dictionary entries have to be persisted before the block that
+        // uses them.
+        writeDictionary();
+
+        long offset = dataChannel.size();
+        int length = encodedBlock.remaining();
+        if (offset + length > MAXIMUM_DATA_SIZE) {
+            throw new IOException("The segment is full, use less blocks per segment.");
+        }
+
+        writeFully(dataChannel, encodedBlock, offset);
+
+        // The block and the dictionary have to be on disk before the index
+        // refers to them. The length is written last, so that a partially
+        // written entry is never treated as a valid one.
+        dictionaryChannel.force(false);
+        dataChannel.force(false);
+        index.putLong(slot * INDEX_ENTRY_SIZE, offset);
+        index.putInt(slot * INDEX_ENTRY_SIZE + 8, length);
+
+        return true;
+    }
+
+    /**
+     * Read the persisted dictionary entries. If the process stopped while
+     * entries were appended, the last entry may be incomplete. As no block
+     * of the index can refer to it, the file is truncated to the last
+     * complete entry.
+     *
+     * @return The dictionary of this segment.
+     * @throws IOException
+     *             If the dictionary file could not be read.
+     */
+    private CodecDictionary readDictionary() throws IOException {
+        ByteBuffer content = ByteBuffer.allocate((int) dictionaryChannel.size());
+        while (content.hasRemaining() && dictionaryChannel.read(content, content.position()) >= 0) {
+            // Read until the buffer is full.
+        }
+        content.flip();
+
+        CompactInput input = new CompactInput(content);
+        List<String> entries = new ArrayList<>();
+        int completeSize = 0;
+        try {
+            while (input.hasRemaining()) {
+                entries.add(input.readString());
+                completeSize = input.position();
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalStateException e) {
+            LOGGER.warn("Removing an incomplete entry at the end of the dictionary at offset {}.", completeSize, e);
+            dictionaryChannel.truncate(completeSize);
+            dictionaryChannel.force(true);
+        }
+
+        return new CodecDictionary(entries);
+    }
+
+    /**
+     * Append the dictionary entries that have been added since the last call.
+     *
+     * @throws IOException
+     *             If the dictionary file could not be written.
+     */
+    private void writeDictionary() throws IOException {
+        CodecDictionary dictionary = blockCodec.getDictionary();
+        int dictionarySize = dictionary.size();
+        if (dictionarySize == persistedDictionarySize) {
+            return;
+        }
+
+        CompactOutput output = new CompactOutput(64);
+        for (int id = persistedDictionarySize; id < dictionarySize; id++) {
+            output.writeBytes(dictionary.get(id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        writeFully(dictionaryChannel, output.toByteBuffer(), dictionaryChannel.size());
+        persistedDictionarySize = dictionarySize;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer content, long position) throws IOException {
+        long currentPosition = position;
+        while (content.hasRemaining()) {
+            currentPosition += channel.write(content, currentPosition);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        index.force();
+        dataChannel.force(true);
+        dictionaryChannel.force(true);
+        dataChannel.close();
+        indexChannel.close();
+        dictionaryChannel.close();
+    }
+}
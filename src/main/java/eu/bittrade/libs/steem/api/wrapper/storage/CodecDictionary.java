@@ -0,0 +1,115 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary that maps frequently used strings like account names,
+ * operation names and field names to small integer ids. It is used by the
+ * {@link BlockCodec} to replace those strings by their id.
+ *
+ * <p>
+ * Entries are only added, never removed, so that an id stays valid for the
+ * whole lifetime of the dictionary.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class CodecDictionary {
+    /**
+     * The estimated number of bytes used per entry besides its characters
+     * (the string, the list slot, the map entry and the boxed id).
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final List<String> entries;
+    private final Map<String, Integer> ids;
+    private long estimatedBytes;
+
+    /**
+     * Create an empty dictionary.
+     */
+    public CodecDictionary() {
+        this.entries = new ArrayList<>();
+        this.ids = new HashMap<>();
+    }
+
+    /**
+     * Create a dictionary that already contains the given entries. The id of
+     * an entry is its position in the list.
+     *
+     * @param entries
+     *            The initial entries.
+     */
+    public CodecDictionary(List<String> entries) {
+        this();
+        for (String entry : entries) {
+            add(entry);
+        }
+    }
+
+    /**
+     * Get the id of the given entry or add it to this dictionary, if it is not
+     * known yet.
+     *
+     * @param entry
+     *            The string to look up.
+     * @return The id of the entry.
+     */
+    public synchronized int add(String entry) {
+        Integer id = ids.get(entry);
+        if (id == null) {
+            id = entries.size();
+            entries.add(entry);
+            ids.put(entry, id);
+            estimatedBytes += ENTRY_OVERHEAD + 2L * entry.length();
+        }
+
+        return id;
+    }
+
+    /**
+     * Get the id of the given entry without adding it.
+     *
+     * @param entry
+     *            The string to look up.
+     * @return The id of the entry or -1 if the entry is unknown.
+     */
+    public synchronized int getId(String entry) {
+        Integer id = ids.get(entry);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the entry with the given id.
+     *
+     * @param id
+     *            The id of the entry.
+     * @return The entry.
+     * @throws IllegalArgumentException
+     *             If no entry with this id exists.
+     */
+    public synchronized String get(int id) {
+        if (id < 0 || id >= entries.size()) {
+            throw new IllegalArgumentException("The dictionary does not contain an entry with the id " + id + ".");
+        }
+
+        return entries.get(id);
+    }
+
+    /**
+     * @return The number of entries in this dictionary.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The estimated number of bytes used by the entries of this
+     *         dictionary.
+     */
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
@@ -0,0 +1,104 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the values written by a {@link CompactOutput} from a byte buffer.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+class CompactInput {
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new input. The position of the given buffer is advanced while
+     * reading.
+     *
+     * @param buffer
+     *            The buffer to read from.
+     */
+    CompactInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            if (shift > 63) {
+                throw new IllegalStateException("Malformed variable length integer.");
+            }
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        return value;
+    }
+
+    int readVarInt() {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The value " + value + " does not fit into an int.");
+        }
+
+        return (int) value;
+    }
+
+    long readZigZagLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    long readLong() {
+        return buffer.getLong();
+    }
+
+    byte[] readBytes() {
+        byte[] bytes = new byte[readVarInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    String readString() {
+        int length = readVarInt();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return value;
+    }
+
+    /**
+     * Skip a length prefixed byte sequence.
+     */
+    void skipBytes() {
+        int length = readVarInt();
+        buffer.position(buffer.position() + length);
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    void position(int position) {
+        buffer.position(position);
+    }
+
+    boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+}
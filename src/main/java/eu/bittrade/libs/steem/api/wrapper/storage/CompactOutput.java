@@ -0,0 +1,99 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer with support for variable length integers.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+class CompactOutput {
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Create a new output with the given initial capacity.
+     *
+     * @param initialCapacity
+     *            The initial capacity in bytes.
+     */
+    CompactOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+        this.size = 0;
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Write an unsigned variable length integer (7 bits per byte, LEB128).
+     *
+     * @param value
+     *            The value to write, interpreted as unsigned.
+     */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Write a signed variable length integer using the zig-zag encoding, so
+     * that small negative values stay small.
+     *
+     * @param value
+     *            The value to write.
+     */
+    void writeZigZagLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeLong(long value) {
+        ensureCapacity(8);
+        for (int i = 7; i >= 0; i--) {
+            buffer[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return A buffer that wraps the written bytes.
+     */
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, size);
+    }
+
+    /**
+     * @return A copy of the written bytes.
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (size + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalBytes));
+        }
+    }
+}
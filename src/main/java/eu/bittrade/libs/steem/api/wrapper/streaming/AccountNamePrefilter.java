@@ -0,0 +1,186 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * A cheap check that can be applied to a raw response before it is decoded.
+ * It searches the raw response for quoted occurrences of the watched account
+ * names (e.g. <code>"dez1337"</code>) using a multi-pattern matcher
+ * (Aho-Corasick), so that the response is scanned exactly once, independent
+ * of the number of watched accounts.
+ *
+ * <p>
+ * <b>Notice:</b> A match only means that one of the names occurs somewhere in
+ * the response. The decoded data still has to be checked, e.g. by an
+ * {@link OperationPipeline}.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountNamePrefilter {
+    /** Valid account names only consist of these characters. */
+    private static final String ALPHABET = "\"-.0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int[] CHARACTER_INDEX = new int[128];
+
+    static {
+        Arrays.fill(CHARACTER_INDEX, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            CHARACTER_INDEX[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private final Set<String> accountNames;
+    /** The transitions of the automaton: [state * alphabet size + character]. */
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    /**
+     * Create a prefilter for the given account names.
+     *
+     * @param accountNames
+     *            The account names to watch.
+     */
+    public AccountNamePrefilter(Collection<String> accountNames) {
+        this.accountNames = Collections.unmodifiableSet(new LinkedHashSet<>(accountNames));
+
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newState());
+        terminal.add(false);
+
+        for (String accountName : this.accountNames) {
+            String pattern = "\"" + accountName + "\"";
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int character = indexOf(pattern.charAt(i));
+                if (character < 0) {
+                    throw new IllegalArgumentException("The account name '" + accountName + "' is not valid.");
+                }
+
+                if (trie.get(state)[character] < 0) {
+                    trie.get(state)[character] = trie.size();
+                    trie.add(newState());
+                    terminal.add(false);
+                }
+                state = trie.get(state)[character];
+            }
+            terminal.set(state, true);
+        }
+
+        int alphabetSize = ALPHABET.length();
+        this.transitions = new int[trie.size() * alphabetSize];
+        this.accepting = new boolean[trie.size()];
+        int[] failure = new int[trie.size()];
+
+        // Turn the trie into a deterministic automaton by following the
+        // failure links in breadth first order.
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int character = 0; character < alphabetSize; character++) {
+            int next = trie.get(0)[character];
+            if (next < 0) {
+                transitions[character] = 0;
+            } else {
+                transitions[character] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        accepting[0] = terminal.get(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+
+            for (int character = 0; character < alphabetSize; character++) {
+                int next = trie.get(state)[character];
+                if (next < 0) {
+                    transitions[state * alphabetSize + character] = transitions[failure[state] * alphabetSize
+                            + character];
+                } else {
+                    transitions[state * alphabetSize + character] = next;
+                    failure[next] = transitions[failure[state] * alphabetSize + character];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The watched account names.
+     */
+    public Set<String> getAccountNames() {
+        return accountNames;
+    }
+
+    /**
+     * Check if one of the watched account names occurs in the given text.
+     *
+     * @param rawResponse
+     *            The raw response to scan.
+     * @return True if at least one of the account names occurs.
+     */
+    public boolean matches(CharSequence rawResponse) {
+        if (accountNames.isEmpty()) {
+            return false;
+        }
+
+        int alphabetSize = ALPHABET.length();
+        int state = 0;
+        for (int i = 0; i < rawResponse.length(); i++) {
+            int character = indexOf(rawResponse.charAt(i));
+            state = character < 0 ? 0 : transitions[state * alphabetSize + character];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if one of the watched account names occurs in the given UTF-8
+     * encoded bytes.
+     *
+     * @param rawResponse
+     *            The raw response to scan.
+     * @param offset
+     *            The position of the first byte to scan.
+     * @param length
+     *            The number of bytes to scan.
+     * @return True if at least one of the account names occurs.
+     */
+    public boolean matches(byte[] rawResponse, int offset, int length) {
+        if (accountNames.isEmpty()) {
+            return false;
+        }
+
+        int alphabetSize = ALPHABET.length();
+        int state = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int character = indexOf((char) (rawResponse[i] & 0xFF));
+            state = character < 0 ? 0 : transitions[state * alphabetSize + character];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET.length()];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int indexOf(char character) {
+        return character < CHARACTER_INDEX.length ? CHARACTER_INDEX[character] : -1;
+    }
+}
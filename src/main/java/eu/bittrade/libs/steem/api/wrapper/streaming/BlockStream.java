@@ -0,0 +1,338 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+
+/**
+ * This class walks through the blockchain block by block and passes the blocks
+ * or their operations to a {@link BlockStreamListener}. Once the head of the
+ * chain has been reached, the stream waits for new blocks.
+ *
+ * <p>
+ * The decoding costs can be reduced by configuring
+ * <ul>
+ * <li>an {@link AccountNamePrefilter}, so that blocks which do not mention one
+ * of the watched accounts are never decoded, or</li>
+ * <li>an {@link OperationPipeline}, so that only matching operations are
+ * decoded.</li>
+ * </ul>
+ *
+ * <p>
+ * If a {@link VirtualOperationFetcher} has been configured, the virtual
+ * operations of each block are requested in parallel and passed to
+ * {@link BlockStreamListener#onOperations(long, List)} after the regular
+ * operations of the same block.
+ *
+ * <p>
+ * If a {@link Checkpoint} has been configured, the stream resumes after the
+ * block stored in the checkpoint, hands the stored state to the listener and
+ * saves a new checkpoint in the configured intervals as well as when it ends.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockStream {
+    private static final Logger LOGGER = LogManager.getLogger(BlockStream.class);
+
+    /** The default time to wait for a new block in milliseconds. */
+    public static final long DEFAULT_POLL_INTERVAL = 3000;
+    /** The default number of blocks to process between two checkpoints. */
+    public static final int DEFAULT_CHECKPOINT_BLOCK_INTERVAL = 100;
+    /** The default time between two checkpoints in milliseconds. */
+    public static final long DEFAULT_CHECKPOINT_TIME_INTERVAL = 10000;
+
+    private final SteemApiWrapper steemApiWrapper;
+    private long nextBlockNumber;
+    private long endBlockNumber;
+    private boolean irreversibleOnly;
+    private long pollInterval;
+    private AccountNamePrefilter accountNamePrefilter;
+    private OperationPipeline operationPipeline;
+    private VirtualOperationFetcher virtualOperationFetcher;
+    private Checkpoint checkpoint;
+    private int checkpointBlockInterval;
+    private long checkpointTimeInterval;
+    private long lastAvailableBlockNumber;
+    private volatile boolean running;
+
+    /**
+     * Create a new block stream.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the blocks.
+     * @param startBlockNumber
+     *            The number of the first block to process.
+     */
+    public BlockStream(SteemApiWrapper steemApiWrapper, long startBlockNumber) {
+        this.steemApiWrapper = steemApiWrapper;
+        this.nextBlockNumber = startBlockNumber;
+        this.endBlockNumber = Long.MAX_VALUE;
+        this.irreversibleOnly = false;
+        this.pollInterval = DEFAULT_POLL_INTERVAL;
+        this.checkpointBlockInterval = DEFAULT_CHECKPOINT_BLOCK_INTERVAL;
+        this.checkpointTimeInterval = DEFAULT_CHECKPOINT_TIME_INTERVAL;
+    }
+
+    /**
+     * @return The number of the next block that will be processed.
+     */
+    public long getNextBlockNumber() {
+        return nextBlockNumber;
+    }
+
+    /**
+     * Stop the stream after the given block. By default, the stream never
+     * ends.
+     *
+     * @param endBlockNumber
+     *            The number of the last block to process.
+     */
+    public void setEndBlockNumber(long endBlockNumber) {
+        this.endBlockNumber = endBlockNumber;
+    }
+
+    /**
+     * Only process blocks that are irreversible. By default, all blocks up to
+     * the head block are processed.
+     *
+     * @param irreversibleOnly
+     *            True if only irreversible blocks should be processed.
+     */
+    public void setIrreversibleOnly(boolean irreversibleOnly) {
+        this.irreversibleOnly = irreversibleOnly;
+    }
+
+    /**
+     * Override the default time to wait for a new block.
+     *
+     * @param pollInterval
+     *            Time in milliseconds.
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Set a prefilter that is applied to the raw blocks. Blocks that do not
+     * pass it are neither decoded nor passed to the listener.
+     *
+     * @param accountNamePrefilter
+     *            The prefilter to use or null to disable it.
+     */
+    public void setAccountNamePrefilter(AccountNamePrefilter accountNamePrefilter) {
+        this.accountNamePrefilter = accountNamePrefilter;
+    }
+
+    /**
+     * Set a pipeline, so that the listener receives the matching operations
+     * instead of complete blocks. If the pipeline watches accounts, its
+     * prefilter is used as well.
+     *
+     * @param operationPipeline
+     *            The pipeline to use or null to receive complete blocks.
+     */
+    public void setOperationPipeline(OperationPipeline operationPipeline) {
+        this.operationPipeline = operationPipeline;
+    }
+
+    /**
+     * Set a fetcher to merge the virtual operations into the stream. If an
+     * {@link OperationPipeline} has been configured, the virtual operations
+     * have to pass it as well.
+     *
+     * @param virtualOperationFetcher
+     *            The fetcher to use or null to ignore virtual operations.
+     */
+    public void setVirtualOperationFetcher(VirtualOperationFetcher virtualOperationFetcher) {
+        this.virtualOperationFetcher = virtualOperationFetcher;
+    }
+
+    /**
+     * Set a checkpoint to resume from and to save the progress to. If the
+     * checkpoint file exists when {@link #run(BlockStreamListener)} is called,
+     * the stream continues with the block after the stored one instead of the
+     * start block and passes the loaded checkpoint to
+     * {@link BlockStreamListener#onCheckpointLoaded(Checkpoint)}.
+     *
+     * @param checkpoint
+     *            The checkpoint to use or null to disable checkpointing.
+     */
+    public void setCheckpoint(Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Override the default checkpoint intervals. A checkpoint is saved as
+     * soon as one of the intervals has been reached.
+     *
+     * @param blockInterval
+     *            The number of blocks to process between two checkpoints.
+     * @param timeInterval
+     *            The time between two checkpoints in milliseconds.
+     */
+    public void setCheckpointInterval(int blockInterval, long timeInterval) {
+        this.checkpointBlockInterval = blockInterval;
+        this.checkpointTimeInterval = timeInterval;
+    }
+
+    /**
+     * Process the blocks and notify the given listener. This method blocks
+     * until the end block has been processed, {@link #stop()} has been called
+     * or the current thread has been interrupted.
+     *
+     * @param blockStreamListener
+     *            The listener to notify.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public void run(BlockStreamListener blockStreamListener)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        running = true;
+        lastAvailableBlockNumber = 0;
+        int uncheckpointedBlocks = 0;
+        long lastCheckpointTime = System.currentTimeMillis();
+
+        resumeFromCheckpoint(blockStreamListener);
+
+        try {
+            while (running && nextBlockNumber <= endBlockNumber) {
+                if (nextBlockNumber > lastAvailableBlockNumber) {
+                    lastAvailableBlockNumber = getLastAvailableBlockNumber();
+                    if (nextBlockNumber > lastAvailableBlockNumber) {
+                        Thread.sleep(pollInterval);
+                        continue;
+                    }
+                }
+
+                processBlock(nextBlockNumber, blockStreamListener);
+                nextBlockNumber++;
+                uncheckpointedBlocks++;
+
+                if (checkpoint != null && (uncheckpointedBlocks >= checkpointBlockInterval
+                        || System.currentTimeMillis() - lastCheckpointTime >= checkpointTimeInterval)) {
+                    saveCheckpoint(blockStreamListener);
+                    uncheckpointedBlocks = 0;
+                    lastCheckpointTime = System.currentTimeMillis();
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("The block stream has been interrupted at block {}.", nextBlockNumber);
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            if (checkpoint != null && uncheckpointedBlocks > 0) {
+                saveCheckpoint(blockStreamListener);
+            }
+        }
+    }
+
+    /**
+     * Stop the stream after the block that is currently processed.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Process a single block.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param blockStreamListener
+     *            The listener to notify.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    protected void processBlock(long blockNumber, BlockStreamListener blockStreamListener)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        List<OperationRecord> operationRecords = new ArrayList<>();
+
+        if (operationPipeline != null) {
+            operationRecords.addAll(steemApiWrapper.getOperations(blockNumber, operationPipeline));
+        } else {
+            Block block;
+            if (accountNamePrefilter != null) {
+                block = steemApiWrapper.getBlock(blockNumber, accountNamePrefilter);
+            } else {
+                block = steemApiWrapper.getBlock(blockNumber);
+            }
+
+            if (block != null) {
+                blockStreamListener.onBlock(blockNumber, block);
+            }
+        }
+
+        if (virtualOperationFetcher != null) {
+            for (OperationRecord operationRecord : virtualOperationFetcher.fetchAhead(blockNumber,
+                    Math.min(lastAvailableBlockNumber, endBlockNumber))) {
+                if (operationPipeline == null
+                        || (operationPipeline.acceptsOperationType(operationRecord.getOperationType())
+                                && operationPipeline.acceptsOperation(operationRecord.getOperation()))) {
+                    operationRecords.add(operationRecord);
+                }
+            }
+        }
+
+        if (!operationRecords.isEmpty()) {
+            blockStreamListener.onOperations(blockNumber, operationRecords);
+        }
+    }
+
+    private void resumeFromCheckpoint(BlockStreamListener blockStreamListener) {
+        if (checkpoint == null) {
+            return;
+        }
+
+        try {
+            if (checkpoint.load()) {
+                nextBlockNumber = checkpoint.getBlockNumber() + 1;
+                LOGGER.info("Resuming the block stream at block {}.", nextBlockNumber);
+                blockStreamListener.onCheckpointLoaded(checkpoint);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not load the checkpoint. Starting at block {}.", nextBlockNumber, e);
+        }
+    }
+
+    private void saveCheckpoint(BlockStreamListener blockStreamListener) {
+        try {
+            checkpoint.save(nextBlockNumber - 1, blockStreamListener.getCheckpointState());
+        } catch (IOException e) {
+            LOGGER.error("Could not save the checkpoint for block {}.", nextBlockNumber - 1, e);
+        }
+    }
+
+    private long getLastAvailableBlockNumber()
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        GlobalProperties globalProperties = steemApiWrapper.getDynamicGlobalProperties();
+        return irreversibleOnly ? globalProperties.getLastIrreversibleBlockNum()
+                : globalProperties.getHeadBlockNumber();
+    }
+}
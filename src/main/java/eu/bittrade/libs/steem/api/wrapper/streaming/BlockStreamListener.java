@@ -0,0 +1,69 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.util.List;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+
+/**
+ * A listener that is notified by a {@link BlockStream} about new blocks or
+ * operations.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public interface BlockStreamListener {
+    /**
+     * Called for every block of the stream, if no {@link OperationPipeline} has
+     * been configured. If a prefilter has been configured, this method is only
+     * called for blocks that passed the prefilter.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The decoded block.
+     */
+    default void onBlock(long blockNumber, Block block) {
+        // Ignore blocks by default.
+    }
+
+    /**
+     * Called for every block that contains operations which passed the
+     * configured {@link OperationPipeline}. If a
+     * {@link VirtualOperationFetcher} has been configured, the virtual
+     * operations of the block follow the regular operations. Without an
+     * {@link OperationPipeline}, only the virtual operations are passed to
+     * this method.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param operationRecords
+     *            The matching operations in the order they appear in the
+     *            block.
+     */
+    default void onOperations(long blockNumber, List<OperationRecord> operationRecords) {
+        // Ignore operations by default.
+    }
+
+    /**
+     * Called by a {@link BlockStream} before the first block, if its
+     * {@link Checkpoint} has been loaded from an existing file. The listener
+     * can restore its state from the checkpoint (@see
+     * Checkpoint#getState(Class)).
+     *
+     * @param checkpoint
+     *            The loaded checkpoint.
+     */
+    default void onCheckpointLoaded(Checkpoint checkpoint) {
+        // Ignore the loaded checkpoint by default.
+    }
+
+    /**
+     * Called by a {@link BlockStream} with a {@link Checkpoint} before the
+     * checkpoint is saved.
+     *
+     * @return The state of this listener that should be saved with the
+     *         checkpoint or null. The state has to be serializable by Jackson.
+     */
+    default Object getCheckpointState() {
+        return null;
+    }
+}
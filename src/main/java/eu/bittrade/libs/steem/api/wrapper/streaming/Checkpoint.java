@@ -0,0 +1,162 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A checkpoint persists the number of the last fully processed block and an
+ * optional state of the consumer to a local file, so that a
+ * {@link BlockStream} can resume from there after a restart.
+ *
+ * <p>
+ * The checkpoint is written to a temporary file first, which then replaces
+ * the checkpoint file with an atomic rename. The directory is synchronized
+ * after the rename, so the new checkpoint survives a crash once
+ * {@link #save(long, Object)} returned. A crash while saving always leaves
+ * either the old or the new checkpoint behind.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class Checkpoint {
+    private static final Logger LOGGER = LogManager.getLogger(Checkpoint.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final Path temporaryFile;
+    private long blockNumber;
+    private JsonNode state;
+
+    /**
+     * Create a checkpoint that is persisted to the given file.
+     *
+     * @param file
+     *            The checkpoint file.
+     */
+    public Checkpoint(Path file) {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.blockNumber = -1;
+    }
+
+    /**
+     * Load the checkpoint from its file.
+     *
+     * @return True if the file exists and has been loaded.
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    public synchronized boolean load() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        CheckpointData checkpointData = MAPPER.readValue(file.toFile(), CheckpointData.class);
+        this.blockNumber = checkpointData.blockNumber;
+        this.state = checkpointData.state;
+
+        return true;
+    }
+
+    /**
+     * Persist a new checkpoint.
+     *
+     * @param blockNumber
+     *            The number of the last fully processed block.
+     * @param state
+     *            The state of the consumer or null. The state has to be
+     *            serializable by Jackson.
+     * @throws IOException
+     *             If the checkpoint could not be written.
+     */
+    public synchronized void save(long blockNumber, Object state) throws IOException {
+        CheckpointData checkpointData = new CheckpointData();
+        checkpointData.blockNumber = blockNumber;
+        checkpointData.state = state == null ? null : MAPPER.valueToTree(state);
+
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = ByteBuffer.wrap(MAPPER.writeValueAsBytes(checkpointData));
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        forceDirectory();
+
+        this.blockNumber = blockNumber;
+        this.state = checkpointData.state;
+    }
+
+    /**
+     * Synchronize the directory of the checkpoint, so that the rename is
+     * persisted. Some platforms (e.g. Windows) do not allow to open a
+     * directory, in which case the rename is left to the file system.
+     */
+    private void forceDirectory() {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Could not synchronize the directory {}.", directory, e);
+        }
+    }
+
+    /**
+     * @return The number of the last fully processed block or -1 if no
+     *         checkpoint has been loaded or saved yet.
+     */
+    public synchronized long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /**
+     * Get the state of the consumer.
+     *
+     * @param type
+     *            The type of the state.
+     * @return The state or null if no state has been saved.
+     * @throws IOException
+     *             If the state could not be converted into the given type.
+     */
+    public synchronized <T> T getState(Class<T> type) throws IOException {
+        if (state == null || state.isNull()) {
+            return null;
+        }
+
+        return MAPPER.treeToValue(state, type);
+    }
+
+    /**
+     * The content of a checkpoint file.
+     */
+    private static class CheckpointData {
+        @JsonProperty("block_number")
+        private long blockNumber;
+        @JsonProperty("state")
+        private JsonNode state;
+    }
+}
@@ -0,0 +1,99 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.streaming.HeaderFollower.HeaderSource;
+
+/**
+ * A new block header reported by a {@link HeaderFollower}. The full block is
+ * only requested if {@link #getBlock()} is called.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class HeaderEvent {
+    private final HeaderSource headerSource;
+    private final long blockNumber;
+    private final String blockId;
+    private final BlockHeader blockHeader;
+    private Block block;
+
+    /**
+     * Create a new header event.
+     *
+     * @param headerSource
+     *            The source used to request the full block.
+     * @param blockNumber
+     *            The number of the block.
+     * @param blockId
+     *            The id of the block.
+     * @param blockHeader
+     *            The header of the block.
+     */
+    public HeaderEvent(HeaderSource headerSource, long blockNumber, String blockId, BlockHeader blockHeader) {
+        this.headerSource = headerSource;
+        this.blockNumber = blockNumber;
+        this.blockId = blockId;
+        this.blockHeader = blockHeader;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /**
+     * @return The id of the block, which has been derived from the header of
+     *         the following block or from the head block id.
+     */
+    public String getBlockId() {
+        return blockId;
+    }
+
+    public BlockHeader getBlockHeader() {
+        return blockHeader;
+    }
+
+    public String getWitness() {
+        return blockHeader.getWitness();
+    }
+
+    public String getTimestamp() {
+        return blockHeader.getTimestamp();
+    }
+
+    /**
+     * Get the full block. The block is requested on the first call and kept
+     * for subsequent calls.
+     *
+     * @return The full block.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public synchronized Block getBlock()
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        if (block == null) {
+            block = headerSource.getBlock(blockNumber);
+        }
+
+        return block;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("blockNumber", blockNumber).append("blockId", blockId)
+                .append("blockHeader", blockHeader).toString();
+    }
+}
@@ -0,0 +1,337 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+
+/**
+ * This class follows the blockchain by only requesting the block headers,
+ * which are a small fraction of the size of a full block.
+ *
+ * <p>
+ * A header does not contain the id of its own block, only the id of the block
+ * before. The follower therefore only reports blocks up to the polled head
+ * block, whose id is known from the dynamic global properties, and derives the
+ * id of every other block from the <code>previous</code> field of its
+ * successor by walking backwards from the head. Every header is verified
+ * before it is reported:
+ * <ul>
+ * <li>The <code>previous</code> field has to point to the block before. A
+ * block id starts with the block number, so this can be checked without
+ * knowing the previous header.</li>
+ * <li>The <code>previous</code> field of the first new header has to match the
+ * id of the last reported block. If it does not match, the node switched to
+ * another fork: The follower steps back until the chain links again and
+ * reports the replaced blocks again.</li>
+ * </ul>
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class HeaderFollower {
+    private static final Logger LOGGER = LogManager.getLogger(HeaderFollower.class);
+
+    /** The default time to wait for a new block in milliseconds. */
+    public static final long DEFAULT_POLL_INTERVAL = 3000;
+    /** The number of block ids to remember for the fork detection. */
+    public static final int DEFAULT_KNOWN_BLOCK_IDS = 128;
+    /**
+     * The maximal number of headers requested before they are reported. If
+     * the follower is further behind, the id of the last header of a batch is
+     * taken from the header that follows it.
+     */
+    public static final int MAXIMUM_BATCH_SIZE = 100;
+
+    private final HeaderSource headerSource;
+    private final Map<Long, String> knownBlockIds;
+    private long nextBlockNumber;
+    private long pollInterval;
+    private volatile boolean running;
+
+    /**
+     * Create a new header follower.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the headers.
+     * @param startBlockNumber
+     *            The number of the first block to report.
+     */
+    public HeaderFollower(SteemApiWrapper steemApiWrapper, long startBlockNumber) {
+        this(HeaderSource.of(steemApiWrapper), startBlockNumber);
+    }
+
+    /**
+     * Create a new header follower.
+     *
+     * @param headerSource
+     *            The source used to request the headers.
+     * @param startBlockNumber
+     *            The number of the first block to report.
+     */
+    public HeaderFollower(HeaderSource headerSource, long startBlockNumber) {
+        this.headerSource = headerSource;
+        this.nextBlockNumber = startBlockNumber;
+        this.pollInterval = DEFAULT_POLL_INTERVAL;
+        this.knownBlockIds = new LinkedHashMap<Long, String>() {
+            private static final long serialVersionUID = 4526581497428960512L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > DEFAULT_KNOWN_BLOCK_IDS;
+            }
+        };
+    }
+
+    /**
+     * @return The number of the next block that will be reported.
+     */
+    public long getNextBlockNumber() {
+        return nextBlockNumber;
+    }
+
+    /**
+     * Override the default time to wait for a new block.
+     *
+     * @param pollInterval
+     *            Time in milliseconds.
+     */
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Follow the chain and notify the given listener. This method blocks until
+     * {@link #stop()} has been called or the current thread has been
+     * interrupted.
+     *
+     * @param headerListener
+     *            The listener to notify.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object or if a header does not point to the
+     *             block before.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public void run(HeaderListener headerListener)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        running = true;
+
+        try {
+            while (running) {
+                GlobalProperties globalProperties = headerSource.getDynamicGlobalProperties();
+                long headBlockNumber = globalProperties.getHeadBlockNumber();
+
+                if (nextBlockNumber > headBlockNumber) {
+                    Thread.sleep(pollInterval);
+                    continue;
+                }
+
+                long lastBlockNumber = Math.min(headBlockNumber, nextBlockNumber + MAXIMUM_BATCH_SIZE - 1);
+                String lastBlockId;
+                if (lastBlockNumber == headBlockNumber) {
+                    lastBlockId = globalProperties.getHeadBlockId();
+                } else {
+                    BlockHeader followingHeader = headerSource.getBlockHeader(lastBlockNumber + 1);
+                    if (followingHeader == null) {
+                        continue;
+                    }
+                    verifyPrevious(lastBlockNumber + 1, followingHeader);
+                    lastBlockId = followingHeader.getPrevious();
+                }
+
+                reportBatch(lastBlockNumber, lastBlockId, headerListener);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("The header follower has been interrupted at block {}.", nextBlockNumber);
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Stop following the chain after the header that is currently processed.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Get the block number encoded in the first four bytes of a block id.
+     *
+     * @param blockId
+     *            The block id.
+     * @return The block number.
+     */
+    public static long getBlockNumber(String blockId) {
+        return Long.parseLong(blockId.substring(0, 8), 16);
+    }
+
+    /**
+     * Request the headers from the given block down to the next block to
+     * report, link them to the blocks reported before and report them in
+     * ascending order.
+     */
+    private void reportBatch(long lastBlockNumber, String lastBlockId, HeaderListener headerListener)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        Deque<HeaderEvent> headerEvents = new ArrayDeque<>();
+        long blockNumber = lastBlockNumber;
+        String blockId = lastBlockId;
+
+        while (true) {
+            BlockHeader blockHeader = headerSource.getBlockHeader(blockNumber);
+            if (blockHeader == null) {
+                // The node switched to a shorter fork while the headers have
+                // been requested, so try again with the new head.
+                LOGGER.debug("Block {} is not available anymore.", blockNumber);
+                return;
+            }
+
+            verifyPrevious(blockNumber, blockHeader);
+            headerEvents.push(new HeaderEvent(headerSource, blockNumber, blockId, blockHeader));
+            blockId = blockHeader.getPrevious();
+
+            if (blockNumber <= nextBlockNumber) {
+                String knownBlockId = knownBlockIds.get(blockNumber - 1);
+                if (knownBlockId == null || knownBlockId.equals(blockId)) {
+                    break;
+                }
+
+                LOGGER.warn("Block {} changed from {} to {}.", blockNumber - 1, knownBlockId, blockId);
+                knownBlockIds.remove(blockNumber - 1);
+                headerListener.onFork(blockNumber - 1, knownBlockId, blockId);
+                nextBlockNumber = blockNumber - 1;
+            }
+
+            blockNumber--;
+        }
+
+        while (running && !headerEvents.isEmpty()) {
+            HeaderEvent headerEvent = headerEvents.pop();
+            knownBlockIds.put(headerEvent.getBlockNumber(), headerEvent.getBlockId());
+            headerListener.onHeader(headerEvent);
+            nextBlockNumber = headerEvent.getBlockNumber() + 1;
+        }
+    }
+
+    private void verifyPrevious(long blockNumber, BlockHeader blockHeader) throws SteemTransformationException {
+        String previous = blockHeader.getPrevious();
+        if (previous == null || previous.length() < 8 || getBlockNumber(previous) != blockNumber - 1) {
+            throw new SteemTransformationException(
+                    "The header of block " + blockNumber + " does not point to the block before: " + previous);
+        }
+    }
+
+    /**
+     * The source of the headers and blocks reported by a
+     * {@link HeaderFollower}.
+     */
+    public interface HeaderSource {
+        /**
+         * Request the current dynamic global properties, which contain the
+         * number and the id of the head block.
+         *
+         * @return The current properties.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        GlobalProperties getDynamicGlobalProperties()
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Request the header of a block.
+         *
+         * @param blockNumber
+         *            The number of the block.
+         * @return The header or null if the node does not know the block.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        BlockHeader getBlockHeader(long blockNumber)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Request a full block.
+         *
+         * @param blockNumber
+         *            The number of the block.
+         * @return The block or null if the node does not know the block.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        Block getBlock(long blockNumber)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+
+        /**
+         * Create a source that requests the headers and blocks using the given
+         * wrapper.
+         *
+         * @param steemApiWrapper
+         *            The wrapper to use.
+         * @return The source.
+         */
+        static HeaderSource of(SteemApiWrapper steemApiWrapper) {
+            return new HeaderSource() {
+                @Override
+                public GlobalProperties getDynamicGlobalProperties() throws SteemTimeoutException,
+                        SteemConnectionException, SteemTransformationException, SteemResponseError {
+                    return steemApiWrapper.getDynamicGlobalProperties();
+                }
+
+                @Override
+                public BlockHeader getBlockHeader(long blockNumber) throws SteemTimeoutException,
+                        SteemConnectionException, SteemTransformationException, SteemResponseError {
+                    return steemApiWrapper.getBlockHeader(blockNumber);
+                }
+
+                @Override
+                public Block getBlock(long blockNumber) throws SteemTimeoutException, SteemConnectionException,
+                        SteemTransformationException, SteemResponseError {
+                    return steemApiWrapper.getBlock(blockNumber);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+/**
+ * A listener that is notified by a {@link HeaderFollower} about new block
+ * headers.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public interface HeaderListener {
+    /**
+     * Called for every verified block header in ascending order.
+     *
+     * @param headerEvent
+     *            The event describing the new header.
+     */
+    void onHeader(HeaderEvent headerEvent);
+
+    /**
+     * Called if the id of an already reported block has changed, which means
+     * that the node switched to another fork. If several blocks have been
+     * replaced, this method is called for each of them in descending order.
+     * The replaced blocks and the blocks following them are reported
+     * again.
+     *
+     * @param blockNumber
+     *            The number of the block that has been replaced.
+     * @param previousBlockId
+     *            The id that has been known before.
+     * @param currentBlockId
+     *            The id of the block on the new fork.
+     */
+    default void onFork(long blockNumber, String previousBlockId, String currentBlockId) {
+        // Ignore forks by default.
+    }
+}
@@ -0,0 +1,422 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.CommunicationHandler;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.Transaction;
+import eu.bittrade.libs.steem.api.wrapper.models.error.SteemError;
+import eu.bittrade.libs.steem.api.wrapper.util.SteemApiWrapperUtil;
+
+/**
+ * This class flattens the transactions of a block into a list of
+ * {@link OperationRecord}s.
+ *
+ * <p>
+ * Only operations that match all registered predicates are returned:
+ * <ul>
+ * <li>If operation types have been registered, the type of the operation has
+ * to be one of them.</li>
+ * <li>If account names have been registered, one of the account fields of the
+ * operation (e.g. "voter" or "author") has to contain one of them.</li>
+ * </ul>
+ *
+ * A value counts as the content of an account field if the closest field that
+ * encloses it is an account field. Lists are transparent, so every element of
+ * a list stored in an account field is checked, and fields of nested objects
+ * are checked in the same way as the fields of the operation itself. This rule
+ * is applied to decoded blocks, raw responses and stored blocks alike.
+ *
+ * When processing a raw response or a stored block, the predicates are
+ * evaluated while decoding, so operations that do not match are skipped
+ * without creating any objects for them. If account names have been
+ * registered, a raw response is additionally checked by an
+ * {@link AccountNamePrefilter} before it is decoded at all.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class OperationPipeline {
+    private static final Logger LOGGER = LogManager.getLogger(OperationPipeline.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+    private static final TypeReference<Map<String, Object>> OPERATION_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    /*
+     * The predicates are replaced as a whole when they change, so they can be
+     * read without locking while blocks are processed.
+     */
+    private volatile Set<String> operationTypes;
+    private volatile Set<String> accountNames;
+    private AccountNamePrefilter accountNamePrefilter;
+
+    /**
+     * Create a new pipeline without any predicates, which will return all
+     * operations.
+     */
+    public OperationPipeline() {
+        this.operationTypes = Collections.emptySet();
+        this.accountNames = Collections.emptySet();
+    }
+
+    /**
+     * Only return operations of the given types.
+     *
+     * @param operationTypes
+     *            The names of the operation types (e.g. "vote", "comment").
+     * @return This pipeline.
+     */
+    public synchronized OperationPipeline filterByOperationType(String... operationTypes) {
+        this.operationTypes = extend(this.operationTypes, operationTypes);
+        return this;
+    }
+
+    /**
+     * Only return operations that affect one of the given accounts.
+     *
+     * @param accountNames
+     *            The account names to watch.
+     * @return This pipeline.
+     */
+    public synchronized OperationPipeline filterByAccount(String... accountNames) {
+        this.accountNames = extend(this.accountNames, accountNames);
+        this.accountNamePrefilter = null;
+        return this;
+    }
+
+    /**
+     * @return The registered operation types.
+     */
+    public Set<String> getOperationTypes() {
+        return operationTypes;
+    }
+
+    /**
+     * @return The registered account names.
+     */
+    public Set<String> getAccountNames() {
+        return accountNames;
+    }
+
+    /**
+     * Get a prefilter for the registered account names.
+     *
+     * @return A prefilter for the registered account names or null if no
+     *         account names have been registered.
+     */
+    public synchronized AccountNamePrefilter getAccountNamePrefilter() {
+        if (accountNamePrefilter == null && !accountNames.isEmpty()) {
+            accountNamePrefilter = new AccountNamePrefilter(accountNames);
+        }
+
+        return accountNamePrefilter;
+    }
+
+    /**
+     * Check if operations of the given type can pass this pipeline.
+     *
+     * @param operationType
+     *            The type of the operation.
+     * @return True if operations of this type are not filtered out.
+     */
+    public boolean acceptsOperationType(String operationType) {
+        return operationTypes.isEmpty() || operationTypes.contains(operationType);
+    }
+
+    /**
+     * Check if the given operation fields pass the account predicate.
+     *
+     * @param operation
+     *            The fields of an operation.
+     * @return True if no account names have been registered or if one of the
+     *         account fields contains a registered account name.
+     */
+    public boolean acceptsOperation(Map<String, Object> operation) {
+        Set<String> watchedAccountNames = accountNames;
+        return watchedAccountNames.isEmpty() || containsAccountName(operation, false, watchedAccountNames);
+    }
+
+    private static boolean containsAccountName(Object value, boolean accountField, Set<String> accountNames) {
+        if (value instanceof String) {
+            return accountField && accountNames.contains(value);
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (containsAccountName(element, accountField, accountNames)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                if (containsAccountName(field.getValue(),
+                        SteemApiWrapperUtil.isAccountNameField(String.valueOf(field.getKey())), accountNames)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static Set<String> extend(Set<String> values, String... additionalValues) {
+        Set<String> extendedValues = new HashSet<>(values);
+        extendedValues.addAll(Arrays.asList(additionalValues));
+        return Collections.unmodifiableSet(extendedValues);
+    }
+
+    /**
+     * Process an already decoded block.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The block to process.
+     * @return The matching operations in the order they appear in the block.
+     */
+    public List<OperationRecord> process(long blockNumber, Block block) {
+        List<OperationRecord> operationRecords = new ArrayList<>();
+        if (block.getTransactions() == null) {
+            return operationRecords;
+        }
+
+        for (int transactionIndex = 0; transactionIndex < block.getTransactions().size(); transactionIndex++) {
+            Transaction transaction = block.getTransactions().get(transactionIndex);
+            if (transaction.getOperations() == null) {
+                continue;
+            }
+
+            for (int operationIndex = 0; operationIndex < transaction.getOperations().length; operationIndex++) {
+                Object operation = transaction.getOperations()[operationIndex];
+                if (!(operation instanceof List) || ((List<?>) operation).size() != 2) {
+                    LOGGER.debug("Skipping operation {} of transaction {} in block {} as it has an unknown form.",
+                            operationIndex, transactionIndex, blockNumber);
+                    continue;
+                }
+
+                String operationType = String.valueOf(((List<?>) operation).get(0));
+                @SuppressWarnings("unchecked")
+                Map<String, Object> operationFields = (Map<String, Object>) ((List<?>) operation).get(1);
+
+                if (acceptsOperationType(operationType) && acceptsOperation(operationFields)) {
+                    operationRecords.add(new OperationRecord(blockNumber, transactionIndex, operationIndex,
+                            operationType, operationFields));
+                }
+            }
+        }
+
+        return operationRecords;
+    }
+
+    /**
+     * Process the raw response of a "get_block" request. Only the matching
+     * operations are decoded.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param rawJsonResponse
+     *            The raw JSON response of the server.
+     * @return The matching operations in the order they appear in the block.
+     * @throws SteemTransformationException
+     *             If the response could not be parsed.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<OperationRecord> process(long blockNumber, String rawJsonResponse)
+            throws SteemTransformationException, SteemResponseError {
+        List<OperationRecord> operationRecords = new ArrayList<>();
+
+        AccountNamePrefilter prefilter = getAccountNamePrefilter();
+        if (prefilter != null && !prefilter.matches(rawJsonResponse)
+                && !CommunicationHandler.isErrorResponse(rawJsonResponse)) {
+            // None of the watched accounts is mentioned, so there is nothing to
+            // decode.
+            return operationRecords;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(rawJsonResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SteemTransformationException("The response is not a JSON object.");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("result".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    processBlock(parser, blockNumber, operationRecords);
+                } else if ("error".equals(fieldName)) {
+                    try {
+                        throw new SteemResponseError(MAPPER.readValue(rawJsonResponse, SteemError.class));
+                    } catch (IOException e) {
+                        throw new SteemTransformationException("Could not transform the response into an object.",
+                                e);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
+        }
+
+        return operationRecords;
+    }
+
+    private void processBlock(JsonParser parser, long blockNumber, List<OperationRecord> operationRecords)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("transactions".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                int transactionIndex = 0;
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    processTransaction(parser, blockNumber, transactionIndex++, operationRecords);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void processTransaction(JsonParser parser, long blockNumber, int transactionIndex,
+            List<OperationRecord> operationRecords) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("operations".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                int operationIndex = 0;
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    OperationRecord operationRecord = processOperation(parser, blockNumber, transactionIndex,
+                            operationIndex++);
+                    if (operationRecord != null) {
+                        operationRecords.add(operationRecord);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Process a single operation of the form [name, {fields}]. The parser is
+     * positioned at the start of the operation and will be positioned at its
+     * end afterwards.
+     */
+    private OperationRecord processOperation(JsonParser parser, long blockNumber, int transactionIndex,
+            int operationIndex) throws IOException {
+        if (parser.nextToken() != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            skipToEndOfArray(parser);
+            return null;
+        }
+
+        String operationType = parser.getText();
+        JsonToken fields = parser.nextToken();
+
+        OperationRecord operationRecord = null;
+        if (fields == JsonToken.START_OBJECT && acceptsOperationType(operationType)) {
+            Map<String, Object> operation = null;
+            Set<String> watchedAccountNames = accountNames;
+
+            if (watchedAccountNames.isEmpty()) {
+                operation = MAPPER.readValue(parser, OPERATION_TYPE);
+            } else {
+                // Buffer the tokens while looking for the watched accounts, so
+                // that only matching operations are materialized.
+                TokenBuffer tokenBuffer = new TokenBuffer(parser);
+                if (copyAndMatchAccounts(parser, tokenBuffer, watchedAccountNames)) {
+                    try (JsonParser bufferedParser = tokenBuffer.asParser(MAPPER)) {
+                        operation = MAPPER.readValue(bufferedParser, OPERATION_TYPE);
+                    }
+                }
+            }
+
+            if (operation != null) {
+                operationRecord = new OperationRecord(blockNumber, transactionIndex, operationIndex, operationType,
+                        operation);
+            }
+        } else {
+            parser.skipChildren();
+        }
+
+        skipToEndOfArray(parser);
+        return operationRecord;
+    }
+
+    /**
+     * Copy the object the parser is positioned at into the token buffer and
+     * check if one of its account fields contains a watched account name.
+     */
+    private static boolean copyAndMatchAccounts(JsonParser parser, TokenBuffer tokenBuffer,
+            Set<String> accountNames) throws IOException {
+        boolean matches = false;
+        // Whether the current field of each enclosing object is an account
+        // field, the innermost object first.
+        Deque<Boolean> accountFields = new ArrayDeque<>();
+        int depth = 0;
+
+        JsonToken token = parser.getCurrentToken();
+        do {
+            tokenBuffer.copyCurrentEvent(parser);
+
+            if (token == JsonToken.START_OBJECT) {
+                depth++;
+                accountFields.push(Boolean.FALSE);
+            } else if (token == JsonToken.START_ARRAY) {
+                depth++;
+            } else if (token == JsonToken.END_OBJECT) {
+                depth--;
+                accountFields.pop();
+            } else if (token == JsonToken.END_ARRAY) {
+                depth--;
+            } else if (token == JsonToken.FIELD_NAME) {
+                accountFields.pop();
+                accountFields.push(SteemApiWrapperUtil.isAccountNameField(parser.getCurrentName()));
+            } else if (token == JsonToken.VALUE_STRING && !matches && accountFields.peek()) {
+                matches = accountNames.contains(parser.getText());
+            }
+
+            if (depth == 0) {
+                return matches;
+            }
+
+            token = parser.nextToken();
+        } while (token != null);
+
+        throw new IOException("Unexpected end of the operation.");
+    }
+
+    private static void skipToEndOfArray(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Unexpected end of the operation.");
+            }
+            parser.skipChildren();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.util.Map;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * A single operation together with its position in the blockchain.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class OperationRecord {
+    private final long blockNumber;
+    private final int transactionIndex;
+    private final int operationIndex;
+    private final String operationType;
+    private final Map<String, Object> operation;
+    private final boolean virtual;
+
+    /**
+     * Create a new operation record.
+     *
+     * @param blockNumber
+     *            The number of the block that contains the operation.
+     * @param transactionIndex
+     *            The index of the transaction within the block.
+     * @param operationIndex
+     *            The index of the operation within the transaction.
+     * @param operationType
+     *            The type of the operation (e.g. "vote").
+     * @param operation
+     *            The fields of the operation.
+     */
+    public OperationRecord(long blockNumber, int transactionIndex, int operationIndex, String operationType,
+            Map<String, Object> operation) {
+        this(blockNumber, transactionIndex, operationIndex, operationType, operation, false);
+    }
+
+    /**
+     * Create a new operation record.
+     *
+     * @param blockNumber
+     *            The number of the block that contains the operation.
+     * @param transactionIndex
+     *            The index of the transaction within the block.
+     * @param operationIndex
+     *            The index of the operation within the transaction.
+     * @param operationType
+     *            The type of the operation (e.g. "vote").
+     * @param operation
+     *            The fields of the operation.
+     * @param virtual
+     *            True if the operation is a virtual operation (e.g.
+     *            "author_reward"), which has been created by the chain itself.
+     */
+    public OperationRecord(long blockNumber, int transactionIndex, int operationIndex, String operationType,
+            Map<String, Object> operation, boolean virtual) {
+        this.blockNumber = blockNumber;
+        this.transactionIndex = transactionIndex;
+        this.operationIndex = operationIndex;
+        this.operationType = operationType;
+        this.operation = operation;
+        this.virtual = virtual;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public int getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public int getOperationIndex() {
+        return operationIndex;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public Map<String, Object> getOperation() {
+        return operation;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
@@ -0,0 +1,210 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import eu.bittrade.libs.steem.api.wrapper.SteemApiWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+import eu.bittrade.libs.steem.api.wrapper.util.RequestUtil;
+
+/**
+ * This class requests the virtual operations of several blocks in parallel
+ * using "get_ops_in_block". The results are always returned in block order.
+ *
+ * <p>
+ * When used by a {@link BlockStream}, the virtual operations of the next
+ * blocks are requested ahead of time, so that the stream does not have to
+ * wait for them.
+ *
+ * @author http://steemit.com/@dez1337
+ */
+public class VirtualOperationFetcher implements Closeable {
+    /** The default number of blocks requested at the same time. */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final VirtualOperationSource virtualOperationSource;
+    private final int parallelism;
+    private final ExecutorService executorService;
+    private final ConcurrentMap<Long, Future<List<OperationRecord>>> prefetchedBlocks;
+
+    /**
+     * Create a new fetcher that uses the default parallelism.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the operations.
+     */
+    public VirtualOperationFetcher(SteemApiWrapper steemApiWrapper) {
+        this(steemApiWrapper, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a new fetcher.
+     *
+     * @param steemApiWrapper
+     *            The wrapper used to request the operations.
+     * @param parallelism
+     *            The number of blocks requested at the same time.
+     */
+    public VirtualOperationFetcher(SteemApiWrapper steemApiWrapper, int parallelism) {
+        this(steemApiWrapper::getOpsInBlock, parallelism);
+    }
+
+    /**
+     * Create a new fetcher.
+     *
+     * @param virtualOperationSource
+     *            The source used to request the operations.
+     * @param parallelism
+     *            The number of blocks requested at the same time.
+     */
+    public VirtualOperationFetcher(VirtualOperationSource virtualOperationSource, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism has to be greater than 0.");
+        }
+
+        this.virtualOperationSource = virtualOperationSource;
+        this.parallelism = parallelism;
+        this.executorService = RequestUtil.newDaemonThreadPool("virtual-operation-fetcher", parallelism);
+        this.prefetchedBlocks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the virtual operations of a range of blocks.
+     *
+     * @param startBlockNumber
+     *            The number of the first block.
+     * @param endBlockNumber
+     *            The number of the last block (inclusive).
+     * @return The virtual operations of each block, ordered by the block
+     *         number.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public Map<Long, List<OperationRecord>> fetchRange(long startBlockNumber, long endBlockNumber)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        Map<Long, Future<List<OperationRecord>>> requests = new LinkedHashMap<>();
+        for (long blockNumber = startBlockNumber; blockNumber <= endBlockNumber; blockNumber++) {
+            requests.put(blockNumber, submit(blockNumber));
+        }
+
+        Map<Long, List<OperationRecord>> virtualOperations = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Future<List<OperationRecord>>> request : requests.entrySet()) {
+                virtualOperations.put(request.getKey(),
+                        RequestUtil.await(request.getValue(), "the virtual operations"));
+            }
+        } finally {
+            RequestUtil.cancelAll(requests.values());
+        }
+
+        return virtualOperations;
+    }
+
+    /**
+     * Get the virtual operations of a single block and request the virtual
+     * operations of the following blocks in the background.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param lastAvailableBlockNumber
+     *            The number of the last block that can be requested ahead of
+     *            time.
+     * @return The virtual operations of the block.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public List<OperationRecord> fetchAhead(long blockNumber, long lastAvailableBlockNumber)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        // Drop requests for blocks that have been skipped.
+        prefetchedBlocks.keySet().removeIf(prefetchedBlockNumber -> prefetchedBlockNumber < blockNumber);
+
+        long lastPrefetchedBlockNumber = Math.min(blockNumber + parallelism - 1, lastAvailableBlockNumber);
+        for (long nextBlockNumber = blockNumber; nextBlockNumber <= lastPrefetchedBlockNumber; nextBlockNumber++) {
+            prefetchedBlocks.computeIfAbsent(nextBlockNumber, this::submit);
+        }
+
+        Future<List<OperationRecord>> request = prefetchedBlocks.remove(blockNumber);
+        return RequestUtil.await(request == null ? submit(blockNumber) : request, "the virtual operations");
+    }
+
+    /**
+     * Stop the background threads.
+     */
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    private Future<List<OperationRecord>> submit(long blockNumber) {
+        return executorService
+                .submit(() -> toOperationRecords(virtualOperationSource.getOpsInBlock(blockNumber, true)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<OperationRecord> toOperationRecords(List<AccountActivity> accountActivities) {
+        List<OperationRecord> operationRecords = new ArrayList<>(accountActivities.size());
+        for (AccountActivity accountActivity : accountActivities) {
+            Object[] operation = accountActivity.getOp();
+            operationRecords.add(new OperationRecord(accountActivity.getBlock(), accountActivity.getTrxInBlock(),
+                    accountActivity.getOpInTrx(), (String) operation[0], (Map<String, Object>) operation[1], true));
+        }
+
+        return operationRecords;
+    }
+
+    /**
+     * The source of the operations requested by a
+     * {@link VirtualOperationFetcher}.
+     */
+    @FunctionalInterface
+    public interface VirtualOperationSource {
+        /**
+         * Request the operations of a block.
+         *
+         * @param blockNumber
+         *            The number of the block.
+         * @param onlyVirtual
+         *            True if only the virtual operations should be returned.
+         * @return The operations in the order they have been applied.
+         * @throws SteemTimeoutException
+         *             If the server was not able to answer the request in the
+         *             given time (@see SteemApiWrapperConfig)
+         * @throws SteemConnectionException
+         *             If there is a connection problem.
+         * @throws SteemTransformationException
+         *             If the API Wrapper is unable to transform the JSON
+         *             response into a Java object.
+         * @throws SteemResponseError
+         *             If the Server returned an error object.
+         */
+        List<AccountActivity> getOpsInBlock(long blockNumber, boolean onlyVirtual)
+                throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError;
+    }
+}
@@ -0,0 +1,128 @@
+package eu.bittrade.libs.steem.api.wrapper.util;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+
+/**
+ * The base of the iterators that page through a listing of the node. While a
+ * page is consumed, the next page is requested in the background. At most the
+ * current and the next page are held in memory, independent of the size of
+ * the listing.
+ *
+ * <p>
+ * Implementations request the first page in their constructor using
+ * {@link #prefetch(Callable)} and decide in {@link #onPage(List)} which
+ * elements of a page are returned and if another page has to be requested.
+ *
+ * <p>
+ * <b>Notice:</b> As the {@link Iterator} interface does not allow checked
+ * exceptions, request errors are thrown as {@link SteemIterationException}
+ * which carries the original exception as its cause.
+ *
+ * @param <T>
+ *            The type of the elements.
+ * @author http://steemit.com/@dez1337
+ */
+public abstract class PrefetchingPageIterator<T> implements Iterator<T> {
+    private final ExecutorService prefetchExecutor;
+    private final String description;
+    private Future<List<T>> nextPage;
+    private Iterator<T> currentPage;
+
+    /**
+     * Create a new iterator.
+     *
+     * @param prefetchExecutor
+     *            The executor used to request the next page in the background.
+     * @param description
+     *            A description of the requested elements used in error
+     *            messages (e.g. "the trending tags").
+     */
+    protected PrefetchingPageIterator(ExecutorService prefetchExecutor, String description) {
+        this.prefetchExecutor = prefetchExecutor;
+        this.description = description;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (currentPage == null || !currentPage.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+
+            Future<List<T>> page = nextPage;
+            nextPage = null;
+            currentPage = onPage(await(page)).iterator();
+        }
+
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return currentPage.next();
+    }
+
+    /**
+     * @return A sequential stream over the remaining elements.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, getCharacteristics()), false);
+    }
+
+    /**
+     * Request a page in the background. Only one page can be requested at a
+     * time, so this is called at most once per call of
+     * {@link #onPage(List)}.
+     *
+     * @param request
+     *            The request of the page.
+     */
+    protected final void prefetch(Callable<List<T>> request) {
+        nextPage = prefetchExecutor.submit(request);
+    }
+
+    /**
+     * Handle a page received from the node and request the next page, if
+     * there is one.
+     *
+     * @param page
+     *            The page received from the node.
+     * @return The elements of the page that should be returned.
+     */
+    protected abstract List<T> onPage(List<T> page);
+
+    /**
+     * @return The characteristics of the stream returned by
+     *         {@link #stream()}.
+     */
+    protected int getCharacteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    private List<T> await(Future<List<T>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemIterationException("Interrupted while waiting for " + description + ".", e);
+        } catch (ExecutionException e) {
+            throw new SteemIterationException("Could not request " + description + ".", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package eu.bittrade.libs.steem.api.wrapper.util;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTimeoutException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+
+/**
+ * This class contains utility methods for requests that are performed in the
+ * background, e.g. by the fetchers that send several requests at once.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class RequestUtil {
+    /** The time an idle thread of a pool is kept in seconds. */
+    private static final long KEEP_ALIVE_TIME = 60;
+
+    /** Add a private constructor to hide the implicit public one. */
+    private RequestUtil() { }
+
+    /**
+     * Create a pool of daemon threads that runs at most the given number of
+     * requests at the same time and queues the others. Idle threads are
+     * stopped after a minute, so an unused pool does not hold any threads.
+     * 
+     * @param threadName
+     *            The name of the threads.
+     * @param maximumThreads
+     *            The maximum number of threads.
+     * @return The new pool.
+     */
+    public static ExecutorService newDaemonThreadPool(String threadName, int maximumThreads) {
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maximumThreads, maximumThreads,
+                KEEP_ALIVE_TIME, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Wait for a request and rethrow the exception of the request.
+     * 
+     * @param request
+     *            The request to wait for.
+     * @param description
+     *            A description of the requested data used in error messages
+     *            (e.g. "the content").
+     * @param <T>
+     *            The type of the response.
+     * @return The response.
+     * @throws SteemTimeoutException
+     *             If the server was not able to answer the request in the given
+     *             time (@see SteemApiWrapperConfig)
+     * @throws SteemConnectionException
+     *             If there is a connection problem or if the current thread
+     *             has been interrupted.
+     * @throws SteemTransformationException
+     *             If the API Wrapper is unable to transform the JSON response
+     *             into a Java object or if the request failed for another
+     *             reason.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     */
+    public static <T> T await(Future<T> request, String description)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemConnectionException("Interrupted while waiting for " + description + ".", e);
+        } catch (ExecutionException e) {
+            rethrowSteemException(e.getCause());
+            throw new SteemTransformationException("Could not request " + description + ".", e.getCause());
+        }
+    }
+
+    /**
+     * Rethrow the given exception if it is one of the checked exceptions of
+     * the wrapper. Otherwise this method returns normally and the caller has
+     * to handle the exception.
+     * 
+     * @param cause
+     *            The exception to rethrow.
+     * @throws SteemTimeoutException
+     *             If the given exception is a {@link SteemTimeoutException}.
+     * @throws SteemConnectionException
+     *             If the given exception is a
+     *             {@link SteemConnectionException}.
+     * @throws SteemTransformationException
+     *             If the given exception is a
+     *             {@link SteemTransformationException}.
+     * @throws SteemResponseError
+     *             If the given exception is a {@link SteemResponseError}.
+     */
+    public static void rethrowSteemException(Throwable cause)
+            throws SteemTimeoutException, SteemConnectionException, SteemTransformationException, SteemResponseError {
+        if (cause instanceof SteemTimeoutException) {
+            throw (SteemTimeoutException) cause;
+        } else if (cause instanceof SteemConnectionException) {
+            throw (SteemConnectionException) cause;
+        } else if (cause instanceof SteemTransformationException) {
+            throw (SteemTransformationException) cause;
+        } else if (cause instanceof SteemResponseError) {
+            throw (SteemResponseError) cause;
+        }
+    }
+
+    /**
+     * Cancel all requests that are still running. This is used after one of
+     * several requests failed, so that the remaining requests do not waste
+     * the capacity of the node.
+     * 
+     * @param requests
+     *            The requests to cancel. Null elements are ignored.
+     */
+    public static void cancelAll(Collection<? extends Future<?>> requests) {
+        for (Future<?> request : requests) {
+            if (request != null) {
+                request.cancel(true);
+            }
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package eu.bittrade.libs.steem.api.wrapper.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -14,9 +19,30 @@ import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
 public class SteemApiWrapperUtil {
     private static final Logger LOGGER = LogManager.getLogger(SteemApiWrapperUtil.class);
 
+    /** The names of operation fields whose values are account names. */
+    private static final Set<String> ACCOUNT_NAME_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "account", "agent", "author", "comment_author", "creator", "curator", "current_owner", "delegatee",
+            "delegator", "from", "from_account", "new_account_name", "open_owner", "owner", "parent_author",
+            "producer", "proxy", "publisher", "recovery_account", "account_to_recover", "new_recovery_account",
+            "required_auths", "required_posting_auths", "reset_account", "to", "to_account", "voter", "witness",
+            "who")));
+
     /** Add a private constructor to hide the implicit public one. */
     private SteemApiWrapperUtil() { }
-    
+
+    /**
+     * Check if the values of the given operation field are account names.
+     * 
+     * @param fieldName
+     *            The name of the field as used in the JSON representation of
+     *            an operation (e.g. "voter").
+     * @return True if the field contains an account name or a list of account
+     *         names.
+     */
+    public static boolean isAccountNameField(String fieldName) {
+        return ACCOUNT_NAME_FIELDS.contains(fieldName);
+    }
+
     public static RequestMethods getEquivalentRequestMethod(DiscussionSortType discussionSortType) {
         switch (discussionSortType) {
         case SORT_BY_ACTIVE:
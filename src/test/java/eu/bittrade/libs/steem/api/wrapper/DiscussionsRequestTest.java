@@ -0,0 +1,59 @@
+package eu.bittrade.libs.steem.api.wrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.models.DiscussionSummary;
+
+/**
+ * Tests the requests of the discussion listings without a connection to a
+ * node.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionsRequestTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static JsonNode toQuery(final String startAuthor, final String startPermlink, final int truncateBody)
+			throws Exception {
+		final String request = SteemApiWrapper.createGetDiscussionsRequest("steemit", 10,
+				DiscussionSortType.SORT_BY_CREATED, startAuthor, startPermlink, truncateBody).toString();
+		return MAPPER.readTree(request).get("params").get(2).get(0);
+	}
+
+	@Test
+	public void testSummaryRequest() throws Exception {
+		// The summaries are requested with a body truncated to one character.
+		final JsonNode query = toQuery(null, null, 1);
+
+		assertEquals("expect the truncation", 1, query.get("truncate_body").asInt());
+		assertEquals("expect the tag", "steemit", query.get("tag").asText());
+		assertFalse("expect no start author for the first page", query.has("start_author"));
+		assertFalse("expect no start permlink for the first page", query.has("start_permlink"));
+	}
+
+	@Test
+	public void testFollowingPageRequest() throws Exception {
+		final JsonNode query = toQuery("dez1337", "permlink", 0);
+
+		assertEquals("expect the start author", "dez1337", query.get("start_author").asText());
+		assertEquals("expect the start permlink", "permlink", query.get("start_permlink").asText());
+		assertFalse("expect no truncation of the complete discussions", query.has("truncate_body"));
+	}
+
+	@Test
+	public void testSummaryResponse() throws Exception {
+		final DiscussionSummary discussionSummary = MAPPER.readValue(
+				"{\"id\":1,\"author\":\"dez1337\",\"permlink\":\"permlink\",\"body\":\"T\",\"depth\":0}",
+				DiscussionSummary.class);
+
+		assertEquals("expect the author", "dez1337", discussionSummary.getAuthor());
+		assertEquals("expect the permlink", "permlink", discussionSummary.getPermlink());
+	}
+}
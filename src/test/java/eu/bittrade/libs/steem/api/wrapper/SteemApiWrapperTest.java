@@ -1,6 +1,7 @@
 package eu.bittrade.libs.steem.api.wrapper;
 
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
@@ -10,7 +11,11 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -20,11 +25,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.discussions.DiscussionIterator;
 import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.history.AccountHistoryIterator;
 import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
 import eu.bittrade.libs.steem.api.wrapper.models.ChainProperties;
 import eu.bittrade.libs.steem.api.wrapper.models.Config;
 import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+import eu.bittrade.libs.steem.api.wrapper.models.DiscussionSummary;
 import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
 import eu.bittrade.libs.steem.api.wrapper.models.TrendingTag;
 import eu.bittrade.libs.steem.api.wrapper.models.Version;
@@ -55,6 +64,21 @@ public class SteemApiWrapperTest extends BaseTest {
 		// TODO write assertions
 	}
 
+	@Category({ PublicNode.class, PrivateNode.class })
+	@Test
+	public void testAccountHistoryIterator() throws Exception {
+		final AccountHistoryIterator oldestFirst = new AccountHistoryIterator(steemApiWrapper, ACCOUNT, 0, false, 10);
+		for (int sequenceNumber = 0; sequenceNumber < 25; sequenceNumber++) {
+			assertEquals("expect ascending sequence numbers", Integer.valueOf(sequenceNumber),
+					oldestFirst.next().getKey());
+		}
+
+		final AccountHistoryIterator newestFirst = new AccountHistoryIterator(steemApiWrapper, ACCOUNT, true);
+		final int newestSequenceNumber = newestFirst.next().getKey();
+		assertEquals("expect descending sequence numbers", Integer.valueOf(newestSequenceNumber - 1),
+				newestFirst.next().getKey());
+	}
+
 	@Category({ PublicNode.class, PrivateNode.class })
 	@Test
 	public void testInvalidAccountVotes() throws Exception {
@@ -244,6 +268,30 @@ public class SteemApiWrapperTest extends BaseTest {
 		assertThat("expect replies greater than zero", replies.size(), greaterThan(0));
 	}
 
+	@Category({ PublicNode.class, PrivateNode.class })
+	@Test
+	public void testGetCommentTree() throws Exception {
+		final Discussion discussion = steemApiWrapper.getCommentTree(ACCOUNT, PERMLINK, 2, true);
+
+		assertThat("expect replies greater than zero", discussion.getReplies().size(), greaterThan(0));
+		assertNotNull("expect the active votes of the replies", discussion.getReplies().get(0).getActiveVotes());
+	}
+
+	@Category({ PublicNode.class, PrivateNode.class })
+	@Test
+	public void testGetContents() throws Exception {
+		final List<Discussion> replies = steemApiWrapper.getContentReplies(ACCOUNT, PERMLINK);
+		final List<AuthorPermlink> authorPermlinks = new ArrayList<>();
+		for (final Discussion reply : replies) {
+			authorPermlinks.add(new AuthorPermlink(reply.getAuthor(), reply.getPermlink()));
+		}
+
+		final Map<AuthorPermlink, Discussion> contents = steemApiWrapper.getContents(authorPermlinks);
+		assertEquals("expect the input order", authorPermlinks, new ArrayList<>(contents.keySet()));
+		assertEquals("expect the requested content", replies.get(0).getBody(),
+				contents.get(authorPermlinks.get(0)).getBody());
+	}
+
 	@Category({ PublicNode.class, PrivateNode.class })
 	@Test
 	public void testActiveVotes() throws Exception {
@@ -310,6 +358,34 @@ public class SteemApiWrapperTest extends BaseTest {
     }
   }
 
+	@Category({ PublicNode.class, PrivateNode.class })
+	@Test
+	public void testTruncatedDiscussions() throws Exception {
+		final List<Discussion> discussions = steemApiWrapper.getDiscussionsBy("steemit", 5,
+				DiscussionSortType.SORT_BY_CREATED, null, null, 10);
+		for (final Discussion discussion : discussions) {
+			assertThat("expect truncated bodies", discussion.getBody().length(), lessThanOrEqualTo(10));
+		}
+
+		final List<DiscussionSummary> discussionSummaries = steemApiWrapper.getDiscussionSummariesBy("steemit", 5,
+				DiscussionSortType.SORT_BY_CREATED, null, null);
+		assertEquals("expect the same listing", discussions.get(0).getPermlink(),
+				discussionSummaries.get(0).getPermlink());
+	}
+
+	@Category({ PublicNode.class, PrivateNode.class })
+	@Test
+	public void testDiscussionIterator() throws Exception {
+		final DiscussionIterator discussionIterator = new DiscussionIterator(steemApiWrapper, "steemit",
+				DiscussionSortType.SORT_BY_CREATED, 5);
+		final Set<String> permlinks = new HashSet<>();
+		for (int i = 0; i < 12; i++) {
+			final Discussion discussion = discussionIterator.next();
+			assertTrue("expect no duplicates at the page boundaries",
+					permlinks.add(discussion.getAuthor() + "/" + discussion.getPermlink()));
+		}
+	}
+
 	@Category({ PublicNode.class, PrivateNode.class })
 	@Ignore("not fully implemented")
 	@Test
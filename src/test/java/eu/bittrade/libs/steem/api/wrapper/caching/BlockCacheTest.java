@@ -0,0 +1,97 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.streaming.OperationPipeline;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockCacheTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private Block block;
+
+	@Before
+	public void setUp() throws Exception {
+		block = MAPPER.readValue(getClass().getResourceAsStream("/block-1000000.json"), Block.class);
+	}
+
+	@Test
+	public void testBlocksAndHeaders() throws Exception {
+		for (final boolean offHeap : new boolean[] { false, true }) {
+			final BlockCache blockCache = new BlockCache(BlockCache.DEFAULT_MAXIMUM_BYTES, offHeap);
+
+			blockCache.putBlockHeader(1000000, block);
+			assertNull("expect no block for a cached header", blockCache.getBlock(1000000));
+
+			blockCache.putBlock(1000000, block);
+			assertEquals("expect the cached block", MAPPER.writeValueAsString(block),
+					MAPPER.writeValueAsString(blockCache.getBlock(1000000)));
+			assertEquals("expect the header of the cached block", block.getWitness(),
+					blockCache.getBlockHeader(1000000).getWitness());
+			assertEquals("expect the operations of the cached block", 3,
+					blockCache.getOperations(1000000, new OperationPipeline()).size());
+
+			blockCache.putBlockHeader(1000000, block);
+			assertNotNull("expect the block to be kept", blockCache.getBlock(1000000));
+		}
+	}
+
+	@Test
+	public void testByteBudget() throws Exception {
+		final BlockCache probe = new BlockCache();
+		probe.putBlock(1, block);
+		final long firstBlockSize = probe.getUsedBytes();
+		probe.putBlock(2, block);
+		// The second block does not add entries to the dictionary.
+		final long blockSize = probe.getUsedBytes() - firstBlockSize;
+		final long dictionarySize = firstBlockSize - blockSize;
+
+		final BlockCache blockCache = new BlockCache(dictionarySize + blockSize * 2, false);
+		blockCache.putBlock(1, block);
+		blockCache.putBlock(2, block);
+		blockCache.getBlock(1);
+		blockCache.putBlock(3, block);
+
+		assertEquals("expect the budget to be respected", dictionarySize + blockSize * 2,
+				blockCache.getUsedBytes());
+		assertNull("expect the least recently used block to be evicted", blockCache.getBlock(2));
+		assertNotNull("expect the recently used block to be kept", blockCache.getBlock(1));
+	}
+
+	@Test
+	public void testDictionaryBudget() throws Exception {
+		final BlockCache probe = new BlockCache();
+		probe.putBlock(1, block);
+		final long maximumBytes = probe.getUsedBytes() * 3;
+
+		final BlockCache blockCache = new BlockCache(maximumBytes, false);
+		for (int blockNumber = 1; blockNumber <= 500; blockNumber++) {
+			// Every block adds a new account name to the dictionary.
+			blockCache.putBlock(blockNumber, withWitness("witness-" + blockNumber));
+			assertTrue("expect the dictionary to be part of the budget", blockCache.getUsedBytes() <= maximumBytes);
+		}
+
+		assertEquals("expect the latest block to be decoded with its dictionary", "witness-500",
+				blockCache.getBlock(500).getWitness());
+		assertEquals("expect the operations of the latest block", 3,
+				blockCache.getOperations(500, new OperationPipeline()).size());
+	}
+
+	private Block withWitness(final String witness) throws Exception {
+		final ObjectNode encodedBlock = MAPPER.valueToTree(block);
+		encodedBlock.put("witness", witness);
+		return MAPPER.treeToValue(encodedBlock, Block.class);
+	}
+}
@@ -0,0 +1,96 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class ContentCacheTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	public void testInvalidationByBlock() throws Exception {
+		final Block block = MAPPER.readValue(getClass().getResourceAsStream("/block-1000000.json"), Block.class);
+		final AuthorPermlink votedPost = new AuthorPermlink("inertia", "steem-api-wrapper-for-java");
+		final AuthorPermlink otherPost = new AuthorPermlink("inertia", "something-else");
+		final ContentCache contentCache = new ContentCache();
+
+		contentCache.putDiscussion(votedPost, new Discussion(null, null));
+		contentCache.putActiveVotes(votedPost, Collections.<ActiveVote> emptyList());
+		contentCache.putDiscussion(otherPost, new Discussion(null, null));
+		assertNotNull("expect the cached content", contentCache.getDiscussion(votedPost));
+		assertNotNull("expect the cached votes", contentCache.getActiveVotes(votedPost));
+
+		contentCache.onBlock(1000000, block);
+
+		assertNull("expect the voted post to be removed", contentCache.getDiscussion(votedPost));
+		assertNull("expect the votes of the voted post to be removed", contentCache.getActiveVotes(votedPost));
+		assertNotNull("expect other posts to be kept", contentCache.getDiscussion(otherPost));
+		assertEquals("expect one invalidation", 1, contentCache.getInvalidationCount());
+		assertEquals("expect three hits", 3, contentCache.getHitCount());
+		assertEquals("expect two misses", 2, contentCache.getMissCount());
+	}
+
+	@Test
+	public void testMaximumSize() throws Exception {
+		final ContentCache contentCache = new ContentCache(2);
+
+		contentCache.putDiscussion(new AuthorPermlink("a", "1"), new Discussion(null, null));
+		contentCache.putDiscussion(new AuthorPermlink("a", "2"), new Discussion(null, null));
+		contentCache.getDiscussion(new AuthorPermlink("a", "1"));
+		contentCache.putDiscussion(new AuthorPermlink("a", "3"), new Discussion(null, null));
+
+		assertEquals("expect the maximum size", 2, contentCache.size());
+		assertNull("expect the least recently used entry to be removed",
+				contentCache.getDiscussion(new AuthorPermlink("a", "2")));
+	}
+
+	@Test
+	public void testInvalidationDuringRequest() throws Exception {
+		final AuthorPermlink post = new AuthorPermlink("inertia", "steem-api-wrapper-for-java");
+		final ContentCache contentCache = new ContentCache();
+
+		final long generation = contentCache.getGeneration(post);
+		// The post changes while its content is requested.
+		contentCache.invalidate(post);
+		assertFalse("expect the outdated content to be skipped",
+				contentCache.putDiscussion(post, new Discussion(null, null), generation));
+		contentCache.putActiveVotes(post, Collections.<ActiveVote> emptyList(), generation);
+		assertNull("expect no cached content", contentCache.getDiscussion(post));
+		assertNull("expect no cached votes", contentCache.getActiveVotes(post));
+
+		assertTrue("expect the content of a new request to be added", contentCache.putDiscussion(post,
+				new Discussion(null, null), contentCache.getGeneration(post)));
+		assertNotNull("expect the cached content", contentCache.getDiscussion(post));
+	}
+
+	@Test
+	public void testActiveVotesAreCopied() throws Exception {
+		final AuthorPermlink post = new AuthorPermlink("inertia", "steem-api-wrapper-for-java");
+		final ContentCache contentCache = new ContentCache();
+		final List<ActiveVote> activeVotes = new ArrayList<>();
+
+		contentCache.putActiveVotes(post, activeVotes, contentCache.getGeneration(post));
+		activeVotes.add(MAPPER.convertValue(Collections.singletonMap("voter", "dez1337"), ActiveVote.class));
+
+		assertTrue("expect the cached votes to be independent of the given list",
+				contentCache.getActiveVotes(post).isEmpty());
+	}
+}
@@ -0,0 +1,137 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
+import eu.bittrade.libs.steem.api.wrapper.communication.SteemApis;
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class DiskResponseCacheTest {
+	private static final String NODE = "wss://node.steem.ws";
+
+	private static RequestWrapper createRequest(long blockNumber) {
+		final RequestWrapper requestObject = new RequestWrapper();
+		requestObject.setApiMethod(RequestMethods.GET_BLOCK);
+		requestObject.setSteemApi(SteemApis.DATABASE_API);
+		requestObject.setAdditionalParameters(new String[] { String.valueOf(blockNumber) });
+		return requestObject;
+	}
+
+	@Test
+	public void testPersistence() throws Exception {
+		final Path directory = Files.createTempDirectory("responses");
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 64)) {
+			assertTrue("expect the first instance to be writable", diskResponseCache.isWritable());
+			assertNull("expect a miss for an empty cache", diskResponseCache.get(NODE, createRequest(1)));
+
+			for (long blockNumber = 1; blockNumber <= 10; blockNumber++) {
+				assertTrue("expect the response to be added", diskResponseCache.put(NODE, createRequest(blockNumber),
+						"{\"id\":" + blockNumber + ",\"result\":\"block " + blockNumber + "\"}"));
+			}
+			assertFalse("expect stored responses to be kept",
+					diskResponseCache.put(NODE, createRequest(1), "{\"id\":1,\"result\":\"changed\"}"));
+
+			try (DiskResponseCache reader = new DiskResponseCache(directory, 64)) {
+				assertFalse("expect the second instance to be read only", reader.isWritable());
+				assertEquals("expect the response of the writer", "{\"id\":3,\"result\":\"block 3\"}",
+						reader.get(NODE, createRequest(3)));
+
+				diskResponseCache.put(NODE, createRequest(11), "{\"id\":11,\"result\":\"block 11\"}");
+				assertEquals("expect the reader to see new responses", "{\"id\":11,\"result\":\"block 11\"}",
+						reader.get(NODE, createRequest(11)));
+				assertFalse("expect a read only cache to ignore new responses",
+						reader.put(NODE, createRequest(12), "{}"));
+			}
+		}
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 64)) {
+			assertTrue("expect the lock to be released", diskResponseCache.isWritable());
+			assertEquals("expect all responses after a restart", 11, diskResponseCache.size());
+			assertEquals("expect the first response", "{\"id\":1,\"result\":\"block 1\"}",
+					diskResponseCache.get(NODE, createRequest(1)));
+			assertEquals("expect the last response", "{\"id\":10,\"result\":\"block 10\"}",
+					diskResponseCache.get(NODE, createRequest(10)));
+		}
+	}
+
+	@Test
+	public void testExpiration() throws Exception {
+		final Path directory = Files.createTempDirectory("responses");
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 1024)) {
+			assertTrue("expect the response to be added", diskResponseCache.put(NODE, createRequest(1),
+					"{\"id\":1,\"result\":\"old\"}", System.currentTimeMillis() - 1));
+			assertNull("expect no expired response", diskResponseCache.get(NODE, createRequest(1)));
+
+			assertTrue("expect an expired response to be replaced", diskResponseCache.put(NODE, createRequest(1),
+					"{\"id\":1,\"result\":\"new\"}", System.currentTimeMillis() + 60000));
+			assertFalse("expect a valid response to be kept",
+					diskResponseCache.put(NODE, createRequest(1), "{\"id\":1,\"result\":\"newer\"}"));
+			assertEquals("expect the new response", "{\"id\":1,\"result\":\"new\"}",
+					diskResponseCache.get(NODE, createRequest(1)));
+		}
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 1024)) {
+			assertEquals("expect the latest response after a restart", "{\"id\":1,\"result\":\"new\"}",
+					diskResponseCache.get(NODE, createRequest(1)));
+		}
+	}
+
+	@Test
+	public void testNodes() throws Exception {
+		final Path directory = Files.createTempDirectory("responses");
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 1024)) {
+			diskResponseCache.put(NODE, createRequest(1), "{\"id\":1,\"result\":\"main\"}");
+			assertNull("expect no response of another node",
+					diskResponseCache.get("wss://testnet.steem.ws", createRequest(1)));
+
+			assertTrue("expect the response of another node to be added", diskResponseCache
+					.put("wss://testnet.steem.ws", createRequest(1), "{\"id\":1,\"result\":\"test\"}"));
+			assertEquals("expect the response of the node", "{\"id\":1,\"result\":\"main\"}",
+					diskResponseCache.get(NODE, createRequest(1)));
+		}
+	}
+
+	@Test
+	public void testWindows() throws Exception {
+		final Path directory = Files.createTempDirectory("responses");
+		final StringBuilder largeResult = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			largeResult.append("large ");
+		}
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 4096, 128)) {
+			for (long blockNumber = 1; blockNumber <= 50; blockNumber++) {
+				// Every tenth response is larger than a window.
+				final String result = blockNumber % 10 == 0 ? largeResult.toString() : "block " + blockNumber;
+				diskResponseCache.put(NODE, createRequest(blockNumber),
+						"{\"id\":" + blockNumber + ",\"result\":\"" + result + "\"}");
+				assertEquals("expect the new response to be readable at the end of the segment",
+						"{\"id\":" + blockNumber + ",\"result\":\"" + result + "\"}",
+						diskResponseCache.get(NODE, createRequest(blockNumber)));
+			}
+		}
+
+		try (DiskResponseCache diskResponseCache = new DiskResponseCache(directory, 4096, 128)) {
+			for (long blockNumber = 50; blockNumber >= 1; blockNumber--) {
+				final String result = blockNumber % 10 == 0 ? largeResult.toString() : "block " + blockNumber;
+				assertEquals("expect every response after a restart",
+						"{\"id\":" + blockNumber + ",\"result\":\"" + result + "\"}",
+						diskResponseCache.get(NODE, createRequest(blockNumber)));
+			}
+		}
+	}
+}
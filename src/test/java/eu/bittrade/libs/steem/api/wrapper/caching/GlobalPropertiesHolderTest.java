@@ -0,0 +1,99 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.caching.GlobalPropertiesHolder.GlobalPropertiesSource;
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class GlobalPropertiesHolderTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final AtomicLong headBlockNumber = new AtomicLong(10);
+	private final AtomicInteger requests = new AtomicInteger();
+
+	/**
+	 * A source whose head block has been produced just now.
+	 */
+	private final GlobalPropertiesSource globalPropertiesSource = () -> {
+		requests.incrementAndGet();
+		final Map<String, Object> globalProperties = new HashMap<>();
+		globalProperties.put("head_block_number", headBlockNumber.get());
+		globalProperties.put("time", LocalDateTime.now(ZoneOffset.UTC).withNano(0).toString());
+		return MAPPER.convertValue(globalProperties, GlobalProperties.class);
+	};
+
+	@Test
+	public void testBackOffWhileHeadStalls() throws Exception {
+		final GlobalPropertiesHolder globalPropertiesHolder = new GlobalPropertiesHolder(globalPropertiesSource,
+				3000);
+
+		final long firstDelay = globalPropertiesHolder.update();
+		assertTrue("expect to wait for the next block", firstDelay > 2000 && firstDelay <= 3500);
+
+		final long[] expectedDelays = { 250, 500, 1000, 2000, 3000, 3000 };
+		for (final long expectedDelay : expectedDelays) {
+			assertEquals("expect to back off while the head does not change", expectedDelay,
+					globalPropertiesHolder.update());
+		}
+
+		headBlockNumber.incrementAndGet();
+		assertTrue("expect to wait for the next block", globalPropertiesHolder.update() > 2000);
+		assertEquals("expect to start over after a new block", GlobalPropertiesHolder.MINIMAL_REFRESH_DELAY,
+				globalPropertiesHolder.update());
+	}
+
+	@Test
+	public void testBlockInterval() throws Exception {
+		final GlobalPropertiesHolder globalPropertiesHolder = new GlobalPropertiesHolder(globalPropertiesSource,
+				1000);
+
+		assertTrue("expect to wait at most the block interval", globalPropertiesHolder.update() <= 1500);
+		globalPropertiesHolder.update();
+		globalPropertiesHolder.update();
+		globalPropertiesHolder.update();
+		assertEquals("expect the block interval as the longest back off", 1000, globalPropertiesHolder.update());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBlockInterval() {
+		new GlobalPropertiesHolder(globalPropertiesSource, 0);
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		final GlobalPropertiesHolder globalPropertiesHolder = new GlobalPropertiesHolder(() -> {
+			// Produce a new block on every request.
+			headBlockNumber.incrementAndGet();
+			return globalPropertiesSource.request();
+		}, 3000);
+
+		globalPropertiesHolder.start();
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (globalPropertiesHolder.getGlobalProperties() == null && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals("expect the properties of the first request", 11,
+				globalPropertiesHolder.getGlobalProperties().getHeadBlockNumber());
+
+		globalPropertiesHolder.close();
+		final int requestsAfterClose = requests.get();
+		Thread.sleep(2 * GlobalPropertiesHolder.MINIMAL_REFRESH_DELAY);
+		assertEquals("expect no requests after the holder has been closed", requestsAfterClose, requests.get());
+	}
+}
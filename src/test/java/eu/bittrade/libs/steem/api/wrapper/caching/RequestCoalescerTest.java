@@ -0,0 +1,170 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
+import eu.bittrade.libs.steem.api.wrapper.communication.SteemApis;
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemTransformationException;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class RequestCoalescerTest {
+	private static RequestWrapper createRequest() {
+		final RequestWrapper requestObject = new RequestWrapper();
+		requestObject.setSteemApi(SteemApis.DATABASE_API);
+		requestObject.setApiMethod(RequestMethods.GET_CONTENT);
+		requestObject.setAdditionalParameters(new String[] { "dez1337", "permlink" });
+		return requestObject;
+	}
+
+	@Test
+	public void testIdenticalRequestsShareOneCall() throws Exception {
+		final RequestCoalescer requestCoalescer = new RequestCoalescer();
+		final AtomicInteger performedRequests = new AtomicInteger();
+		final CountDownLatch releaseRequest = new CountDownLatch(1);
+		final ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+		try {
+			final List<Future<List<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executorService.submit(() -> {
+					final RequestWrapper requestObject = new RequestWrapper();
+					requestObject.setSteemApi(SteemApis.DATABASE_API);
+					requestObject.setApiMethod(RequestMethods.GET_CONTENT);
+					requestObject.setAdditionalParameters(new String[] { "dez1337", "permlink" });
+
+					return requestCoalescer.perform(requestObject, String.class, () -> {
+						performedRequests.incrementAndGet();
+						try {
+							releaseRequest.await();
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return Collections.singletonList("content");
+					});
+				}));
+			}
+
+			// Wait until the first request is in flight and give the others
+			// some time to join it.
+			while (requestCoalescer.getInFlightCount() == 0) {
+				Thread.sleep(1);
+			}
+			Thread.sleep(100);
+			releaseRequest.countDown();
+
+			for (final Future<List<String>> result : results) {
+				assertEquals("expect the shared result", "content", result.get().get(0));
+			}
+			assertEquals("expect a single request", 1, performedRequests.get());
+			assertEquals("expect no request in flight", 0, requestCoalescer.getInFlightCount());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testFailingRequestReleasesWaitingRequests() throws Exception {
+		final RequestCoalescer requestCoalescer = new RequestCoalescer();
+		final CountDownLatch releaseRequest = new CountDownLatch(1);
+		final AssertionError failure = new AssertionError("failure");
+		final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+		try {
+			final Future<List<String>> leader = executorService
+					.submit(() -> requestCoalescer.perform(createRequest(), String.class, () -> {
+						try {
+							releaseRequest.await();
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						throw failure;
+					}));
+			while (requestCoalescer.getInFlightCount() == 0) {
+				Thread.sleep(1);
+			}
+			final Future<List<String>> follower = executorService.submit(() -> requestCoalescer
+					.perform(createRequest(), String.class, () -> Collections.singletonList("content")));
+			// Give the second request some time to join the first one.
+			Thread.sleep(100);
+			releaseRequest.countDown();
+
+			try {
+				leader.get();
+				fail("expect the first request to fail");
+			} catch (final ExecutionException e) {
+				assertSame("expect the original error", failure, e.getCause());
+			}
+			try {
+				follower.get();
+				fail("expect the joined request to fail");
+			} catch (final ExecutionException e) {
+				assertTrue("expect the error to be wrapped",
+						e.getCause() instanceof SteemTransformationException);
+				assertSame("expect the original error as cause", failure, e.getCause().getCause());
+			}
+			assertEquals("expect no request in flight", 0, requestCoalescer.getInFlightCount());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testRequestSentBeforeTicketIsNotJoined() throws Exception {
+		final RequestCoalescer requestCoalescer = new RequestCoalescer();
+		final CountDownLatch releaseRequest = new CountDownLatch(1);
+		final ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+		try {
+			// The ticket of a caller that read the generation of the content
+			// cache before the first request has been sent.
+			final long earlyTicket = requestCoalescer.nextTicket();
+			final Future<List<String>> outdated = executorService
+					.submit(() -> requestCoalescer.perform(createRequest(), String.class, () -> {
+						try {
+							releaseRequest.await();
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return Collections.singletonList("outdated");
+					}));
+			while (requestCoalescer.getInFlightCount() == 0) {
+				Thread.sleep(1);
+			}
+
+			// The content is invalidated now and the next caller reads the
+			// new generation, so it must not receive the outdated response.
+			final long lateTicket = requestCoalescer.nextTicket();
+			final Future<List<String>> current = executorService.submit(() -> requestCoalescer
+					.perform(createRequest(), String.class, () -> Collections.singletonList("current"), lateTicket));
+			final Future<List<String>> joined = executorService.submit(() -> requestCoalescer
+					.perform(createRequest(), String.class, () -> Collections.singletonList("joined"), earlyTicket));
+
+			assertEquals("expect a request of its own", "current", current.get().get(0));
+			// Give the early caller some time to join the first request.
+			Thread.sleep(100);
+			releaseRequest.countDown();
+			assertEquals("expect the response of the first request", "outdated", outdated.get().get(0));
+			assertEquals("expect the early caller to join the first request", "outdated", joined.get().get(0));
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package eu.bittrade.libs.steem.api.wrapper.caching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.RequestMethods;
+import eu.bittrade.libs.steem.api.wrapper.communication.SteemApis;
+import eu.bittrade.libs.steem.api.wrapper.communication.dto.RequestWrapper;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class ResponseCacheTest {
+	private static RequestWrapper createRequest(RequestMethods requestMethod, String... parameters) {
+		final RequestWrapper requestObject = new RequestWrapper();
+		requestObject.setSteemApi(SteemApis.DATABASE_API);
+		requestObject.setApiMethod(requestMethod);
+		requestObject.setAdditionalParameters(parameters);
+		return requestObject;
+	}
+
+	@Test
+	public void testHitsAndMisses() throws Exception {
+		final ResponseCache responseCache = new ResponseCache();
+
+		assertFalse("expect blocks not to be cached by default", responseCache.isCacheable(RequestMethods.GET_BLOCK));
+		assertNull("expect a miss", responseCache.get(createRequest(RequestMethods.GET_CONFIG), String.class));
+
+		responseCache.put(createRequest(RequestMethods.GET_CONFIG), String.class, Arrays.asList("config"));
+		assertEquals("expect a hit for a new request with the same parameters", "config",
+				responseCache.get(createRequest(RequestMethods.GET_CONFIG), String.class).get(0));
+		assertNull("expect a miss for another target class",
+				responseCache.get(createRequest(RequestMethods.GET_CONFIG), Object.class));
+
+		assertEquals("expect one hit", 1, responseCache.getHitCount());
+		assertEquals("expect two misses", 2, responseCache.getMissCount());
+
+		responseCache.setTimeToLive(RequestMethods.GET_CONFIG, 0);
+		assertEquals("expect the entry to be invalidated", 0, responseCache.size());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		final ResponseCache leastRecentlyUsed = new ResponseCache(2, EvictionPolicy.LEAST_RECENTLY_USED);
+		final ResponseCache leastFrequentlyUsed = new ResponseCache(2, EvictionPolicy.LEAST_FREQUENTLY_USED);
+
+		for (final ResponseCache responseCache : Arrays.asList(leastRecentlyUsed, leastFrequentlyUsed)) {
+			responseCache.put(createRequest(RequestMethods.GET_CONFIG), String.class,
+					Collections.singletonList("a"));
+			responseCache.put(createRequest(RequestMethods.GET_VERSION), String.class,
+					Collections.singletonList("b"));
+			// Use the first entry twice and the second one once.
+			responseCache.get(createRequest(RequestMethods.GET_CONFIG), String.class);
+			responseCache.get(createRequest(RequestMethods.GET_CONFIG), String.class);
+			responseCache.get(createRequest(RequestMethods.GET_VERSION), String.class);
+
+			responseCache.put(createRequest(RequestMethods.GET_HARDFORK_VERSION), String.class,
+					Collections.singletonList("c"));
+			assertEquals("expect one eviction", 1, responseCache.getEvictionCount());
+		}
+
+		assertNull("expect the least recently used entry to be evicted",
+				leastRecentlyUsed.get(createRequest(RequestMethods.GET_CONFIG), String.class));
+		assertNotNull("expect the least frequently used entry to be evicted",
+				leastFrequentlyUsed.get(createRequest(RequestMethods.GET_CONFIG), String.class));
+		assertNull("expect the least frequently used entry to be evicted",
+				leastFrequentlyUsed.get(createRequest(RequestMethods.GET_VERSION), String.class));
+	}
+
+	@Test
+	public void testFrequencyBuckets() throws Exception {
+		final ResponseCache responseCache = new ResponseCache(3, EvictionPolicy.LEAST_FREQUENTLY_USED);
+		final RequestWrapper a = createRequest(RequestMethods.GET_CONFIG);
+		final RequestWrapper b = createRequest(RequestMethods.GET_VERSION);
+		final RequestWrapper c = createRequest(RequestMethods.GET_HARDFORK_VERSION);
+		final RequestWrapper d = createRequest(RequestMethods.GET_CHAIN_PROPERTIES);
+
+		responseCache.put(a, String.class, Collections.singletonList("a"));
+		responseCache.put(b, String.class, Collections.singletonList("b"));
+		responseCache.put(c, String.class, Collections.singletonList("c"));
+		responseCache.get(a, String.class);
+		responseCache.get(a, String.class);
+		responseCache.get(b, String.class);
+		responseCache.get(c, String.class);
+		responseCache.get(c, String.class);
+		responseCache.get(c, String.class);
+		// Replacing an entry resets its use count.
+		responseCache.put(c, String.class, Collections.singletonList("c"));
+
+		responseCache.put(d, String.class, Collections.singletonList("d"));
+		assertNull("expect the replaced entry to be evicted", responseCache.get(c, String.class));
+
+		// The use count of d is now 0 and the one of b is 1.
+		responseCache.invalidate(RequestMethods.GET_VERSION);
+		responseCache.put(c, String.class, Collections.singletonList("c"));
+		responseCache.get(c, String.class);
+		responseCache.put(b, String.class, Collections.singletonList("b"));
+		assertNull("expect the entry that has never been used to be evicted", responseCache.get(d, String.class));
+		assertNotNull("expect the most frequently used entry to stay", responseCache.get(a, String.class));
+		assertNotNull("expect the used entry to stay", responseCache.get(c, String.class));
+		assertNotNull("expect the new entry to be added", responseCache.get(b, String.class));
+		assertEquals("expect two evictions", 2, responseCache.getEvictionCount());
+	}
+
+	@Test
+	public void testExpiredVictim() throws Exception {
+		final ResponseCache responseCache = new ResponseCache(1, EvictionPolicy.LEAST_RECENTLY_USED);
+		responseCache.setTimeToLive(RequestMethods.GET_CONFIG, 1);
+
+		responseCache.put(createRequest(RequestMethods.GET_CONFIG), String.class, Collections.singletonList("a"));
+		Thread.sleep(5);
+		responseCache.put(createRequest(RequestMethods.GET_VERSION), String.class, Collections.singletonList("b"));
+
+		assertEquals("expect the expired entry not to be counted as eviction", 0, responseCache.getEvictionCount());
+		assertEquals("expect only the new entry", 1, responseCache.size());
+	}
+}
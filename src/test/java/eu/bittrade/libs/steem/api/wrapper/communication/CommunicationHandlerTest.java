@@ -0,0 +1,61 @@
+package eu.bittrade.libs.steem.api.wrapper.communication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests how the {@link CommunicationHandler} matches responses to the pending
+ * requests.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+public class CommunicationHandlerTest {
+	@Test
+	public void testResponseId() throws Exception {
+		assertEquals("expect the id", Integer.valueOf(7),
+				PendingRequests.getResponseId("{\"result\":{\"id\":1,\"items\":[{\"id\":2}]},\"id\":7}"));
+		assertNull("expect no id", PendingRequests.getResponseId("{\"result\":{\"id\":1}}"));
+		assertNull("expect no id for invalid responses", PendingRequests.getResponseId("[1,2"));
+	}
+
+	@Test
+	public void testOutOfOrderResponses() throws Exception {
+		final PendingRequests pendingRequests = new PendingRequests();
+		final List<CompletableFuture<String>> responses = new ArrayList<>();
+		for (int requestId = 0; requestId < 3; requestId++) {
+			responses.add(pendingRequests.register(requestId));
+		}
+
+		// The responses arrive in reverse order from another thread.
+		final CountDownLatch completed = new CountDownLatch(1);
+		final Thread receiver = new Thread(() -> {
+			for (final int responseId : Arrays.asList(2, 0, 1)) {
+				pendingRequests.complete("{\"id\":" + responseId + ",\"result\":\"response-" + responseId + "\"}");
+			}
+			completed.countDown();
+		});
+		receiver.start();
+		assertTrue("expect all responses to arrive", completed.await(5, TimeUnit.SECONDS));
+
+		for (int requestId = 0; requestId < 3; requestId++) {
+			assertTrue("expect the response of request " + requestId,
+					responses.get(requestId).get().contains("response-" + requestId));
+			pendingRequests.remove(requestId);
+		}
+
+		assertEquals("expect no pending requests", 0, pendingRequests.size());
+		assertFalse("expect responses without request to be ignored",
+				pendingRequests.complete("{\"id\":1,\"result\":\"late\"}"));
+	}
+}
@@ -0,0 +1,119 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.caching.ContentCache;
+import eu.bittrade.libs.steem.api.wrapper.discussions.CommentTreeFetcher.DiscussionSource;
+import eu.bittrade.libs.steem.api.wrapper.models.ActiveVote;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class CommentTreeFetcherTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static Discussion createDiscussion(final String permlink, final int children) throws Exception {
+		return MAPPER.readValue("{\"author\":\"dez1337\",\"permlink\":\"" + permlink + "\",\"title\":\"" + permlink
+				+ "\",\"children\":" + children + "}", Discussion.class);
+	}
+
+	@Test
+	public void testCachedRoot() throws Exception {
+		final AuthorPermlink rootAuthorPermlink = new AuthorPermlink("dez1337", "root");
+		final ContentCache contentCache = new ContentCache();
+		contentCache.putDiscussion(rootAuthorPermlink, createDiscussion("root", 2));
+
+		final Map<String, List<Discussion>> replies = new HashMap<>();
+		replies.put("root", Arrays.asList(createDiscussion("first", 1), createDiscussion("second", 0)));
+		replies.put("first", Collections.singletonList(createDiscussion("nested", 0)));
+
+		final DiscussionSource discussionSource = new DiscussionSource() {
+			@Override
+			public Discussion getContent(final String author, final String permlink) {
+				// Answer like the wrapper does for cached content.
+				return contentCache.getDiscussion(new AuthorPermlink(author, permlink));
+			}
+
+			@Override
+			public List<Discussion> getContentReplies(final String author, final String permlink) {
+				return replies.get(permlink);
+			}
+
+			@Override
+			public List<ActiveVote> getActiveVotes(final String author, final String permlink) {
+				return Collections.singletonList(
+						MAPPER.convertValue(Collections.singletonMap("voter", "inertia"), ActiveVote.class));
+			}
+		};
+
+		try (CommentTreeFetcher commentTreeFetcher = new CommentTreeFetcher(discussionSource, 2)) {
+			final Discussion root = commentTreeFetcher.fetch("dez1337", "root", 2, true);
+			final Discussion cachedRoot = contentCache.getDiscussion(rootAuthorPermlink);
+
+			assertNotSame("expect a copy of the cached root", cachedRoot, root);
+			assertEquals("expect the content of the root", "root", root.getTitle());
+			assertEquals("expect the replies of the root", 2, root.getReplies().size());
+			assertEquals("expect the nested reply", "nested",
+					root.getReplies().get(0).getReplies().get(0).getPermlink());
+			assertEquals("expect the votes of the root", 1, root.getActiveVotes().size());
+
+			assertNull("expect the cached replies to be unchanged", cachedRoot.getReplies());
+			assertNull("expect the cached votes to be unchanged", cachedRoot.getActiveVotes());
+
+			final Discussion flatRoot = commentTreeFetcher.fetch("dez1337", "root", 0, false);
+			assertNull("expect no replies of an earlier tree", flatRoot.getReplies());
+		}
+	}
+
+	@Test
+	public void testSharedReplies() throws Exception {
+		final Discussion root = createDiscussion("root", 1);
+		final Discussion sharedReply = createDiscussion("reply", 1);
+		final Discussion sharedNestedReply = createDiscussion("nested", 0);
+
+		// A source that always returns the same instances, like a cache.
+		final DiscussionSource discussionSource = new DiscussionSource() {
+			@Override
+			public Discussion getContent(final String author, final String permlink) {
+				return root;
+			}
+
+			@Override
+			public List<Discussion> getContentReplies(final String author, final String permlink) {
+				return Collections.singletonList("root".equals(permlink) ? sharedReply : sharedNestedReply);
+			}
+
+			@Override
+			public List<ActiveVote> getActiveVotes(final String author, final String permlink) {
+				return Collections.emptyList();
+			}
+		};
+
+		try (CommentTreeFetcher commentTreeFetcher = new CommentTreeFetcher(discussionSource, 2)) {
+			final Discussion tree = commentTreeFetcher.fetch("dez1337", "root", 2, true);
+			final Discussion reply = tree.getReplies().get(0);
+
+			assertNotSame("expect a copy of the shared reply", sharedReply, reply);
+			assertEquals("expect the nested reply", "nested", reply.getReplies().get(0).getPermlink());
+			assertNotSame("expect a copy of the shared nested reply", sharedNestedReply, reply.getReplies().get(0));
+
+			assertNull("expect the shared reply to be unchanged", sharedReply.getReplies());
+			assertNull("expect the votes of the shared reply to be unchanged", sharedReply.getActiveVotes());
+			assertNull("expect the shared nested reply to be unchanged", sharedNestedReply.getActiveVotes());
+		}
+	}
+}
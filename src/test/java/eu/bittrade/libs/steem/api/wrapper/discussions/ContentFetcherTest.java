@@ -0,0 +1,80 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.caching.ContentCache;
+import eu.bittrade.libs.steem.api.wrapper.discussions.ContentFetcher.ContentSource;
+import eu.bittrade.libs.steem.api.wrapper.models.AuthorPermlink;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class ContentFetcherTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static Discussion createDiscussion(final String author, final String permlink) {
+		try {
+			return MAPPER.readValue("{\"author\":\"" + author + "\",\"permlink\":\"" + permlink + "\"}",
+					Discussion.class);
+		} catch (final Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void testFetch() throws Exception {
+		final AuthorPermlink first = new AuthorPermlink("dez1337", "first");
+		final AuthorPermlink cached = new AuthorPermlink("dez1337", "cached");
+		final AuthorPermlink last = new AuthorPermlink("inertia", "last");
+		final Discussion cachedDiscussion = createDiscussion("dez1337", "cached");
+
+		final ContentCache contentCache = new ContentCache();
+		contentCache.putDiscussion(cached, cachedDiscussion);
+
+		final List<String> requestedPermlinks = new CopyOnWriteArrayList<>();
+		final ContentSource contentSource = (author, permlink) -> {
+			requestedPermlinks.add(permlink);
+			// Answer in a different order than requested.
+			if ("first".equals(permlink)) {
+				try {
+					Thread.sleep(50);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return createDiscussion(author, permlink);
+		};
+
+		final ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try (ContentFetcher contentFetcher = new ContentFetcher(contentSource, contentCache, executorService)) {
+			final Map<AuthorPermlink, Discussion> contents = contentFetcher
+					.fetch(Arrays.asList(last, first, cached, last, first));
+
+			assertEquals("expect the input order without duplicates", Arrays.asList(last, first, cached),
+					new ArrayList<>(contents.keySet()));
+			assertEquals("expect the content of each entry", "last", contents.get(last).getPermlink());
+			assertEquals("expect the content of each entry", "first", contents.get(first).getPermlink());
+			assertSame("expect the cached content", cachedDiscussion, contents.get(cached));
+
+			requestedPermlinks.sort(null);
+			assertEquals("expect every missing entry to be requested once", Arrays.asList("first", "last"),
+					requestedPermlinks);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+}
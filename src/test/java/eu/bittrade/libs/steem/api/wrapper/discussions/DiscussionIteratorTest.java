@@ -0,0 +1,110 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionIteratorTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void shutdown() {
+		prefetchExecutor.shutdownNow();
+	}
+
+	private static Discussion createDiscussion(final String permlink) throws Exception {
+		return MAPPER.readValue("{\"author\":\"dez1337\",\"permlink\":\"" + permlink + "\"}", Discussion.class);
+	}
+
+	private static List<Discussion> createListing(final int size) throws Exception {
+		final List<Discussion> listing = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			listing.add(createDiscussion("post-" + i));
+		}
+		return listing;
+	}
+
+	/**
+	 * A source that answers like the node: Every page starts with the given
+	 * discussion.
+	 */
+	private static DiscussionListingSource createSource(final List<Discussion> listing,
+			final List<String> requestedStarts) {
+		return (tag, limit, sortBy, startAuthor, startPermlink) -> {
+			requestedStarts.add(String.valueOf(startPermlink));
+			int start = 0;
+			if (startPermlink != null) {
+				while (!listing.get(start).getPermlink().equals(startPermlink)) {
+					start++;
+				}
+			}
+			return new ArrayList<>(listing.subList(start, Math.min(start + limit, listing.size())));
+		};
+	}
+
+	private List<String> walk(final DiscussionListingSource discussionListingSource, final int pageSize) {
+		return new DiscussionIterator(discussionListingSource, "steemit", DiscussionSortType.SORT_BY_CREATED,
+				pageSize, prefetchExecutor).stream().map(Discussion::getPermlink).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testShortLastPage() throws Exception {
+		final List<Discussion> listing = createListing(12);
+		final List<String> requestedStarts = new CopyOnWriteArrayList<>();
+
+		final List<String> permlinks = walk(createSource(listing, requestedStarts), 5);
+
+		assertEquals("expect every discussion once",
+				listing.stream().map(Discussion::getPermlink).collect(Collectors.toList()), permlinks);
+		assertEquals("expect every page to start with the last discussion of the previous page",
+				Arrays.asList("null", "post-4", "post-8"), requestedStarts);
+	}
+
+	@Test
+	public void testExactMultipleOfPageSize() throws Exception {
+		// Every page repeats one discussion, so 4 new discussions per page.
+		final List<Discussion> listing = createListing(13);
+		final List<String> requestedStarts = new CopyOnWriteArrayList<>();
+
+		final List<String> permlinks = walk(createSource(listing, requestedStarts), 5);
+
+		assertEquals("expect every discussion once",
+				listing.stream().map(Discussion::getPermlink).collect(Collectors.toList()), permlinks);
+		assertEquals("expect a last page with only the boundary", Arrays.asList("null", "post-4", "post-8", "post-12"),
+				requestedStarts);
+	}
+
+	@Test
+	public void testShiftedListing() throws Exception {
+		final List<Discussion> firstPage = createListing(3);
+		// The boundary has moved away, so the next page starts with another
+		// discussion that must not be dropped.
+		final List<Discussion> secondPage = Arrays.asList(createDiscussion("moved"), createDiscussion("post-3"));
+
+		final List<String> permlinks = walk(
+				(tag, limit, sortBy, startAuthor, startPermlink) -> startPermlink == null ? firstPage : secondPage,
+				3);
+
+		assertEquals("expect the first discussion of the shifted page",
+				Arrays.asList("post-0", "post-1", "post-2", "moved", "post-3"), permlinks);
+	}
+}
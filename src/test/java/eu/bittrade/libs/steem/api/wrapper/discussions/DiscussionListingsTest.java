@@ -0,0 +1,45 @@
+package eu.bittrade.libs.steem.api.wrapper.discussions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.DiscussionSortType;
+import eu.bittrade.libs.steem.api.wrapper.models.Discussion;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class DiscussionListingsTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static Discussion createDiscussion(String author, String permlink) throws Exception {
+		return MAPPER.readValue("{\"author\":\"" + author + "\",\"permlink\":\"" + permlink + "\"}",
+				Discussion.class);
+	}
+
+	@Test
+	public void testDeduplication() throws Exception {
+		final DiscussionListings discussionListings = new DiscussionListings();
+		final Discussion trending = createDiscussion("dez1337", "steem-java-api");
+
+		discussionListings.addListing("steem", DiscussionSortType.SORT_BY_TRENDING,
+				Arrays.asList(trending, createDiscussion("inertia", "update")));
+		discussionListings.addListing("steem", DiscussionSortType.SORT_BY_CREATED,
+				Arrays.asList(createDiscussion("inertia", "new"), createDiscussion("dez1337", "steem-java-api")));
+
+		assertEquals("expect each discussion once", 3, discussionListings.size());
+		assertEquals("expect the order of the first appearance", "update",
+				discussionListings.getDiscussions().get(1).getPermlink());
+		assertSame("expect a shared instance", trending,
+				discussionListings.getListing("steem", DiscussionSortType.SORT_BY_CREATED).get(1));
+		assertTrue("expect no listing for unknown tags",
+				discussionListings.getListing("other", DiscussionSortType.SORT_BY_CREATED).isEmpty());
+	}
+}
@@ -0,0 +1,111 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryCacheTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final AtomicLong lastIrreversibleBlockNum = new AtomicLong(Long.MAX_VALUE);
+
+	private AccountHistoryCache createCache(final StubAccountHistorySource accountHistorySource, final Path directory)
+			throws Exception {
+		return new AccountHistoryCache(accountHistorySource,
+				() -> MAPPER.convertValue(Collections.singletonMap("last_irreversible_block_num",
+						lastIrreversibleBlockNum.get()), GlobalProperties.class),
+				directory, 5);
+	}
+
+	private static void assertEntries(final AccountHistory accountHistory, final int size) {
+		assertEquals("expect every entry once", size, accountHistory.size());
+		for (int i = 0; i < size; i++) {
+			assertEquals("expect the entries in sequence order", i, accountHistory.getSequenceNumber(i));
+			assertEquals("expect the activity of the entry", 100L + i, accountHistory.getActivity(i).getBlock());
+		}
+	}
+
+	@Test
+	public void testIncrementalSync() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(10);
+		final AccountHistoryCache accountHistoryCache = createCache(accountHistorySource,
+				temporaryFolder.getRoot().toPath());
+
+		assertEquals("expect the complete history", 10, accountHistoryCache.sync("alice"));
+		assertEquals("expect the newest entry", 9, accountHistoryCache.getHighestSequenceNumber("alice"));
+
+		accountHistorySource.historySize = 25;
+		accountHistorySource.requests.set(0);
+		assertEquals("expect only the new entries", 15, accountHistoryCache.sync("alice"));
+		assertEquals("expect the pages up to the newest cached entry", 3, accountHistorySource.requests.get());
+		assertEntries(accountHistoryCache.get("alice"), 25);
+
+		assertEquals("expect no new entries", 0, accountHistoryCache.sync("alice"));
+		assertEntries(accountHistoryCache.get("alice"), 25);
+	}
+
+	@Test
+	public void testReversibleEntries() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(20);
+		final AccountHistoryCache accountHistoryCache = createCache(accountHistorySource,
+				temporaryFolder.getRoot().toPath());
+
+		// The entries 10 to 19 are in reversible blocks.
+		lastIrreversibleBlockNum.set(109);
+		assertEquals("expect the irreversible entries", 10, accountHistoryCache.sync("alice"));
+		assertEquals("expect the newest irreversible entry", 9,
+				accountHistoryCache.getHighestSequenceNumber("alice"));
+
+		lastIrreversibleBlockNum.set(115);
+		assertEquals("expect the entries that became irreversible", 6, accountHistoryCache.sync("alice"));
+		assertEntries(accountHistoryCache.get("alice"), 16);
+
+		lastIrreversibleBlockNum.set(99);
+		final AccountHistoryCache otherAccountHistoryCache = createCache(accountHistorySource,
+				temporaryFolder.getRoot().toPath());
+		assertEquals("expect no entries while all blocks are reversible", 0, otherAccountHistoryCache.sync("bob"));
+		assertEquals("expect no cached entries", -1, otherAccountHistoryCache.getHighestSequenceNumber("bob"));
+
+		lastIrreversibleBlockNum.set(Long.MAX_VALUE);
+		assertEquals("expect the remaining entries", 4, accountHistoryCache.sync("alice"));
+		assertEntries(accountHistoryCache.get("alice"), 20);
+	}
+
+	@Test
+	public void testPartiallyWrittenEntry() throws Exception {
+		final Path directory = temporaryFolder.getRoot().toPath();
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(5);
+		assertEquals("expect the complete history", 5, createCache(accountHistorySource, directory).sync("alice"));
+
+		// Simulate a crash while an entry was written.
+		Files.write(directory.resolve("alice.history"), "{\"sequence\":5,\"activ".getBytes(StandardCharsets.UTF_8),
+				StandardOpenOption.APPEND);
+
+		final AccountHistoryCache accountHistoryCache = createCache(accountHistorySource, directory);
+		assertEquals("expect the last complete entry", 4, accountHistoryCache.getHighestSequenceNumber("alice"));
+		assertEntries(accountHistoryCache.get("alice"), 5);
+
+		accountHistorySource.historySize = 8;
+		assertEquals("expect the entries after the last complete entry", 3, accountHistoryCache.sync("alice"));
+		assertEntries(accountHistoryCache.get("alice"), 8);
+	}
+}
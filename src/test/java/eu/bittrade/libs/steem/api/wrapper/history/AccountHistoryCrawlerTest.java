@@ -0,0 +1,148 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryCrawlerTest {
+	@Test
+	public void testCrawl() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(25);
+		accountHistorySource.failingAccount = "broken";
+		final AccountHistoryCrawler accountHistoryCrawler = new AccountHistoryCrawler(accountHistorySource, 2, 10);
+
+		final Map<String, List<Long>> sequenceNumbers = new ConcurrentHashMap<>();
+		final List<String> completed = Collections.synchronizedList(new ArrayList<String>());
+		final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+		final Map<String, Long> cursors = accountHistoryCrawler.crawl(Arrays.asList("alice", "bob", "broken"),
+				new AccountHistorySink() {
+					@Override
+					public void onPage(final String accountName, final AccountHistory page) {
+						final List<Long> accountSequenceNumbers = sequenceNumbers.computeIfAbsent(accountName,
+								key -> new ArrayList<>());
+						for (int i = 0; i < page.size(); i++) {
+							accountSequenceNumbers.add(page.getSequenceNumber(i));
+						}
+					}
+
+					@Override
+					public void onComplete(final String accountName) {
+						completed.add(accountName);
+					}
+
+					@Override
+					public void onError(final String accountName, final Exception exception) {
+						assertTrue("expect the exception of the request",
+								exception instanceof SteemConnectionException);
+						failed.add(accountName);
+					}
+				});
+
+		for (final String accountName : Arrays.asList("alice", "bob")) {
+			assertEquals("expect every entry once", 25, sequenceNumbers.get(accountName).size());
+			assertEquals("expect the entries in sequence order", Long.valueOf(24),
+					sequenceNumbers.get(accountName).get(24));
+			assertEquals("expect the cursor behind the last entry", Long.valueOf(25), cursors.get(accountName));
+			assertTrue("expect the account to be completed", completed.contains(accountName));
+		}
+		assertEquals("expect the failed account", Arrays.asList("broken"), failed);
+		assertEquals("expect the failed account to keep its cursor", Long.valueOf(0), cursors.get("broken"));
+
+		// Resume with the returned cursors after the history has grown.
+		accountHistorySource.historySize = 30;
+		final Map<String, Long> resumedCursors = accountHistoryCrawler.crawl(
+				Collections.singletonMap("alice", cursors.get("alice")),
+				(accountName, page) -> assertEquals("expect only the new entries", 25, page.getSequenceNumber(0)));
+		assertEquals("expect the new cursor", Long.valueOf(30), resumedCursors.get("alice"));
+	}
+
+	@Test
+	public void testNoSinkCallsAfterInterrupt() throws Exception {
+		final CountDownLatch requestStarted = new CountDownLatch(1);
+		final CountDownLatch releaseRequest = new CountDownLatch(1);
+		final StubAccountHistorySource stubSource = new StubAccountHistorySource(25);
+		final AccountHistoryCrawler accountHistoryCrawler = new AccountHistoryCrawler((accountName, from, limit) -> {
+			requestStarted.countDown();
+			// Ignore the interrupt, like a request that is already sent.
+			while (true) {
+				try {
+					releaseRequest.await();
+					break;
+				} catch (final InterruptedException e) {
+					continue;
+				}
+			}
+			return stubSource.getAccountHistory(accountName, from, limit);
+		}, 1, 10);
+
+		final AtomicBoolean returned = new AtomicBoolean();
+		final AtomicBoolean calledAfterReturn = new AtomicBoolean();
+		final CountDownLatch sinkCalled = new CountDownLatch(1);
+		final AtomicReference<Map<String, Long>> cursors = new AtomicReference<>();
+		final Thread crawler = new Thread(() -> {
+			cursors.set(accountHistoryCrawler.crawl(Arrays.asList("alice"), (accountName, page) -> {
+				calledAfterReturn.compareAndSet(false, returned.get());
+				sinkCalled.countDown();
+			}));
+			returned.set(true);
+		});
+		crawler.start();
+
+		assertTrue("expect the request to start", requestStarted.await(5, TimeUnit.SECONDS));
+		crawler.interrupt();
+		crawler.join(5000);
+		assertFalse("expect the crawl to return", crawler.isAlive());
+
+		releaseRequest.countDown();
+		assertFalse("expect the late page to be dropped", sinkCalled.await(500, TimeUnit.MILLISECONDS));
+		assertFalse("expect no sink call after the crawl returned", calledAfterReturn.get());
+		assertEquals("expect the cursor of the unfinished account", Long.valueOf(0), cursors.get().get("alice"));
+	}
+
+	@Test(timeout = 10000)
+	public void testFailingSink() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(25);
+		accountHistorySource.failingAccount = "broken";
+		final AccountHistoryCrawler accountHistoryCrawler = new AccountHistoryCrawler(accountHistorySource, 2, 10);
+
+		final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+		final Map<String, Long> cursors = accountHistoryCrawler.crawl(Arrays.asList("alice", "bob", "broken"),
+				new AccountHistorySink() {
+					@Override
+					public void onPage(final String accountName, final AccountHistory page) {
+						if ("alice".equals(accountName) && page.getSequenceNumber(0) > 0) {
+							throw new IllegalStateException("The sink is full.");
+						}
+					}
+
+					@Override
+					public void onError(final String accountName, final Exception exception) {
+						failed.add(accountName);
+						throw new IllegalStateException("The sink can not handle errors.");
+					}
+				});
+
+		assertEquals("expect the accounts passed to onError", 2, failed.size());
+		assertEquals("expect the cursor of the page the sink rejected", Long.valueOf(11), cursors.get("alice"));
+		assertEquals("expect the complete history of the other account", Long.valueOf(25), cursors.get("bob"));
+		assertEquals("expect the failed account to keep its cursor", Long.valueOf(0), cursors.get("broken"));
+	}
+}
@@ -0,0 +1,119 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemIterationException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryIteratorTest {
+	private static final String ACCOUNT = "dez1337";
+
+	private ExecutorService prefetchExecutor;
+
+	@Before
+	public void setUp() throws Exception {
+		prefetchExecutor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		prefetchExecutor.shutdownNow();
+	}
+
+	private List<Integer> iterate(final AccountHistorySource accountHistorySource, final int startSequenceNumber,
+			final boolean newestFirst, final int pageSize) {
+		final AccountHistoryIterator accountHistoryIterator = new AccountHistoryIterator(accountHistorySource,
+				ACCOUNT, startSequenceNumber, newestFirst, pageSize, prefetchExecutor);
+
+		final List<Integer> sequenceNumbers = new ArrayList<>();
+		while (accountHistoryIterator.hasNext()) {
+			final Entry<Integer, AccountActivity> entry = accountHistoryIterator.next();
+			assertEquals("expect the activity of the entry", 100L + entry.getKey(), entry.getValue().getBlock());
+			sequenceNumbers.add(entry.getKey());
+		}
+		return sequenceNumbers;
+	}
+
+	private static List<Integer> range(final int first, final int last) {
+		final List<Integer> range = new ArrayList<>();
+		for (int i = first; first <= last ? i <= last : i >= last; i += first <= last ? 1 : -1) {
+			range.add(i);
+		}
+		return range;
+	}
+
+	@Test
+	public void testOldestFirst() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(25);
+
+		assertEquals("expect every entry once", range(0, 24), iterate(accountHistorySource, 0, false, 10));
+		assertEquals("expect one request per page", 3, accountHistorySource.requests.get());
+		assertEquals("expect the entries after the start", range(7, 24), iterate(accountHistorySource, 7, false, 10));
+	}
+
+	@Test
+	public void testPageBoundaries() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(20);
+
+		assertEquals("expect every entry once if the last page is full", range(0, 19),
+				iterate(accountHistorySource, 0, false, 10));
+		assertEquals("expect an empty history", Collections.emptyList(), iterate(new StubAccountHistorySource(0), 0, false, 10));
+	}
+
+	@Test
+	public void testNewestFirst() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(25);
+
+		assertEquals("expect every entry once", range(24, 0),
+				iterate(accountHistorySource, AccountHistoryIterator.NEWEST_ENTRY, true, 10));
+		assertEquals("expect the entries before the start", range(12, 0),
+				iterate(accountHistorySource, 12, true, 10));
+	}
+
+	@Test
+	public void testError() throws Exception {
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(25);
+		accountHistorySource.failingAccount = ACCOUNT;
+
+		try {
+			iterate(accountHistorySource, 0, false, 10);
+			fail("expect the error to be thrown");
+		} catch (final SteemIterationException e) {
+			assertTrue("expect the original exception as the cause",
+					e.getCause() instanceof SteemConnectionException);
+		}
+	}
+
+	@Test
+	public void testCallerExecutor() throws Exception {
+		final List<Thread> requestThreads = new ArrayList<>();
+		final StubAccountHistorySource accountHistorySource = new StubAccountHistorySource(5);
+		final Thread executorThread = prefetchExecutor.submit(Thread::currentThread).get();
+
+		iterate((accountName, from, limit) -> {
+			requestThreads.add(Thread.currentThread());
+			return accountHistorySource.getAccountHistory(accountName, from, limit);
+		}, 0, false, 10);
+
+		assertEquals("expect a single page", 1, requestThreads.size());
+		assertSame("expect the page to be requested by the given executor", executorThread, requestThreads.get(0));
+	}
+}
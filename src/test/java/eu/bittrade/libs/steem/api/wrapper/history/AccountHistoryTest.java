@@ -0,0 +1,103 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.configuration.SteemApiWrapperConfig;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountHistoryTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static AccountActivity activityInBlock(long blockNumber) {
+		return MAPPER.convertValue(Collections.singletonMap("block", blockNumber), AccountActivity.class);
+	}
+
+	@Test
+	public void testOrderAndSearch() throws Exception {
+		final AccountHistory accountHistory = new AccountHistory(new long[] { 12, 10, 11, 15 },
+				new AccountActivity[] { activityInBlock(300), activityInBlock(100), activityInBlock(200),
+						activityInBlock(300) });
+
+		assertArrayEquals("expect the keys in sequence order", new Object[] { 10, 11, 12, 15 },
+				accountHistory.keySet().toArray());
+		assertEquals("expect the lookup by sequence number", 200, accountHistory.get(11).getBlock());
+		assertNull("expect no entry for unknown sequence numbers", accountHistory.get(13));
+		assertEquals("expect the insertion point", -4, accountHistory.findSequenceNumber(13));
+
+		assertEquals("expect the first entry of the block", 2, accountHistory.findFirstInBlock(300));
+		assertEquals("expect the next block for unknown blocks", 1, accountHistory.findFirstInBlock(150));
+		assertEquals("expect the size for later blocks", 4, accountHistory.findFirstInBlock(400));
+	}
+
+	@Test
+	public void testColumnarAccountHistory() throws Exception {
+		final ColumnarAccountHistory columnarAccountHistory = new ColumnarAccountHistory();
+		final int addedRows = columnarAccountHistory.addAll("{\"id\":1,\"result\":["
+				+ "[7,{\"trx_id\":\"ab\",\"block\":100,\"trx_in_block\":2,\"op_in_trx\":0,\"virtual_op\":0,"
+				+ "\"timestamp\":\"2017-03-20T08:53:20\",\"op\":[\"transfer\",{\"from\":\"bittrex\","
+				+ "\"to\":\"dez1337\",\"amount\":\"1.000 STEEM\",\"memo\":\"\"}]}],"
+				+ "[8,{\"trx_id\":\"cd\",\"block\":101,\"trx_in_block\":0,\"op_in_trx\":1,\"virtual_op\":0,"
+				+ "\"timestamp\":\"2017-03-20T08:53:23\",\"op\":[\"vote\",{\"voter\":\"dez1337\","
+				+ "\"author\":\"steemit\",\"permlink\":\"test\",\"weight\":10000}]}]]}");
+
+		assertEquals("expect both entries", 2, addedRows);
+		assertArrayEquals("expect the blocks", new long[] { 100, 101 },
+				Arrays.copyOf(columnarAccountHistory.getBlocks(), 2));
+		assertEquals("expect the timestamp", 1490000000000L, columnarAccountHistory.getTimestamps()[0]);
+		assertEquals("expect the operation type", columnarAccountHistory.getOperationTypeId("vote"),
+				columnarAccountHistory.getOperationTypes()[1]);
+		assertEquals("expect the same account id in different columns",
+				columnarAccountHistory.getAccounts("to")[0], columnarAccountHistory.getAccounts("voter")[1]);
+		assertEquals("expect no account for missing fields", ColumnarAccountHistory.NO_ACCOUNT,
+				columnarAccountHistory.getAccounts("voter")[0]);
+	}
+
+	@Test
+	public void testColumnarTimestampsInOtherTimeZone() throws Exception {
+		final TimeZone defaultTimeZone = TimeZone.getDefault();
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+			// Map the activity like the communication handler does.
+			final ObjectMapper mapper = new ObjectMapper();
+			mapper.setDateFormat(new SteemApiWrapperConfig().getDateTimeFormat());
+			final String activity = "{\"block\":100,\"timestamp\":\"2017-03-20T08:53:20\","
+					+ "\"op\":[\"vote\",{\"voter\":\"dez1337\"}]}";
+
+			final ColumnarAccountHistory columnarAccountHistory = new ColumnarAccountHistory();
+			columnarAccountHistory.add(7, mapper.readValue(activity, AccountActivity.class));
+			columnarAccountHistory.addAll("{\"id\":1,\"result\":[[8," + activity + "]]}");
+
+			assertEquals("expect the UTC timestamp of the decoded activity", 1490000000000L,
+					columnarAccountHistory.getTimestamps()[0]);
+			assertEquals("expect the UTC timestamp of the raw activity", 1490000000000L,
+					columnarAccountHistory.getTimestamps()[1]);
+
+			// Use a format that has been configured by the user on both paths.
+			final SimpleDateFormat configuredFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+			configuredFormat.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+			mapper.setDateFormat(configuredFormat);
+			columnarAccountHistory.add(9, mapper.readValue(activity, AccountActivity.class));
+			columnarAccountHistory.addAll("{\"id\":1,\"result\":[[10," + activity + "]]}", configuredFormat);
+
+			assertEquals("expect the configured time zone", 1490014400000L, columnarAccountHistory.getTimestamps()[2]);
+			assertEquals("expect the configured format on the raw path", columnarAccountHistory.getTimestamps()[2],
+					columnarAccountHistory.getTimestamps()[3]);
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package eu.bittrade.libs.steem.api.wrapper.history;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+
+/**
+ * An account history source that answers like a node for histories whose
+ * entry with the sequence number n has been added in block 100 + n.
+ * 
+ * @author http://steemit.com/@dez1337
+ */
+class StubAccountHistorySource implements AccountHistorySource {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	final AtomicInteger requests = new AtomicInteger();
+	volatile int historySize;
+	volatile String failingAccount;
+
+	StubAccountHistorySource(final int historySize) {
+		this.historySize = historySize;
+	}
+
+	static AccountActivity activityInBlock(final long blockNumber) {
+		return MAPPER.convertValue(Collections.singletonMap("block", blockNumber), AccountActivity.class);
+	}
+
+	@Override
+	public AccountHistory getAccountHistory(final String accountName, final int from, final int limit)
+			throws SteemConnectionException {
+		requests.incrementAndGet();
+		if (accountName.equals(failingAccount)) {
+			throw new SteemConnectionException("The node is not available.");
+		}
+
+		final int size = historySize;
+		// The node returns the newest entries if the page starts behind the end
+		// of the history.
+		final int last = from < 0 || from >= size ? size - 1 : from;
+		final int first = Math.max(0, last - limit);
+		final int count = Math.max(0, last - first + 1);
+
+		final long[] sequenceNumbers = new long[count];
+		final AccountActivity[] activities = new AccountActivity[count];
+		for (int i = 0; i < count; i++) {
+			sequenceNumbers[i] = first + i;
+			activities[i] = activityInBlock(100L + first + i);
+		}
+
+		return new AccountHistory(sequenceNumbers, activities);
+	}
+}
@@ -0,0 +1,133 @@
+package eu.bittrade.libs.steem.api.wrapper.market;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.market.OrderBookChange.Type;
+import eu.bittrade.libs.steem.api.wrapper.models.OrderBook;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class OrderBookTrackerTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static String createOrder(String realPrice, int steem, int sbd) {
+		return "{\"order_price\":[],\"real_price\":\"" + realPrice + "\",\"steem\":" + steem + ",\"sdb\":" + sbd
+				+ "}";
+	}
+
+	private static OrderBook createOrderBook(String bids, String asks) throws Exception {
+		return MAPPER.readValue("{\"bids\":[" + bids + "],\"asks\":[" + asks + "]}", OrderBook.class);
+	}
+
+	@Test
+	public void testPriceLevels() throws Exception {
+		final OrderBookTracker orderBookTracker = new OrderBookTracker(null);
+		orderBookTracker.update(createOrderBook(
+				createOrder("0.26500000000000001", 1000, 265) + "," + createOrder("0.26800000000000002", 2000, 536)
+						+ "," + createOrder("0.26800000000000002", 500, 134),
+				createOrder("0.27200000000000002", 3000, 816)));
+
+		final PriceLevels bids = orderBookTracker.getBids();
+		assertEquals("expect the orders to be aggregated by price", 2, bids.size());
+		assertEquals("expect the highest bid first", 26800000, bids.getPrice(0));
+		assertEquals("expect the sum of the orders", 2500, bids.getSteem(0));
+		assertEquals("expect one ask", 27200000, orderBookTracker.getAsks().getPrice(0));
+	}
+
+	@Test
+	public void testChanges() throws Exception {
+		final List<OrderBookChange> notifiedChanges = new ArrayList<>();
+		final OrderBookTracker orderBookTracker = new OrderBookTracker(null);
+		orderBookTracker.addListener(notifiedChanges::addAll);
+
+		orderBookTracker.update(createOrderBook(createOrder("0.268", 2000, 536) + "," + createOrder("0.265", 1000, 265),
+				createOrder("0.272", 3000, 816)));
+		assertEquals("expect every level to be added", 3, notifiedChanges.size());
+
+		notifiedChanges.clear();
+		final List<OrderBookChange> changes = orderBookTracker.update(createOrderBook(
+				createOrder("0.268", 1500, 402) + "," + createOrder("0.266", 700, 186),
+				createOrder("0.272", 3000, 816)));
+
+		assertEquals("expect the changes to be passed to the listeners", changes, notifiedChanges);
+		assertEquals("expect three changes", 3, changes.size());
+		assertEquals("expect the changed level first", Type.CHANGED, changes.get(0).getType());
+		assertEquals("expect the previous amount", 2000, changes.get(0).getPreviousSteem());
+		assertEquals("expect the new level", Type.ADDED, changes.get(1).getType());
+		assertEquals("expect the new price", 26600000, changes.get(1).getPrice());
+		assertEquals("expect the removed level last", Type.REMOVED, changes.get(2).getType());
+
+		notifiedChanges.clear();
+		orderBookTracker.update(createOrderBook(createOrder("0.268", 1500, 402) + "," + createOrder("0.266", 700, 186),
+				createOrder("0.272", 3000, 816)));
+		assertEquals("expect no notification without changes", 0, notifiedChanges.size());
+	}
+
+	@Test
+	public void testSnapshot() throws Exception {
+		final OrderBookTracker orderBookTracker = new OrderBookTracker(null);
+		final OrderBookSnapshot emptySnapshot = orderBookTracker.getSnapshot();
+		assertEquals("expect no bids before the first update", 0, emptySnapshot.getBids().size());
+
+		orderBookTracker.update(createOrderBook(createOrder("0.268", 2000, 536), createOrder("0.272", 3000, 816)));
+		final OrderBookSnapshot snapshot = orderBookTracker.getSnapshot();
+		assertEquals("expect the bids of the update", 26800000, snapshot.getBids().getPrice(0));
+		assertEquals("expect the asks of the same update", 27200000, snapshot.getAsks().getPrice(0));
+		assertEquals("expect the earlier snapshot to be unchanged", 0, emptySnapshot.getAsks().size());
+	}
+
+	@Test
+	public void testWindowEdge() throws Exception {
+		final OrderBookTracker orderBookTracker = new OrderBookTracker(null, 3, 1000);
+		orderBookTracker.update(createOrderBook(createOrder("0.268", 2000, 536) + "," + createOrder("0.267", 1500, 401)
+				+ "," + createOrder("0.265", 1000, 265), createOrder("0.272", 3000, 816)));
+		assertTrue("expect a full side to be truncated", orderBookTracker.getBids().isTruncated());
+
+		// A new bid pushes 0.265 out of the returned window.
+		final List<OrderBookChange> changes = orderBookTracker.update(createOrderBook(createOrder("0.269", 500, 135)
+				+ "," + createOrder("0.268", 2000, 536) + "," + createOrder("0.267", 1500, 401),
+				createOrder("0.272", 3000, 816)));
+		assertEquals("expect only the new level", 1, changes.size());
+		assertEquals("expect the new level", Type.ADDED, changes.get(0).getType());
+		assertEquals("expect the new price", 26900000, changes.get(0).getPrice());
+
+		// The bid at 0.269 has been filled, so 0.265 moves back into the window.
+		final List<OrderBookChange> refilledChanges = orderBookTracker.update(createOrderBook(
+				createOrder("0.268", 2000, 536) + "," + createOrder("0.267", 1500, 401) + ","
+						+ createOrder("0.265", 1000, 265),
+				createOrder("0.272", 3000, 816)));
+		assertEquals("expect only the filled level", 1, refilledChanges.size());
+		assertEquals("expect the filled level", Type.REMOVED, refilledChanges.get(0).getType());
+		assertEquals("expect the filled price", 26900000, refilledChanges.get(0).getPrice());
+
+		final List<OrderBookChange> askChanges = orderBookTracker.update(createOrderBook(createOrder("0.268", 2000, 536)
+				+ "," + createOrder("0.267", 1500, 401) + "," + createOrder("0.265", 1000, 265), ""));
+		assertEquals("expect an untruncated side to report every level", 1, askChanges.size());
+		assertEquals("expect the removed ask", Type.REMOVED, askChanges.get(0).getType());
+	}
+
+	@Test
+	public void testSplitEdgeLevel() throws Exception {
+		final OrderBookTracker orderBookTracker = new OrderBookTracker(null, 2, 1000);
+		// The limit cuts off a second bid at 0.266.
+		orderBookTracker.update(createOrderBook(createOrder("0.268", 2000, 536) + "," + createOrder("0.266", 700, 186),
+				createOrder("0.272", 3000, 816)));
+
+		// The bid at 0.268 has been filled, so both bids at 0.266 are returned.
+		final List<OrderBookChange> changes = orderBookTracker.update(createOrderBook(
+				createOrder("0.266", 700, 186) + "," + createOrder("0.266", 300, 80),
+				createOrder("0.272", 3000, 816)));
+		assertEquals("expect no change of the incomplete level", 1, changes.size());
+		assertEquals("expect the filled level", Type.REMOVED, changes.get(0).getType());
+		assertEquals("expect the filled price", 26800000, changes.get(0).getPrice());
+	}
+}
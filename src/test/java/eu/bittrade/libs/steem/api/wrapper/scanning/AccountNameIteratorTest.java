@@ -0,0 +1,69 @@
+package eu.bittrade.libs.steem.api.wrapper.scanning;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class AccountNameIteratorTest {
+	@Test
+	public void testPrefixes() throws Exception {
+		assertEquals("expect one partition per letter", 26, AccountNameIterator.createPrefixes(1).size());
+
+		final List<String> prefixes = AccountNameIterator.createPrefixes(2);
+		final List<String> sortedPrefixes = new ArrayList<>(prefixes);
+		Collections.sort(sortedPrefixes);
+
+		assertEquals("expect all two character prefixes", 26 * 38, prefixes.size());
+		assertEquals("expect the sort order of the node", sortedPrefixes, prefixes);
+		assertEquals("expect the dash first", "a-", prefixes.get(0));
+	}
+
+	@Test
+	public void testPagesAndPartitions() throws Exception {
+		final NavigableSet<String> accountNames = new TreeSet<>(Arrays.asList("a-b", "a.c", "a00", "aaa", "aab",
+				"aac", "ab-x", "abc", "b.b", "bob", "bobby", "bot", "z12", "zzz"));
+		for (int i = 0; i < 20; i++) {
+			accountNames.add("alice" + i);
+		}
+
+		final AccountNameIterator.AccountNameSource accountNameSource = (lowerBound, limit) -> {
+			final List<String> page = new ArrayList<>();
+			for (final String accountName : accountNames.tailSet(lowerBound, true)) {
+				if (page.size() == limit) {
+					break;
+				}
+				page.add(accountName);
+			}
+			return page;
+		};
+
+		for (final int pageSize : new int[] { 2, 3, 5, 1000 }) {
+			for (int prefixLength = 1; prefixLength <= AccountNameIterator.MAXIMUM_PREFIX_LENGTH; prefixLength++) {
+				final List<String> result = new ArrayList<>();
+				try (AccountNameIterator accountNameIterator = new AccountNameIterator(accountNameSource, pageSize,
+						2, prefixLength)) {
+					accountNameIterator.forEachRemaining(result::add);
+				}
+
+				assertEquals("expect every name once and in order (page size " + pageSize + ", prefix length "
+						+ prefixLength + ")", new ArrayList<>(accountNames), result);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPrefixLengthLimit() throws Exception {
+		new AccountNameIterator((lowerBound, limit) -> Collections.<String> emptyList(), 10, 1,
+				AccountNameIterator.MAXIMUM_PREFIX_LENGTH + 1);
+	}
+}
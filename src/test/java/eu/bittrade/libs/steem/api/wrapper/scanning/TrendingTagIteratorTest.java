@@ -0,0 +1,57 @@
+package eu.bittrade.libs.steem.api.wrapper.scanning;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.TrendingTag;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class TrendingTagIteratorTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	public void testBoundaryTags() throws Exception {
+		final List<TrendingTag> tags = new ArrayList<>();
+		for (final String name : Arrays.asList("steemit", "life", "photography", "bitcoin", "art", "travel",
+				"food")) {
+			tags.add(MAPPER.readValue("{\"name\":\"" + name + "\"}", TrendingTag.class));
+		}
+
+		final List<String> requestedFirstTags = new CopyOnWriteArrayList<>();
+		// Answer like the node: Every page starts with the given tag.
+		final TrendingTagIterator.TrendingTagSource trendingTagSource = (firstTag, limit) -> {
+			requestedFirstTags.add(firstTag);
+			int start = 0;
+			while (!firstTag.isEmpty() && !tags.get(start).getName().equals(firstTag)) {
+				start++;
+			}
+			return new ArrayList<>(tags.subList(start, Math.min(start + limit, tags.size())));
+		};
+
+		final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+		try {
+			final List<String> names = new TrendingTagIterator(trendingTagSource, 3, prefetchExecutor).stream()
+					.map(TrendingTag::getName).collect(Collectors.toList());
+
+			assertEquals("expect every tag once and in order",
+					tags.stream().map(TrendingTag::getName).collect(Collectors.toList()), names);
+			assertEquals("expect every page to start with the last tag of the previous page",
+					Arrays.asList("", "photography", "art", "food"), requestedFirstTags);
+		} finally {
+			prefetchExecutor.shutdownNow();
+		}
+	}
+}
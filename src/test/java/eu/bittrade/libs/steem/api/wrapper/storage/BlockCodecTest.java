@@ -0,0 +1,76 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.models.Transaction;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockCodecTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private byte[] blockJson;
+	private Block block;
+
+	@Before
+	public void setUp() throws Exception {
+		block = MAPPER.readValue(getClass().getResourceAsStream("/block-1000000.json"), Block.class);
+		blockJson = MAPPER.writeValueAsBytes(block);
+	}
+
+	@Test
+	public void testBlockRoundTrip() throws Exception {
+		final BlockCodec blockCodec = new BlockCodec(new CodecDictionary());
+		final ByteBuffer encodedBlock = blockCodec.encodeBlock(block);
+
+		assertThat("expect the encoding to be smaller than the JSON representation", encodedBlock.remaining(),
+				lessThan(blockJson.length / 2));
+
+		final Block decodedBlock = blockCodec.decodeBlock(encodedBlock);
+
+		assertEquals("expect an identical block", new String(blockJson, "UTF-8"),
+				MAPPER.writeValueAsString(decodedBlock));
+	}
+
+	@Test
+	public void testBlockHeaderRoundTrip() throws Exception {
+		final BlockCodec blockCodec = new BlockCodec(new CodecDictionary());
+		final BlockHeader decodedBlockHeader = blockCodec.decodeBlockHeader(blockCodec.encodeBlockHeader(block));
+
+		assertEquals("expect the same previous id", block.getPrevious(), decodedBlockHeader.getPrevious());
+		assertEquals("expect the same timestamp", block.getTimestamp(), decodedBlockHeader.getTimestamp());
+		assertEquals("expect the same merkle root", block.getTransactionMerkleRoot(),
+				decodedBlockHeader.getTransactionMerkleRoot());
+		assertEquals("expect a complete block to be readable as a header", block.getWitness(),
+				blockCodec.decodeBlockHeader(blockCodec.encodeBlock(block)).getWitness());
+	}
+
+	@Test
+	public void testTransactionRoundTrip() throws Exception {
+		final BlockCodec blockCodec = new BlockCodec(new CodecDictionary());
+		final Transaction transaction = block.getTransactions().get(0);
+		final Transaction decodedTransaction = blockCodec
+				.decodeTransaction(blockCodec.encodeTransaction(transaction));
+
+		assertEquals("expect the same reference block number", transaction.getRefBlockNum(),
+				decodedTransaction.getRefBlockNum());
+		assertEquals("expect the same expiration", transaction.getExpiration(), decodedTransaction.getExpiration());
+		assertArrayEquals("expect the same operations", transaction.getOperations(),
+				decodedTransaction.getOperations());
+		assertArrayEquals("expect the same signatures", transaction.getSignatures(),
+				decodedTransaction.getSignatures());
+	}
+}
@@ -0,0 +1,121 @@
+package eu.bittrade.libs.steem.api.wrapper.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class BlockStoreTest {
+	private static final long BLOCK_NUMBER = 1000000;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Block block;
+
+	@Before
+	public void setUp() throws Exception {
+		block = new ObjectMapper().readValue(getClass().getResourceAsStream("/block-1000000.json"), Block.class);
+	}
+
+	@Test
+	public void testPutAndGet() throws Exception {
+		final Path directory = temporaryFolder.newFolder().toPath();
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			assertNull("expect an empty store", blockStore.get(BLOCK_NUMBER));
+			assertTrue("expect the block to be added", blockStore.put(BLOCK_NUMBER, block));
+			assertFalse("expect stored blocks to be immutable", blockStore.put(BLOCK_NUMBER, block));
+			assertTrue("expect the block to be available", blockStore.contains(BLOCK_NUMBER));
+			assertFalse("expect the next block to be missing", blockStore.contains(BLOCK_NUMBER + 1));
+		}
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			final Block storedBlock = blockStore.get(BLOCK_NUMBER);
+
+			assertNotNull("expect the block to survive a restart", storedBlock);
+			assertEquals("expect the same previous id", block.getPrevious(), storedBlock.getPrevious());
+			assertEquals("expect the same witness", block.getWitness(), storedBlock.getWitness());
+			assertEquals("expect the same number of transactions", block.getTransactions().size(),
+					storedBlock.getTransactions().size());
+		}
+
+		assertTrue("expect the segment files to be created", Files.exists(directory.resolve("0000001000.blocks")));
+	}
+
+	@Test
+	public void testReadWithoutSegment() throws Exception {
+		final Path directory = temporaryFolder.newFolder().toPath();
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			assertFalse("expect a missing block", blockStore.contains(BLOCK_NUMBER));
+			assertNull("expect no block", blockStore.get(BLOCK_NUMBER));
+			assertNull("expect no header", blockStore.getBlockHeader(BLOCK_NUMBER));
+		}
+
+		try (final Stream<Path> files = Files.list(directory)) {
+			assertEquals("expect reads to create no files", 0, files.count());
+		}
+	}
+
+	@Test
+	public void testOpenSegments() throws Exception {
+		final Path directory = temporaryFolder.newFolder().toPath();
+
+		try (final BlockStore blockStore = new BlockStore(directory, 10, 2)) {
+			for (int segment = 0; segment < 5; segment++) {
+				assertTrue("expect the block to be added", blockStore.put(segment * 10, block));
+			}
+
+			// Reopen the segments which have been closed in the meantime.
+			for (int segment = 0; segment < 5; segment++) {
+				assertEquals("expect the block of every segment", block.getWitness(),
+						blockStore.get(segment * 10).getWitness());
+				assertFalse("expect stored blocks to be immutable", blockStore.put(segment * 10, block));
+			}
+		}
+	}
+
+	@Test
+	public void testIncompleteDictionaryEntry() throws Exception {
+		final Path directory = temporaryFolder.newFolder().toPath();
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			blockStore.put(BLOCK_NUMBER, block);
+		}
+
+		// Simulate a crash while a dictionary entry of 16 bytes was written.
+		final Path dictionaryFile = directory.resolve("0000001000.dictionary");
+		final long dictionarySize = Files.size(dictionaryFile);
+		Files.write(dictionaryFile, new byte[] { 16, 'a', 'b' }, StandardOpenOption.APPEND);
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			assertEquals("expect the stored block", block.getWitness(), blockStore.get(BLOCK_NUMBER).getWitness());
+			assertEquals("expect the incomplete entry to be removed", dictionarySize, Files.size(dictionaryFile));
+			assertTrue("expect the next block to be added", blockStore.put(BLOCK_NUMBER + 1, block));
+		}
+
+		try (final BlockStore blockStore = new BlockStore(directory, 1000)) {
+			assertEquals("expect the next block after a restart", block.getWitness(),
+					blockStore.get(BLOCK_NUMBER + 1).getWitness());
+		}
+	}
+}
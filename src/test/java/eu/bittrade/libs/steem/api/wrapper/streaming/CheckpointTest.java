@@ -0,0 +1,80 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class CheckpointTest {
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		final Path file = temporaryFolder.getRoot().toPath().resolve("stream.checkpoint");
+		final Checkpoint checkpoint = new Checkpoint(file);
+
+		assertFalse("expect no checkpoint", checkpoint.load());
+		assertEquals("expect no block number", -1, checkpoint.getBlockNumber());
+
+		checkpoint.save(1000, null);
+		final Map<String, Integer> state = new HashMap<>();
+		state.put("transfers", 42);
+		checkpoint.save(1001, state);
+		assertFalse("expect the temporary file to be gone",
+				Files.exists(file.resolveSibling("stream.checkpoint.tmp")));
+
+		final Checkpoint reopenedCheckpoint = new Checkpoint(file);
+		assertTrue("expect the checkpoint", reopenedCheckpoint.load());
+		assertEquals("expect the last saved block", 1001, reopenedCheckpoint.getBlockNumber());
+		assertEquals("expect the saved state", Integer.valueOf(42),
+				reopenedCheckpoint.getState(Map.class).get("transfers"));
+
+		reopenedCheckpoint.save(1002, null);
+		assertNull("expect the state to be cleared", reopenedCheckpoint.getState(Map.class));
+	}
+
+	@Test
+	public void testRestoreState() throws Exception {
+		final Path file = temporaryFolder.getRoot().toPath().resolve("stream.checkpoint");
+		final Map<String, Integer> state = new HashMap<>();
+		state.put("transfers", 42);
+		new Checkpoint(file).save(1000, state);
+
+		// The checkpoint already covers the end block, so no block is
+		// requested.
+		final BlockStream blockStream = new BlockStream(null, 1);
+		blockStream.setEndBlockNumber(1000);
+		blockStream.setCheckpoint(new Checkpoint(file));
+
+		final List<Object> restoredStates = new ArrayList<>();
+		blockStream.run(new BlockStreamListener() {
+			@Override
+			public void onCheckpointLoaded(final Checkpoint checkpoint) {
+				try {
+					restoredStates.add(checkpoint.getState(Map.class).get("transfers"));
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+
+		assertEquals("expect the saved state to be handed to the listener", Arrays.asList(42), restoredStates);
+	}
+}
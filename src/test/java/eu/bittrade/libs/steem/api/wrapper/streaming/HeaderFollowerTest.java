@@ -0,0 +1,184 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.models.BlockHeader;
+import eu.bittrade.libs.steem.api.wrapper.models.GlobalProperties;
+import eu.bittrade.libs.steem.api.wrapper.models.Transaction;
+import eu.bittrade.libs.steem.api.wrapper.streaming.HeaderFollower.HeaderSource;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class HeaderFollowerTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Test
+	public void testFollowChain() throws Exception {
+		final StubHeaderSource headerSource = new StubHeaderSource();
+		headerSource.extend(1, 'a', 5);
+		headerSource.heads.add(5L);
+
+		final RecordingListener listener = follow(headerSource, 1);
+
+		assertEquals("expect all blocks up to the head", Arrays.asList("1a", "2a", "3a", "4a", "5a"),
+				listener.headers);
+		assertEquals("expect no forks", 0, listener.forks.size());
+	}
+
+	@Test
+	public void testBatches() throws Exception {
+		final StubHeaderSource headerSource = new StubHeaderSource();
+		headerSource.extend(1, 'a', HeaderFollower.MAXIMUM_BATCH_SIZE + 10);
+		headerSource.heads.add((long) HeaderFollower.MAXIMUM_BATCH_SIZE + 10);
+
+		final RecordingListener listener = follow(headerSource, 1);
+
+		assertEquals("expect all blocks", HeaderFollower.MAXIMUM_BATCH_SIZE + 10, listener.headers.size());
+		assertEquals("expect the id taken from the following header", HeaderFollower.MAXIMUM_BATCH_SIZE + "a",
+				listener.headers.get(HeaderFollower.MAXIMUM_BATCH_SIZE - 1));
+	}
+
+	@Test
+	public void testFork() throws Exception {
+		final StubHeaderSource headerSource = new StubHeaderSource();
+		headerSource.extend(1, 'a', 3);
+		headerSource.heads.add(3L);
+		// Blocks 2 and 3 are replaced by another fork, which also adds block 4
+		// and 5.
+		headerSource.heads.add(-1L);
+		headerSource.heads.add(5L);
+
+		final RecordingListener listener = follow(headerSource, 1);
+
+		assertEquals("expect the replaced blocks to be reported again",
+				Arrays.asList("1a", "2a", "3a", "2b", "3b", "4b", "5b"), listener.headers);
+		assertEquals("expect the replaced blocks in descending order",
+				Arrays.asList("3:" + blockId(3, 'a') + ">" + blockId(3, 'b'),
+						"2:" + blockId(2, 'a') + ">" + blockId(2, 'b')),
+				listener.forks);
+	}
+
+	@Test
+	public void testHeaderEvent() throws Exception {
+		final StubHeaderSource headerSource = new StubHeaderSource();
+		headerSource.extend(1, 'a', 2);
+		final HeaderEvent headerEvent = new HeaderEvent(headerSource, 2, blockId(2, 'a'),
+				headerSource.getBlockHeader(2));
+
+		assertEquals("expect the id", blockId(2, 'a'), headerEvent.getBlockId());
+		assertEquals("expect the witness of the header", "witness-a", headerEvent.getWitness());
+		assertEquals("expect no request before the block is needed", 0, headerSource.blockRequests);
+
+		final Block block = headerEvent.getBlock();
+		assertSame("expect the block to be kept", block, headerEvent.getBlock());
+		assertEquals("expect a single request", 1, headerSource.blockRequests);
+	}
+
+	private static RecordingListener follow(final StubHeaderSource headerSource, final long startBlockNumber)
+			throws Exception {
+		final HeaderFollower headerFollower = new HeaderFollower(headerSource, startBlockNumber);
+		headerFollower.setPollInterval(1);
+		headerSource.headerFollower = headerFollower;
+
+		final RecordingListener listener = new RecordingListener();
+		headerFollower.run(listener);
+		return listener;
+	}
+
+	private static String blockId(final long blockNumber, final char fork) {
+		final StringBuilder blockId = new StringBuilder(String.format("%08x", blockNumber));
+		while (blockId.length() < 40) {
+			blockId.append(fork);
+		}
+		return blockId.toString();
+	}
+
+	/**
+	 * A chain whose head is taken from a list of block numbers. A negative
+	 * number switches all blocks after the first one to the next fork. The
+	 * follower is stopped once it reached the last head.
+	 */
+	private static class StubHeaderSource implements HeaderSource {
+		private final Map<Long, Character> forks = new HashMap<>();
+		private final List<Long> heads = new ArrayList<>();
+		private HeaderFollower headerFollower;
+		private long headBlockNumber;
+		private int blockRequests;
+
+		private void extend(final long firstBlockNumber, final char fork, final long lastBlockNumber) {
+			for (long blockNumber = firstBlockNumber; blockNumber <= lastBlockNumber; blockNumber++) {
+				forks.put(blockNumber, fork);
+			}
+		}
+
+		@Override
+		public GlobalProperties getDynamicGlobalProperties() {
+			while (!heads.isEmpty() && heads.get(0) < 0) {
+				// Replace everything after the first block.
+				final char fork = (char) (forks.get(2L) + 1);
+				extend(2, fork, 5);
+				heads.remove(0);
+			}
+
+			if (!heads.isEmpty()) {
+				headBlockNumber = heads.remove(0);
+			} else if (headerFollower.getNextBlockNumber() > headBlockNumber) {
+				headerFollower.stop();
+			}
+
+			final Map<String, Object> globalProperties = new HashMap<>();
+			globalProperties.put("head_block_number", headBlockNumber);
+			globalProperties.put("head_block_id", blockId(headBlockNumber, forks.get(headBlockNumber)));
+			return MAPPER.convertValue(globalProperties, GlobalProperties.class);
+		}
+
+		@Override
+		public BlockHeader getBlockHeader(final long blockNumber) {
+			final Character fork = forks.get(blockNumber);
+			if (fork == null || blockNumber > headBlockNumber && headerFollower != null) {
+				return null;
+			}
+
+			final char previousFork = blockNumber == 1 ? 'a' : forks.get(blockNumber - 1);
+			return new BlockHeader(blockId(blockNumber - 1, previousFork), "2016-03-24T16:05:00",
+					"witness-" + fork, "0000000000000000000000000000000000000000", new Object[0]);
+		}
+
+		@Override
+		public Block getBlock(final long blockNumber) {
+			blockRequests++;
+			return new Block(Collections.<Transaction> emptyList());
+		}
+	}
+
+	private static class RecordingListener implements HeaderListener {
+		private final List<String> headers = new ArrayList<>();
+		private final List<String> forks = new ArrayList<>();
+
+		@Override
+		public void onHeader(final HeaderEvent headerEvent) {
+			assertEquals("expect the block number in the id", headerEvent.getBlockNumber(),
+					HeaderFollower.getBlockNumber(headerEvent.getBlockId()));
+			headers.add(headerEvent.getBlockNumber() + headerEvent.getBlockId().substring(39));
+		}
+
+		@Override
+		public void onFork(final long blockNumber, final String previousBlockId, final String currentBlockId) {
+			forks.add(blockNumber + ":" + previousBlockId + ">" + currentBlockId);
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import eu.bittrade.libs.steem.api.wrapper.communication.CommunicationHandler;
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemResponseError;
+import eu.bittrade.libs.steem.api.wrapper.models.Block;
+import eu.bittrade.libs.steem.api.wrapper.storage.BlockCodec;
+import eu.bittrade.libs.steem.api.wrapper.storage.CodecDictionary;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class OperationPipelineTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final long BLOCK_NUMBER = 1000000;
+
+	private Block block;
+	private String rawJsonResponse;
+	private ByteBuffer encodedBlock;
+	private BlockCodec blockCodec;
+
+	@Before
+	public void setUp() throws Exception {
+		block = MAPPER.readValue(getClass().getResourceAsStream("/block-1000000.json"), Block.class);
+		rawJsonResponse = "{\"id\":1,\"result\":" + MAPPER.writeValueAsString(block) + "}";
+		blockCodec = new BlockCodec(new CodecDictionary());
+		encodedBlock = blockCodec.encodeBlock(block);
+	}
+
+	@Test
+	public void testWithoutPredicates() throws Exception {
+		final OperationPipeline operationPipeline = new OperationPipeline();
+
+		assertEquals("expect all operations", 3, operationPipeline.process(BLOCK_NUMBER, block).size());
+		assertEquals("expect all operations", 3, operationPipeline.process(BLOCK_NUMBER, rawJsonResponse).size());
+		assertEquals("expect all operations", 3,
+				blockCodec.decodeOperations(BLOCK_NUMBER, encodedBlock, operationPipeline).size());
+	}
+
+	@Test
+	public void testOperationTypePredicate() throws Exception {
+		final OperationPipeline operationPipeline = new OperationPipeline().filterByOperationType("transfer");
+
+		for (final List<OperationRecord> operationRecords : processAll(operationPipeline)) {
+			assertEquals("expect only the transfer", 1, operationRecords.size());
+			assertEquals("expect the second transaction", 1, operationRecords.get(0).getTransactionIndex());
+			assertEquals("expect the sender", "bittrex", operationRecords.get(0).getOperation().get("from"));
+		}
+	}
+
+	@Test
+	public void testAccountPredicate() throws Exception {
+		final OperationPipeline operationPipeline = new OperationPipeline().filterByAccount("dez1337");
+
+		for (final List<OperationRecord> operationRecords : processAll(operationPipeline)) {
+			assertEquals("expect the vote and the comment", 2, operationRecords.size());
+			assertEquals("expect the vote first", "vote", operationRecords.get(0).getOperationType());
+			assertEquals("expect the comment second", 1, operationRecords.get(1).getOperationIndex());
+		}
+
+		operationPipeline.filterByOperationType("comment");
+		assertEquals("expect both predicates to apply", 1,
+				operationPipeline.process(BLOCK_NUMBER, rawJsonResponse).size());
+		assertEquals("expect no match for unknown accounts", 0, new OperationPipeline().filterByAccount("nobody")
+				.process(BLOCK_NUMBER, rawJsonResponse).size());
+	}
+
+	@Test
+	public void testNestedAccountFields() throws Exception {
+		final Map<String, Object> nested = new HashMap<>();
+		nested.put("account", "nested-account");
+		nested.put("memo", "memo-account");
+		final Map<String, Object> fields = new HashMap<>();
+		fields.put("from", Arrays.asList(Arrays.asList("listed-account")));
+		fields.put("details", nested);
+		final ObjectNode blockNode = MAPPER.valueToTree(block);
+		((ObjectNode) blockNode.get("transactions").get(0)).set("operations",
+				MAPPER.valueToTree(Arrays.asList(Arrays.asList("custom", fields))));
+		final Block nestedBlock = MAPPER.treeToValue(blockNode, Block.class);
+
+		blockCodec = new BlockCodec(new CodecDictionary());
+		encodedBlock = blockCodec.encodeBlock(nestedBlock);
+		block = nestedBlock;
+		rawJsonResponse = "{\"id\":1,\"result\":" + MAPPER.writeValueAsString(nestedBlock) + "}";
+
+		for (final String accountName : Arrays.asList("nested-account", "listed-account")) {
+			for (final List<OperationRecord> operationRecords : processAll(
+					new OperationPipeline().filterByAccount(accountName))) {
+				assertEquals("expect a match for " + accountName, 1, operationRecords.size());
+			}
+		}
+
+		for (final List<OperationRecord> operationRecords : processAll(
+				new OperationPipeline().filterByAccount("memo-account"))) {
+			assertEquals("expect no match outside of account fields", 0, operationRecords.size());
+		}
+	}
+
+	@Test
+	public void testErrorDetection() throws Exception {
+		final OperationPipeline operationPipeline = new OperationPipeline().filterByAccount("nobody");
+		final String errorInResult = "{\"id\":1,\"result\":{\"transactions\":[{\"operations\":[[\"transfer\","
+				+ "{\"from\":\"bittrex\",\"memo\":\"\\\"error\\\"\"}]]}]}}";
+
+		assertFalse("expect no error", CommunicationHandler.isErrorResponse(errorInResult));
+		assertEquals("expect the mention in the memo to be ignored", 0,
+				operationPipeline.process(BLOCK_NUMBER, errorInResult).size());
+		assertTrue("expect an error", CommunicationHandler
+				.isErrorResponse("{\"id\":1,\"error\":{\"code\":1,\"message\":\"failed\"}}"));
+
+		try {
+			operationPipeline.process(BLOCK_NUMBER, "{\"id\":1,\"error\":{\"code\":1,\"message\":\"failed\"}}");
+			fail("expect the error to be thrown");
+		} catch (final SteemResponseError e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testAccountNamePrefilter() throws Exception {
+		final AccountNamePrefilter accountNamePrefilter = new AccountNamePrefilter(
+				Arrays.asList("nobody", "dez1337"));
+		final byte[] rawBytes = rawJsonResponse.getBytes(StandardCharsets.UTF_8);
+
+		assertTrue("expect a match", accountNamePrefilter.matches(rawJsonResponse));
+		assertTrue("expect a match", accountNamePrefilter.matches(rawBytes, 0, rawBytes.length));
+		assertFalse("expect no match for prefixes",
+				new AccountNamePrefilter(Arrays.asList("dez")).matches(rawJsonResponse));
+		assertFalse("expect no match without names",
+				new AccountNamePrefilter(Collections.<String> emptyList()).matches(rawJsonResponse));
+	}
+
+	private List<List<OperationRecord>> processAll(final OperationPipeline operationPipeline) throws Exception {
+		final List<List<OperationRecord>> results = new ArrayList<>();
+		results.add(operationPipeline.process(BLOCK_NUMBER, block));
+		results.add(operationPipeline.process(BLOCK_NUMBER, rawJsonResponse));
+		results.add(blockCodec.decodeOperations(BLOCK_NUMBER, encodedBlock, operationPipeline));
+		return results;
+	}
+}
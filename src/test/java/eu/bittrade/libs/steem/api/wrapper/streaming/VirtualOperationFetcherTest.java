@@ -0,0 +1,94 @@
+package eu.bittrade.libs.steem.api.wrapper.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steem.api.wrapper.exceptions.SteemConnectionException;
+import eu.bittrade.libs.steem.api.wrapper.models.AccountActivity;
+import eu.bittrade.libs.steem.api.wrapper.streaming.VirtualOperationFetcher.VirtualOperationSource;
+
+/**
+ * @author http://steemit.com/@dez1337
+ */
+public class VirtualOperationFetcherTest {
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * A source that answers the requests of lower blocks last, so that the
+	 * responses arrive out of order.
+	 */
+	private static final VirtualOperationSource SLOW_LOW_BLOCKS = (blockNumber, onlyVirtual) -> {
+		try {
+			Thread.sleep((110 - blockNumber) * 10);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		return createActivities(blockNumber, (int) (blockNumber % 3));
+	};
+
+	private static List<AccountActivity> createActivities(final long blockNumber, final int count) {
+		final List<AccountActivity> accountActivities = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final Map<String, Object> operation = new HashMap<>();
+			operation.put("producer", "witness" + i);
+
+			final Map<String, Object> accountActivity = new HashMap<>();
+			accountActivity.put("block", blockNumber);
+			accountActivity.put("op_in_trx", i);
+			accountActivity.put("op", Arrays.asList("producer_reward", operation));
+			accountActivities.add(MAPPER.convertValue(accountActivity, AccountActivity.class));
+		}
+
+		return accountActivities;
+	}
+
+	@Test
+	public void testFetchRangeOrder() throws Exception {
+		try (final VirtualOperationFetcher virtualOperationFetcher = new VirtualOperationFetcher(SLOW_LOW_BLOCKS,
+				4)) {
+			final Map<Long, List<OperationRecord>> virtualOperations = virtualOperationFetcher.fetchRange(100, 109);
+
+			assertEquals("expect the blocks in order", Arrays.asList(100L, 101L, 102L, 103L, 104L, 105L, 106L, 107L,
+					108L, 109L), new ArrayList<>(virtualOperations.keySet()));
+			for (final Map.Entry<Long, List<OperationRecord>> block : virtualOperations.entrySet()) {
+				assertEquals("expect the operations of the block", block.getKey() % 3, block.getValue().size());
+				for (final OperationRecord operationRecord : block.getValue()) {
+					assertEquals("expect the operation to belong to the block", (long) block.getKey(),
+							operationRecord.getBlockNumber());
+					assertEquals("expect the operation type", "producer_reward", operationRecord.getOperationType());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFetchRangeError() throws Exception {
+		final SteemConnectionException error = new SteemConnectionException("The node is not available.");
+
+		try (final VirtualOperationFetcher virtualOperationFetcher = new VirtualOperationFetcher(
+				(blockNumber, onlyVirtual) -> {
+					if (blockNumber == 103) {
+						throw error;
+					}
+
+					return SLOW_LOW_BLOCKS.getOpsInBlock(blockNumber, onlyVirtual);
+				}, 4)) {
+			virtualOperationFetcher.fetchRange(100, 109);
+			fail("expect the error of the failed block");
+		} catch (SteemConnectionException e) {
+			assertSame("expect the error of the source", error, e);
+		}
+	}
+}